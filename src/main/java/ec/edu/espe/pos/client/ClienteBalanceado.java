@@ -0,0 +1,117 @@
+package ec.edu.espe.pos.client;
+
+import ec.edu.espe.pos.config.BalanceoProperties;
+
+import feign.Client;
+import feign.Request;
+import feign.Response;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+public class ClienteBalanceado implements Client {
+
+    private static final Logger log = LoggerFactory.getLogger(ClienteBalanceado.class);
+
+    private final Client delegado;
+    private final BalanceoProperties propiedades;
+    private final Map<String, List<InstanciaRemota>> instanciasPorCliente = new ConcurrentHashMap<>();
+
+    public ClienteBalanceado(Client delegado, BalanceoProperties propiedades) {
+        this.delegado = delegado;
+        this.propiedades = propiedades;
+    }
+
+    @Override
+    public Response execute(Request request, Request.Options options) throws IOException {
+        if (request.requestTemplate() == null || request.requestTemplate().feignTarget() == null) {
+            return delegado.execute(request, options);
+        }
+        String cliente = request.requestTemplate().feignTarget().name();
+        List<InstanciaRemota> instancias = instancias(cliente);
+        if (instancias.isEmpty()) {
+            return delegado.execute(request, options);
+        }
+
+        InstanciaRemota instancia = seleccionar(instancias);
+        String urlBase = request.requestTemplate().feignTarget().url();
+        Request redirigida = Request.create(request.httpMethod(),
+                instancia.getUrl() + request.url().substring(urlBase.length()),
+                request.headers(), request.body(), request.charset(), request.requestTemplate());
+
+        long inicio = System.nanoTime();
+        instancia.iniciar();
+        try {
+            Response respuesta = delegado.execute(redirigida, options);
+            if (respuesta.status() >= 500) {
+                registrarFallo(cliente, instancia, inicio);
+            } else {
+                instancia.registrarExito(transcurridoMs(inicio), propiedades.getFactorEwma());
+            }
+            return respuesta;
+        } catch (IOException | RuntimeException e) {
+            if (Plazo.vencido()) {
+                // El timeout lo recortó el plazo de quien llama, no la lentitud de la instancia.
+                instancia.abandonar();
+            } else {
+                registrarFallo(cliente, instancia, inicio);
+            }
+            throw e;
+        }
+    }
+
+    List<InstanciaRemota> instancias(String cliente) {
+        return instanciasPorCliente.computeIfAbsent(cliente, nombre -> propiedades.getInstancias()
+                .getOrDefault(nombre, List.of()).stream()
+                .map(InstanciaRemota::new)
+                .toList());
+    }
+
+    private InstanciaRemota seleccionar(List<InstanciaRemota> instancias) {
+        long ahora = System.currentTimeMillis();
+        List<InstanciaRemota> disponibles = instancias.stream()
+                .filter(instancia -> !instancia.estaExpulsada(ahora))
+                .toList();
+        if (disponibles.isEmpty()) {
+            InstanciaRemota proxima = instancias.get(0);
+            for (InstanciaRemota instancia : instancias) {
+                if (instancia.getExpulsadaHasta() < proxima.getExpulsadaHasta()) {
+                    proxima = instancia;
+                }
+            }
+            return proxima;
+        }
+        if (disponibles.size() == 1) {
+            return disponibles.get(0);
+        }
+        ThreadLocalRandom aleatorio = ThreadLocalRandom.current();
+        int primera = aleatorio.nextInt(disponibles.size());
+        int segunda = aleatorio.nextInt(disponibles.size() - 1);
+        if (segunda >= primera) {
+            segunda++;
+        }
+        InstanciaRemota a = disponibles.get(primera);
+        InstanciaRemota b = disponibles.get(segunda);
+        long arranqueLento = propiedades.getArranqueLentoMs();
+        return a.puntaje(ahora, arranqueLento) <= b.puntaje(ahora, arranqueLento) ? a : b;
+    }
+
+    private void registrarFallo(String cliente, InstanciaRemota instancia, long inicio) {
+        boolean expulsada = instancia.registrarFallo(transcurridoMs(inicio), propiedades.getFactorEwma(),
+                propiedades.getFallosParaExpulsion(), propiedades.getExpulsionMs(), System.currentTimeMillis());
+        if (expulsada) {
+            log.warn("Instancia {} del cliente {} expulsada por {} ms tras fallos consecutivos",
+                    instancia.getUrl(), cliente, propiedades.getExpulsionMs());
+        }
+    }
+
+    private static long transcurridoMs(long inicio) {
+        return (System.nanoTime() - inicio) / 1_000_000;
+    }
+}
@@ -0,0 +1,35 @@
+package ec.edu.espe.pos.client;
+
+import ec.edu.espe.pos.exception.PlazoExcedidoException;
+
+import feign.Client;
+import feign.Request;
+import feign.Response;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+public class ClientePlazo implements Client {
+
+    private final Client delegado;
+
+    public ClientePlazo(Client delegado) {
+        this.delegado = delegado;
+    }
+
+    @Override
+    public Response execute(Request request, Request.Options options) throws IOException {
+        long restante = Plazo.restanteMs();
+        if (restante == Plazo.SIN_PLAZO) {
+            return delegado.execute(request, options);
+        }
+        if (restante == 0) {
+            throw new PlazoExcedidoException("no se envía " + request.httpMethod() + " " + request.url());
+        }
+        Request.Options recortadas = new Request.Options(
+                Math.min(options.connectTimeoutMillis(), restante), TimeUnit.MILLISECONDS,
+                Math.min(options.readTimeoutMillis(), restante), TimeUnit.MILLISECONDS,
+                options.isFollowRedirects());
+        return delegado.execute(request, recortadas);
+    }
+}
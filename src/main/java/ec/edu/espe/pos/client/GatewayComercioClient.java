@@ -6,7 +6,7 @@ import org.springframework.web.bind.annotation.PathVariable;
 
 import ec.edu.espe.pos.controller.dto.FacturacionComercioDTO;
 
-@FeignClient(name = "gateway-comercio", url = "http://3.139.233.22")
+@FeignClient(name = "gateway-comercio", url = "${pos.gateway.url}")
 public interface GatewayComercioClient {
     
     @GetMapping("/v1/comercios/{codigoComercio}/facturacion")
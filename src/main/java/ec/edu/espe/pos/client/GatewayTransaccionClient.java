@@ -6,12 +6,22 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.ResponseBody;
 
+import java.util.List;
+
+import ec.edu.espe.pos.controller.dto.ActualizacionEstadoDTO;
 import ec.edu.espe.pos.controller.dto.GatewayTransaccionDTO;
+import ec.edu.espe.pos.controller.dto.ResultadoSincronizacionDTO;
 
-@FeignClient(name = "gateway-transaccion", url = "http://3.139.233.22")
+@FeignClient(name = "gateway-transaccion", url = "${pos.gateway.url}")
 public interface GatewayTransaccionClient {
 
     @PostMapping("/v1/transacciones/sincronizar")
     @ResponseBody
     ResponseEntity<String> sincronizarTransaccion(@RequestBody GatewayTransaccionDTO transaccion);
+
+    @PostMapping("/v1/transacciones/sincronizar-lote")
+    List<ResultadoSincronizacionDTO> sincronizarLote(@RequestBody List<GatewayTransaccionDTO> transacciones);
+
+    @PostMapping("/v1/transacciones/estados")
+    List<ActualizacionEstadoDTO> consultarEstados(@RequestBody List<String> codigosUnicosTransaccion);
 }
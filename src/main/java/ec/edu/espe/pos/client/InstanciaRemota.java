@@ -0,0 +1,70 @@
+package ec.edu.espe.pos.client;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class InstanciaRemota {
+
+    private static final double LATENCIA_INICIAL_MS = 100.0;
+
+    private final String url;
+    private final AtomicInteger enCurso = new AtomicInteger();
+    private volatile double latenciaEwmaMs = LATENCIA_INICIAL_MS;
+    private int fallosConsecutivos;
+    private volatile long expulsadaHasta;
+    private volatile long reingreso;
+
+    public InstanciaRemota(String url) {
+        this.url = url.endsWith("/") ? url.substring(0, url.length() - 1) : url;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public boolean estaExpulsada(long ahora) {
+        return ahora < expulsadaHasta;
+    }
+
+    public long getExpulsadaHasta() {
+        return expulsadaHasta;
+    }
+
+    public double puntaje(long ahora, long arranqueLentoMs) {
+        double carga = latenciaEwmaMs * (enCurso.get() + 1);
+        long desdeReingreso = ahora - reingreso;
+        if (reingreso > 0 && arranqueLentoMs > 0 && desdeReingreso < arranqueLentoMs) {
+            double factor = Math.max(0.05, (double) desdeReingreso / arranqueLentoMs);
+            return carga / factor;
+        }
+        return carga;
+    }
+
+    public void iniciar() {
+        enCurso.incrementAndGet();
+    }
+
+    public void abandonar() {
+        enCurso.decrementAndGet();
+    }
+
+    public synchronized void registrarExito(long latenciaMs, double factorEwma) {
+        enCurso.decrementAndGet();
+        latenciaEwmaMs = factorEwma * latenciaMs + (1 - factorEwma) * latenciaEwmaMs;
+        fallosConsecutivos = 0;
+    }
+
+    public synchronized boolean registrarFallo(long latenciaMs, double factorEwma, int fallosParaExpulsion,
+            long expulsionMs, long ahora) {
+        enCurso.decrementAndGet();
+        latenciaEwmaMs = factorEwma * latenciaMs + (1 - factorEwma) * latenciaEwmaMs;
+        fallosConsecutivos++;
+        if (fallosConsecutivos < fallosParaExpulsion) {
+            return false;
+        }
+        fallosConsecutivos = 0;
+        expulsadaHasta = ahora + expulsionMs;
+        reingreso = expulsadaHasta;
+        latenciaEwmaMs = LATENCIA_INICIAL_MS;
+        return true;
+    }
+}
@@ -0,0 +1,48 @@
+package ec.edu.espe.pos.client;
+
+import ec.edu.espe.pos.exception.PlazoExcedidoException;
+
+import io.micrometer.context.ContextRegistry;
+
+public final class Plazo {
+
+    public static final long SIN_PLAZO = Long.MAX_VALUE;
+
+    // Instante límite en System.nanoTime() de la solicitud que se atiende en el hilo actual.
+    private static final ThreadLocal<Long> LIMITE = new ThreadLocal<>();
+
+    static {
+        // Los ejecutores envueltos con ContextExecutorService llevan el plazo a sus hilos.
+        ContextRegistry.getInstance().registerThreadLocalAccessor("pos.plazo",
+                LIMITE::get, LIMITE::set, LIMITE::remove);
+    }
+
+    private Plazo() {
+    }
+
+    public static void establecer(long presupuestoMs) {
+        LIMITE.set(System.nanoTime() + presupuestoMs * 1_000_000);
+    }
+
+    public static void limpiar() {
+        LIMITE.remove();
+    }
+
+    public static long restanteMs() {
+        Long limite = LIMITE.get();
+        if (limite == null) {
+            return SIN_PLAZO;
+        }
+        return Math.max(0, (limite - System.nanoTime()) / 1_000_000);
+    }
+
+    public static boolean vencido() {
+        return restanteMs() == 0;
+    }
+
+    public static void verificar(String etapa) {
+        if (vencido()) {
+            throw new PlazoExcedidoException("se abandona " + etapa);
+        }
+    }
+}
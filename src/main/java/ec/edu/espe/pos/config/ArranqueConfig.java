@@ -0,0 +1,18 @@
+package ec.edu.espe.pos.config;
+
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class ArranqueConfig {
+
+    private static final String PAQUETE_APLICACION = "ec.edu.espe.pos.";
+
+    // Con spring.main.lazy-initialization los beans de la aplicación (servicios programados, clientes
+    // Feign, repositorios) se siguen creando al arrancar; solo se difiere la infraestructura no crítica.
+    @Bean
+    public static LazyInitializationExcludeFilter beansDeAplicacionSinDiferir() {
+        return (nombre, definicion, tipo) -> tipo != null && tipo.getName().startsWith(PAQUETE_APLICACION);
+    }
+}
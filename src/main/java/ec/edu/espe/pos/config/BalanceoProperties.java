@@ -0,0 +1,26 @@
+package ec.edu.espe.pos.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import lombok.Data;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "pos.balanceo")
+public class BalanceoProperties {
+
+    private Map<String, List<String>> instancias = new HashMap<>();
+
+    private double factorEwma = 0.2;
+
+    private int fallosParaExpulsion = 3;
+
+    private long expulsionMs = 30000;
+
+    private long arranqueLentoMs = 30000;
+}
@@ -0,0 +1,89 @@
+package ec.edu.espe.pos.config;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class DataSourceAcotado extends DelegatingDataSource {
+
+    private final Semaphore permisos;
+    private final long esperaMaximaMs;
+
+    public DataSourceAcotado(DataSource destino, int conexionesMaximas, long esperaMaximaMs) {
+        super(destino);
+        this.permisos = new Semaphore(conexionesMaximas, true);
+        this.esperaMaximaMs = esperaMaximaMs;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        adquirir();
+        return liberarAlCerrar(obtener(() -> super.getConnection()));
+    }
+
+    @Override
+    public Connection getConnection(String usuario, String clave) throws SQLException {
+        adquirir();
+        return liberarAlCerrar(obtener(() -> super.getConnection(usuario, clave)));
+    }
+
+    public int getPermisosDisponibles() {
+        return permisos.availablePermits();
+    }
+
+    private void adquirir() throws SQLException {
+        try {
+            if (!permisos.tryAcquire(esperaMaximaMs, TimeUnit.MILLISECONDS)) {
+                throw new SQLTimeoutException(
+                        "No se obtuvo turno para la base de datos en " + esperaMaximaMs + " ms");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrumpido esperando turno para la base de datos", e);
+        }
+    }
+
+    private Connection obtener(Apertura apertura) throws SQLException {
+        try {
+            return apertura.abrir();
+        } catch (SQLException | RuntimeException e) {
+            permisos.release();
+            throw e;
+        }
+    }
+
+    private Connection liberarAlCerrar(Connection conexion) {
+        AtomicBoolean liberada = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[] { Connection.class }, (proxy, metodo, argumentos) -> {
+                    if ("unwrap".equals(metodo.getName()) || "isWrapperFor".equals(metodo.getName())) {
+                        if (((Class<?>) argumentos[0]).isInstance(proxy)) {
+                            return "unwrap".equals(metodo.getName()) ? proxy : true;
+                        }
+                    }
+                    try {
+                        return metodo.invoke(conexion, argumentos);
+                    } catch (InvocationTargetException e) {
+                        throw e.getTargetException();
+                    } finally {
+                        if ("close".equals(metodo.getName()) && liberada.compareAndSet(false, true)) {
+                            permisos.release();
+                        }
+                    }
+                });
+    }
+
+    @FunctionalInterface
+    private interface Apertura {
+        Connection abrir() throws SQLException;
+    }
+}
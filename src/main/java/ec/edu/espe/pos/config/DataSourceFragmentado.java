@@ -0,0 +1,15 @@
+package ec.edu.espe.pos.config;
+
+import ec.edu.espe.pos.repository.ContextoFragmento;
+import ec.edu.espe.pos.repository.FragmentosTransaccion;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+public class DataSourceFragmentado extends AbstractRoutingDataSource {
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        Integer fragmento = ContextoFragmento.actual();
+        return fragmento == null ? FragmentosTransaccion.FRAGMENTO_PRINCIPAL : fragmento;
+    }
+}
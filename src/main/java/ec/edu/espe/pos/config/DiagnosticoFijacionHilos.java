@@ -0,0 +1,93 @@
+package ec.edu.espe.pos.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.stream.Collectors;
+
+@Component
+@ConditionalOnProperty(name = "pos.hilos-virtuales.diagnostico-fijacion.habilitado", havingValue = "true")
+public class DiagnosticoFijacionHilos {
+
+    private static final Logger log = LoggerFactory.getLogger(DiagnosticoFijacionHilos.class);
+    private static final String EVENTO = "jdk.VirtualThreadPinned";
+    private static final int MARCOS_REPORTADOS = 8;
+
+    private final Counter fijaciones;
+    private final Duration umbral;
+    private final String archivoJfr;
+    private RecordingStream grabacion;
+
+    public DiagnosticoFijacionHilos(MeterRegistry registro,
+            @Value("${pos.hilos-virtuales.diagnostico-fijacion.umbral-ms:20}") long umbralMs,
+            @Value("${pos.hilos-virtuales.diagnostico-fijacion.archivo-jfr:}") String archivoJfr) {
+        this.umbral = Duration.ofMillis(umbralMs);
+        this.archivoJfr = archivoJfr;
+        this.fijaciones = Counter.builder("pos.hilos.virtuales.fijaciones")
+                .description("Hilos virtuales que bloquearon a su portador más allá del umbral")
+                .register(registro);
+    }
+
+    @PostConstruct
+    public void iniciar() {
+        grabacion = new RecordingStream();
+        grabacion.enable(EVENTO).withThreshold(umbral).withStackTrace();
+        grabacion.onEvent(EVENTO, this::registrar);
+        if (!archivoJfr.isBlank()) {
+            grabacion.setMaxAge(Duration.ofHours(1));
+        }
+        grabacion.startAsync();
+        log.info("Diagnóstico de fijación de hilos virtuales activo (umbral {} ms)", umbral.toMillis());
+    }
+
+    @PreDestroy
+    public void detener() {
+        if (grabacion == null) {
+            return;
+        }
+        if (!archivoJfr.isBlank()) {
+            Path destino = Paths.get(archivoJfr);
+            try {
+                grabacion.dump(destino);
+                log.info("Eventos de fijación guardados en {}", destino.toAbsolutePath());
+            } catch (IOException e) {
+                log.warn("No se pudo guardar la grabación JFR en {}: {}", destino, e.getMessage());
+            }
+        }
+        grabacion.close();
+    }
+
+    private void registrar(RecordedEvent evento) {
+        fijaciones.increment();
+        String pila = evento.getStackTrace() == null ? "sin pila"
+                : evento.getStackTrace().getFrames().stream()
+                        .limit(MARCOS_REPORTADOS)
+                        .map(DiagnosticoFijacionHilos::describir)
+                        .collect(Collectors.joining(" <- "));
+        log.warn("Hilo virtual {} fijó su portador durante {} ms: {}",
+                evento.getThread() == null ? "?" : evento.getThread().getJavaName(),
+                evento.getDuration().toMillis(), pila);
+    }
+
+    private static String describir(RecordedFrame marco) {
+        return marco.getMethod().getType().getName() + "." + marco.getMethod().getName()
+                + ":" + marco.getLineNumber();
+    }
+}
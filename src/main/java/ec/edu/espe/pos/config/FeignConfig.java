@@ -7,7 +7,10 @@ import org.springframework.http.converter.StringHttpMessageConverter;
 import org.springframework.boot.autoconfigure.http.HttpMessageConverters;
 import java.util.ArrayList;
 import java.util.List;
+import feign.Client;
 import feign.codec.Decoder;
+import ec.edu.espe.pos.client.ClienteBalanceado;
+import ec.edu.espe.pos.client.ClientePlazo;
 import org.springframework.cloud.openfeign.support.SpringDecoder;
 import org.springframework.cloud.openfeign.support.ResponseEntityDecoder;
 
@@ -20,4 +23,9 @@ public class FeignConfig {
         converters.add(new StringHttpMessageConverter());
         return new ResponseEntityDecoder(new SpringDecoder(() -> new HttpMessageConverters(converters)));
     }
+
+    @Bean
+    public Client feignClient(BalanceoProperties balanceoProperties) {
+        return new ClientePlazo(new ClienteBalanceado(new Client.Default(null, null), balanceoProperties));
+    }
 } 
\ No newline at end of file
@@ -0,0 +1,120 @@
+package ec.edu.espe.pos.config;
+
+import ec.edu.espe.pos.repository.EnrutadorFragmentos;
+import ec.edu.espe.pos.repository.FragmentosTransaccion;
+import ec.edu.espe.pos.repository.TransaccionRepository;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+@Configuration
+@ConditionalOnExpression("${pos.fragmentos.cantidad:1} > 1")
+public class FragmentosConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(FragmentosConfig.class);
+
+    private final Map<Object, Object> fragmentos = new HashMap<>();
+
+    @Bean
+    @Primary
+    public DataSource dataSource(DataSourceProperties propiedades,
+            @Value("${pos.fragmentos.cantidad}") int cantidad,
+            @Value("${pos.fragmentos.directorio:fragmentos}") String directorio) {
+        Path carpeta = Paths.get(directorio);
+        try {
+            Files.createDirectories(carpeta);
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo crear el directorio de fragmentos " + carpeta, e);
+        }
+        fragmentos.put(FragmentosTransaccion.FRAGMENTO_PRINCIPAL,
+                propiedades.initializeDataSourceBuilder().type(HikariDataSource.class).build());
+        for (int i = 1; i < cantidad; i++) {
+            fragmentos.put(i, DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .driverClassName(propiedades.determineDriverClassName())
+                    .url("jdbc:sqlite:" + carpeta.resolve("pos-fragmento-" + i + ".db")
+                            + "?journal_mode=WAL&busy_timeout=5000")
+                    .build());
+        }
+        DataSourceFragmentado enrutado = new DataSourceFragmentado();
+        enrutado.setTargetDataSources(fragmentos);
+        enrutado.setDefaultTargetDataSource(fragmentos.get(FragmentosTransaccion.FRAGMENTO_PRINCIPAL));
+        enrutado.setLenientFallback(false);
+        enrutado.afterPropertiesSet();
+        log.info("Almacenamiento de transacciones fragmentado en {} bases SQLite", cantidad);
+        // La conexión real se obtiene en la primera sentencia, cuando el fragmento ya está fijado.
+        return new LazyConnectionDataSourceProxy(enrutado);
+    }
+
+    @Bean
+    public static BeanPostProcessor enrutadorRepositorioTransacciones(
+            ObjectProvider<FragmentosTransaccion> fragmentosTransaccion) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String nombre) {
+                if (!(bean instanceof TransaccionRepository)) {
+                    return bean;
+                }
+                ProxyFactory proxy = new ProxyFactory();
+                proxy.setTarget(bean);
+                proxy.addInterface(TransaccionRepository.class);
+                proxy.addAdvice(new EnrutadorFragmentos(bean, fragmentosTransaccion.getObject()));
+                return proxy.getProxy();
+            }
+        };
+    }
+
+    @Bean
+    public SmartInitializingSingleton copiarEsquemaFragmentos() {
+        return () -> {
+            DataSource principal = (DataSource) fragmentos.get(FragmentosTransaccion.FRAGMENTO_PRINCIPAL);
+            List<String> sentencias = new JdbcTemplate(principal).queryForList(
+                    "SELECT sql FROM sqlite_master WHERE tbl_name = 'POS_TRANSACCION' AND sql IS NOT NULL "
+                            + "ORDER BY CASE type WHEN 'table' THEN 0 ELSE 1 END",
+                    String.class);
+            fragmentos.forEach((fragmento, dataSource) -> {
+                if (FragmentosTransaccion.FRAGMENTO_PRINCIPAL == (Integer) fragmento) {
+                    return;
+                }
+                JdbcTemplate destino = new JdbcTemplate((DataSource) dataSource);
+                for (String sentencia : sentencias) {
+                    destino.execute(conIfNotExists(sentencia));
+                }
+            });
+            log.info("Esquema de POS_TRANSACCION copiado a {} fragmentos", fragmentos.size() - 1);
+        };
+    }
+
+    private static String conIfNotExists(String sentencia) {
+        return sentencia
+                .replaceFirst("(?i)^CREATE TABLE ", "CREATE TABLE IF NOT EXISTS ")
+                .replaceFirst("(?i)^CREATE UNIQUE INDEX ", "CREATE UNIQUE INDEX IF NOT EXISTS ")
+                .replaceFirst("(?i)^CREATE INDEX ", "CREATE INDEX IF NOT EXISTS ");
+    }
+}
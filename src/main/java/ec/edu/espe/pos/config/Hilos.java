@@ -0,0 +1,28 @@
+package ec.edu.espe.pos.config;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+public final class Hilos {
+
+    private Hilos() {
+    }
+
+    public static ThreadFactory fabrica(String nombre, boolean virtuales) {
+        return virtuales
+                ? Thread.ofVirtual().name(nombre + "-", 0).factory()
+                : Thread.ofPlatform().name(nombre + "-", 0).daemon().factory();
+    }
+
+    public static ExecutorService porTarea(String nombre, boolean virtuales) {
+        return virtuales
+                ? Executors.newThreadPerTaskExecutor(fabrica(nombre, true))
+                : Executors.newCachedThreadPool(fabrica(nombre, false));
+    }
+
+    // Con hilos virtuales el pool fijo sigue acotando la concurrencia, pero la espera de E/S no ocupa portadores.
+    public static ExecutorService acotado(String nombre, int concurrencia, boolean virtuales) {
+        return Executors.newFixedThreadPool(concurrencia, fabrica(nombre, virtuales));
+    }
+}
@@ -0,0 +1,37 @@
+package ec.edu.espe.pos.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+@Configuration
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class HilosVirtualesConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(HilosVirtualesConfig.class);
+
+    // El driver de SQLite entra a código nativo dentro de bloques synchronized y fija el hilo portador;
+    // con menos turnos que portadores, el resto de hilos virtuales sigue avanzando.
+    @Bean
+    public static BeanPostProcessor acotarDataSource(
+            @Value("${pos.bd.conexiones-maximas:0}") int conexionesMaximas,
+            @Value("${pos.bd.espera-maxima-ms:5000}") long esperaMaximaMs) {
+        int turnos = conexionesMaximas > 0 ? conexionesMaximas : Runtime.getRuntime().availableProcessors();
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String nombre) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof DataSourceAcotado)) {
+                    log.info("DataSource {} acotado a {} conexiones concurrentes", nombre, turnos);
+                    return new DataSourceAcotado(dataSource, turnos, esperaMaximaMs);
+                }
+                return bean;
+            }
+        };
+    }
+}
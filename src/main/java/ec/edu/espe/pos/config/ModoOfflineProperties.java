@@ -0,0 +1,32 @@
+package ec.edu.espe.pos.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+
+import lombok.Data;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "pos.offline")
+public class ModoOfflineProperties {
+
+    private boolean habilitado = false;
+
+    private boolean reenvioHabilitado = true;
+
+    private Map<String, BigDecimal> limites = new HashMap<>();
+
+    private double enviosPorSegundo = 5.0;
+
+    private int tamanoLote = 50;
+
+    private int maximoIntentos = 10;
+
+    private long reintentoBaseMs = 30000;
+
+    private long reintentoMaximoMs = 3600000;
+}
@@ -0,0 +1,86 @@
+package ec.edu.espe.pos.config;
+
+import ec.edu.espe.pos.validation.ValidadorConfiguracion;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.boot.autoconfigure.orm.jpa.EntityManagerFactoryDependsOnPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Configuration
+public class NormalizacionMacConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(NormalizacionMacConfig.class);
+    private static final String TABLA = "POS_CONFIGURACION";
+
+    // Hibernate crea UK_POS_CONFIGURACION_MAC al arrancar: las filas antiguas se corrigen antes.
+    @Bean
+    public static EntityManagerFactoryDependsOnPostProcessor jpaTrasNormalizarMacs() {
+        return new EntityManagerFactoryDependsOnPostProcessor("normalizacionDireccionesMac");
+    }
+
+    @Bean
+    public InitializingBean normalizacionDireccionesMac(DataSource dataSource) {
+        return () -> normalizar(new JdbcTemplate(dataSource));
+    }
+
+    static void normalizar(JdbcTemplate jdbcTemplate) {
+        if (!existeTabla(jdbcTemplate)) {
+            return;
+        }
+        List<String[]> filas = jdbcTemplate.query("SELECT CODIGO_POS, MODELO, DIRECCION_MAC FROM " + TABLA
+                + " WHERE DIRECCION_MAC IS NOT NULL ORDER BY CODIGO_POS, MODELO",
+                (fila, numero) -> new String[] {
+                        fila.getString("CODIGO_POS"), fila.getString("MODELO"), fila.getString("DIRECCION_MAC") });
+        Map<String, List<String>> configuracionesPorMac = new LinkedHashMap<>();
+        List<Object[]> actualizar = new ArrayList<>();
+        for (String[] fila : filas) {
+            String normalizada = ValidadorConfiguracion.normalizarDireccionMac(fila[2]);
+            configuracionesPorMac.computeIfAbsent(normalizada, mac -> new ArrayList<>()).add(fila[0] + "/" + fila[1]);
+            if (!normalizada.equals(fila[2])) {
+                actualizar.add(new Object[] { normalizada, fila[0], fila[1] });
+            }
+        }
+        // Las terminales que comparten MAC se concilian a mano: no se decide cuál configuración sobra.
+        List<String> conflictos = new ArrayList<>();
+        configuracionesPorMac.forEach((mac, configuraciones) -> {
+            if (configuraciones.size() > 1) {
+                conflictos.add(mac + " -> " + String.join(", ", configuraciones));
+            }
+        });
+        if (!conflictos.isEmpty()) {
+            throw new IllegalStateException("Configuraciones con la misma dirección MAC normalizada "
+                    + "(CODIGO_POS/MODELO), conciliar antes de arrancar: " + String.join("; ", conflictos));
+        }
+        if (!actualizar.isEmpty()) {
+            jdbcTemplate.batchUpdate("UPDATE " + TABLA + " SET DIRECCION_MAC = ? WHERE CODIGO_POS = ? AND MODELO = ?",
+                    actualizar);
+            log.info("Direcciones MAC normalizadas: {} actualizadas", actualizar.size());
+        }
+    }
+
+    private static boolean existeTabla(JdbcTemplate jdbcTemplate) {
+        return Boolean.TRUE.equals(jdbcTemplate.execute((ConnectionCallback<Boolean>) conexion -> {
+            for (String nombre : new String[] { TABLA, TABLA.toLowerCase() }) {
+                try (ResultSet tablas = conexion.getMetaData().getTables(null, null, nombre, null)) {
+                    if (tablas.next()) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }));
+    }
+}
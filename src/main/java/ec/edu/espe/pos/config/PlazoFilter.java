@@ -0,0 +1,57 @@
+package ec.edu.espe.pos.config;
+
+import ec.edu.espe.pos.client.Plazo;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+@Component
+@ConditionalOnProperty(name = "pos.plazo.habilitado", havingValue = "true", matchIfMissing = true)
+public class PlazoFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(PlazoFilter.class);
+
+    private final String cabecera;
+    private final long presupuestoMs;
+
+    public PlazoFilter(@Value("${pos.plazo.cabecera:X-Request-Timeout-Ms}") String cabecera,
+            @Value("${pos.plazo.presupuesto-ms:20000}") long presupuestoMs) {
+        this.cabecera = cabecera;
+        this.presupuestoMs = presupuestoMs;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        Plazo.establecer(presupuesto(request.getHeader(cabecera)));
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            Plazo.limpiar();
+        }
+    }
+
+    // El terminal puede pedir menos tiempo del configurado, nunca más.
+    private long presupuesto(String valor) {
+        if (valor == null || valor.isBlank()) {
+            return presupuestoMs;
+        }
+        try {
+            return Math.max(0, Math.min(Long.parseLong(valor.trim()), presupuestoMs));
+        } catch (NumberFormatException e) {
+            log.warn("Cabecera {} inválida: {}", cabecera, valor);
+            return presupuestoMs;
+        }
+    }
+}
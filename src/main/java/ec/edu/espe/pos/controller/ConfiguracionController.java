@@ -5,8 +5,11 @@ import ec.edu.espe.pos.model.ConfiguracionPK;
 import ec.edu.espe.pos.service.ConfiguracionService;
 import ec.edu.espe.pos.controller.dto.ConfiguracionDTO;
 
+import org.springframework.context.MessageSourceResolvable;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.method.annotation.HandlerMethodValidationException;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -19,6 +22,9 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
@@ -126,11 +132,57 @@ public class ConfiguracionController {
             @Valid @RequestBody ConfiguracionDTO configuracionDTO) {
         log.info("Recibiendo configuración para sincronización. PK: {}, MAC: {}",
                 configuracionDTO.getPk(), configuracionDTO.getDireccionMac());
+        return ResponseEntity.ok(configuracionService.crear(toConfiguracion(configuracionDTO)));
+    }
+
+    @Operation(summary = "Sincronizar configuraciones de la flota en lote")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Configuraciones sincronizadas exitosamente",
+            content = @Content(mediaType = "application/json",
+            schema = @Schema(implementation = Configuracion.class))),
+        @ApiResponse(responseCode = "400", description = "Datos de entrada inválidos",
+            content = @Content),
+        @ApiResponse(responseCode = "409", description = "Dirección MAC duplicada",
+            content = @Content),
+        @ApiResponse(responseCode = "500", description = "Error en la sincronización",
+            content = @Content)
+    })
+    @PostMapping("/sincronizar-lote")
+    public ResponseEntity<List<Configuracion>> recibirConfiguracionesLote(
+            @Parameter(description = "Configuraciones a sincronizar")
+            @Valid @RequestBody List<@Valid ConfiguracionDTO> configuracionesDTO) {
+        log.info("Recibiendo lote de {} configuraciones para sincronización", configuracionesDTO.size());
+        List<Configuracion> configuraciones = configuracionesDTO.stream()
+                .map(this::toConfiguracion)
+                .toList();
+        return ResponseEntity.ok(configuracionService.sincronizarLote(configuraciones));
+    }
+
+    private Configuracion toConfiguracion(ConfiguracionDTO configuracionDTO) {
         Configuracion configuracion = new Configuracion();
         configuracion.setPk(configuracionDTO.getPk());
         configuracion.setDireccionMac(configuracionDTO.getDireccionMac());
         configuracion.setCodigoComercio(configuracionDTO.getCodigoComercio());
         configuracion.setFechaActivacion(configuracionDTO.getFechaActivacion());
-        return ResponseEntity.ok(configuracionService.crear(configuracion));
+        return configuracion;
+    }
+
+    // Las restricciones del DTO usan los mismos textos que ConfiguracionService; se devuelven con 400.
+    @ExceptionHandler(MethodArgumentNotValidException.class)
+    public ResponseEntity<Map<String, String>> manejarDatosInvalidos(MethodArgumentNotValidException e) {
+        return datosInvalidos(e.getBindingResult().getAllErrors().stream());
+    }
+
+    @ExceptionHandler(HandlerMethodValidationException.class)
+    public ResponseEntity<Map<String, String>> manejarDatosInvalidos(HandlerMethodValidationException e) {
+        return datosInvalidos(e.getAllErrors().stream());
+    }
+
+    private ResponseEntity<Map<String, String>> datosInvalidos(Stream<? extends MessageSourceResolvable> errores) {
+        String mensaje = errores.map(MessageSourceResolvable::getDefaultMessage)
+                .distinct()
+                .collect(Collectors.joining("; "));
+        log.error("Error de validación: {}", mensaje);
+        return ResponseEntity.badRequest().body(Map.of("mensaje", "Datos inválidos: " + mensaje));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,52 @@
+package ec.edu.espe.pos.controller;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import ec.edu.espe.pos.controller.dto.ResultadoExportacionDTO;
+import ec.edu.espe.pos.exception.InvalidDataException;
+import ec.edu.espe.pos.service.ExportacionTransaccionesService;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+import lombok.RequiredArgsConstructor;
+
+import java.time.LocalDate;
+
+@RestController
+@RequestMapping("/v1/transacciones/exportaciones")
+@RequiredArgsConstructor
+@Tag(name = "Exportación", description = "API para exportar el histórico de transacciones en formato columnar")
+public class ExportacionController {
+
+    private static final Logger log = LoggerFactory.getLogger(ExportacionController.class);
+
+    private final ExportacionTransaccionesService exportacionService;
+
+    @Operation(summary = "Exportar transacciones a archivos Arrow IPC particionados por fecha y marca")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Exportación generada exitosamente"),
+        @ApiResponse(responseCode = "400", description = "Rango de fechas inválido")
+    })
+    @PostMapping
+    public ResponseEntity<ResultadoExportacionDTO> exportar(
+            @Parameter(description = "Fecha inicial (inclusive)", required = true)
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @Parameter(description = "Fecha final (inclusive)", required = true)
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta) {
+        log.info("Solicitud de exportación de transacciones entre {} y {}", desde, hasta);
+        return ResponseEntity.ok(exportacionService.exportar(desde, hasta));
+    }
+
+    @ExceptionHandler(InvalidDataException.class)
+    public ResponseEntity<String> handleInvalidDataException(InvalidDataException e) {
+        return ResponseEntity.badRequest().body(e.getMessage());
+    }
+}
@@ -17,7 +17,9 @@ import ec.edu.espe.pos.controller.dto.GatewayTransaccionDTO;
 import ec.edu.espe.pos.controller.dto.TransaccionRespuestaDTO;
 import ec.edu.espe.pos.controller.mapper.TransaccionMapper;
 import ec.edu.espe.pos.model.Transaccion;
+import ec.edu.espe.pos.exception.DuplicateException;
 import ec.edu.espe.pos.exception.InvalidDataException;
+import ec.edu.espe.pos.exception.PlazoExcedidoException;
 import ec.edu.espe.pos.exception.TarjetaInvalidaException;
 
 import jakarta.validation.Valid;
@@ -44,7 +46,9 @@ public class ProcesamientoTransaccionController {
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Transacción procesada exitosamente", content = @Content(mediaType = "application/json", schema = @Schema(implementation = TransaccionRespuestaDTO.class))),
             @ApiResponse(responseCode = "400", description = "Datos de entrada inválidos", content = @Content(mediaType = "application/json", schema = @Schema(implementation = TransaccionRespuestaDTO.class))),
+            @ApiResponse(responseCode = "409", description = "Cobro duplicado de la misma tarjeta y monto", content = @Content(mediaType = "application/json", schema = @Schema(implementation = TransaccionRespuestaDTO.class))),
             @ApiResponse(responseCode = "404", description = "Recurso no encontrado", content = @Content(mediaType = "application/json", schema = @Schema(implementation = TransaccionRespuestaDTO.class))),
+            @ApiResponse(responseCode = "504", description = "Plazo de la solicitud agotado", content = @Content(mediaType = "application/json", schema = @Schema(implementation = TransaccionRespuestaDTO.class))),
             @ApiResponse(responseCode = "500", description = "Error interno del servidor", content = @Content(mediaType = "application/json", schema = @Schema(implementation = TransaccionRespuestaDTO.class)))
     })
     @PostMapping("/procesar")
@@ -75,6 +79,20 @@ public class ProcesamientoTransaccionController {
                     .mensaje(e.getMessage())
                     .estado("RECHAZADA")
                     .build());
+        } catch (DuplicateException e) {
+            log.warn("Transacción duplicada: {}", e.getMessage());
+            return ResponseEntity.status(409).body(TransaccionRespuestaDTO.builder()
+                    .mensaje(e.getMessage())
+                    .estado("DUPLICADA")
+                    .build());
+        } catch (PlazoExcedidoException e) {
+            log.warn("Pago abandonado: {}", e.getMessage());
+            // Si la transacción ya se registró, el terminal consulta su estado final con el código.
+            return ResponseEntity.status(504).body(TransaccionRespuestaDTO.builder()
+                    .mensaje(e.getMessage())
+                    .estado(e.getEstado() != null ? e.getEstado() : "PLAZO_EXCEDIDO")
+                    .codigoUnicoTransaccion(e.getCodigoUnicoTransaccion())
+                    .build());
         } catch (InvalidDataException e) {
             log.error("Error en datos de entrada: {}", e.getMessage());
             return ResponseEntity.badRequest().body(TransaccionRespuestaDTO.builder()
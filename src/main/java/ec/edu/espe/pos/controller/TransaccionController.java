@@ -2,13 +2,19 @@ package ec.edu.espe.pos.controller;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import ec.edu.espe.pos.service.TransaccionService;
+import ec.edu.espe.pos.service.VersionesEstadoService;
 import ec.edu.espe.pos.controller.dto.TransaccionDTO;
 import ec.edu.espe.pos.controller.dto.ActualizacionEstadoDTO;
+import ec.edu.espe.pos.controller.dto.EstadoTransaccionDTO;
 import ec.edu.espe.pos.controller.dto.GatewayTransaccionDTO;
+import ec.edu.espe.pos.controller.dto.ResultadoActualizacionDTO;
 import ec.edu.espe.pos.controller.mapper.TransaccionMapper;
 import ec.edu.espe.pos.model.Transaccion;
 import ec.edu.espe.pos.exception.NotFoundException;
@@ -24,6 +30,8 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 
+import java.util.List;
+
 @RestController
 @RequestMapping("/v1/transacciones")
 @CrossOrigin(origins = "https://arquitectura-grupo02-pos.vercel.app/")
@@ -62,15 +70,48 @@ public class TransaccionController {
     @Operation(summary = "Consultar estado de una transacción")
     @ApiResponses({
         @ApiResponse(responseCode = "200", description = "Estado consultado exitosamente"),
+        @ApiResponse(responseCode = "304", description = "El estado no ha cambiado desde la última consulta"),
         @ApiResponse(responseCode = "404", description = "Transacción no encontrada")
     })
     @GetMapping("/{codigoUnicoTransaccion}/estado")
     public ResponseEntity<GatewayTransaccionDTO> consultarEstado(
             @Parameter(description = "Código único de la transacción") 
-            @PathVariable String codigoUnicoTransaccion) {
+            @PathVariable String codigoUnicoTransaccion,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         log.info("Consultando estado de transacción: {}", codigoUnicoTransaccion);
+        String etag = transaccionService.obtenerEtagEstado(codigoUnicoTransaccion);
+        if (VersionesEstadoService.coincide(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
         Transaccion transaccion = transaccionService.obtenerPorCodigoUnico(codigoUnicoTransaccion);
-        return ResponseEntity.ok(mapper.toDTO(transaccion));
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .eTag(VersionesEstadoService.etiquetar(transaccion.getEstado()))
+                .body(mapper.toDTO(transaccion));
+    }
+
+    @Operation(summary = "Consultar solo el estado actual de una transacción")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Estado consultado exitosamente",
+                    content = @Content(schema = @Schema(implementation = EstadoTransaccionDTO.class))),
+        @ApiResponse(responseCode = "304", description = "El estado no ha cambiado desde la última consulta"),
+        @ApiResponse(responseCode = "404", description = "Transacción no encontrada")
+    })
+    @GetMapping("/{codigoUnicoTransaccion}/estado-actual")
+    public ResponseEntity<EstadoTransaccionDTO> consultarEstadoActual(
+            @Parameter(description = "Código único de la transacción")
+            @PathVariable String codigoUnicoTransaccion,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        log.debug("Consultando estado actual de transacción: {}", codigoUnicoTransaccion);
+        String etag = transaccionService.obtenerEtagEstado(codigoUnicoTransaccion);
+        if (VersionesEstadoService.coincide(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        EstadoTransaccionDTO estado = transaccionService.consultarEstado(codigoUnicoTransaccion);
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .eTag(VersionesEstadoService.etiquetar(estado.getEstado()))
+                .body(estado);
     }
 
     @Operation(summary = "Actualizar estado de una transacción")
@@ -98,6 +139,19 @@ public class TransaccionController {
         }
     }
 
+    @Operation(summary = "Actualizar el estado de varias transacciones en lote")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Lote procesado, con el resultado de cada actualización",
+                    content = @Content(schema = @Schema(implementation = ResultadoActualizacionDTO.class))),
+        @ApiResponse(responseCode = "500", description = "Error interno del servidor")
+    })
+    @PutMapping("/actualizar-estado/lote")
+    public ResponseEntity<List<ResultadoActualizacionDTO>> actualizarEstadoLote(
+            @RequestBody List<ActualizacionEstadoDTO> actualizaciones) {
+        log.info("Recibiendo lote de {} actualizaciones de estado desde Gateway", actualizaciones.size());
+        return ResponseEntity.ok(transaccionService.actualizarEstadosLote(actualizaciones));
+    }
+
     @ExceptionHandler(NotFoundException.class)
     public ResponseEntity<TransaccionDTO> handleNotFoundException(NotFoundException e) {
         TransaccionDTO response = new TransaccionDTO();
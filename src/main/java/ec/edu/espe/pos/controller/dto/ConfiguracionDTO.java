@@ -2,6 +2,7 @@ package ec.edu.espe.pos.controller.dto;
 
 import java.time.LocalDateTime;
 import ec.edu.espe.pos.model.ConfiguracionPK;
+import ec.edu.espe.pos.validation.DireccionMac;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
@@ -19,6 +20,7 @@ public class ConfiguracionDTO {
 
     @NotBlank(message = "La dirección MAC es obligatoria")
     @Size(min = 12, max = 32, message = "La dirección MAC debe tener entre 12 y 32 caracteres")
+    @DireccionMac(message = "Dirección MAC con formato incorrecto: ${validatedValue}")
     private String direccionMac;
 
     @NotNull(message = "El código del comercio es obligatorio")
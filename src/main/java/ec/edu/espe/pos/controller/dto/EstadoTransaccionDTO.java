@@ -0,0 +1,20 @@
+package ec.edu.espe.pos.controller.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+@Schema(description = "Estado actual de una transacción")
+public class EstadoTransaccionDTO {
+
+    @Schema(description = "Código único de la transacción")
+    private String codigoUnicoTransaccion;
+
+    @Schema(description = "Estado de la transacción", example = "AUT")
+    private String estado;
+
+    @Schema(description = "Detalle del último cambio de estado")
+    private String detalle;
+}
@@ -0,0 +1,29 @@
+package ec.edu.espe.pos.controller.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+@Schema(description = "Resultado de la actualización de estado de una transacción dentro de un lote")
+public class ResultadoActualizacionDTO {
+
+    public static final String ACTUALIZADA = "ACTUALIZADA";
+    public static final String SIN_CAMBIOS = "SIN_CAMBIOS";
+    public static final String NO_ENCONTRADA = "NO_ENCONTRADA";
+    public static final String TRANSICION_INVALIDA = "TRANSICION_INVALIDA";
+    public static final String DATOS_INVALIDOS = "DATOS_INVALIDOS";
+
+    @Schema(description = "Código único de la transacción")
+    private String codigoUnicoTransaccion;
+
+    @Schema(description = "Estado solicitado")
+    private String estado;
+
+    @Schema(description = "Resultado de la actualización", example = "ACTUALIZADA")
+    private String resultado;
+
+    @Schema(description = "Detalle del resultado")
+    private String mensaje;
+}
@@ -0,0 +1,22 @@
+package ec.edu.espe.pos.controller.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+@Schema(description = "Resultado de una exportación columnar de transacciones")
+public class ResultadoExportacionDTO {
+
+    @Schema(description = "Directorio raíz de la exportación")
+    private String directorio;
+
+    @Schema(description = "Archivos Arrow IPC generados, uno por partición fecha/marca")
+    private List<String> archivos;
+
+    @Schema(description = "Número total de transacciones exportadas")
+    private long transacciones;
+}
@@ -0,0 +1,17 @@
+package ec.edu.espe.pos.controller.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResultadoSincronizacionDTO {
+
+    private String codigoUnicoTransaccion;
+
+    private Integer status;
+
+    private String mensaje;
+}
@@ -0,0 +1,30 @@
+package ec.edu.espe.pos.exception;
+
+public class PlazoExcedidoException extends RuntimeException {
+
+    private final String codigoUnicoTransaccion;
+    private final String estado;
+
+    public PlazoExcedidoException(String message) {
+        this(message, null, null);
+    }
+
+    public PlazoExcedidoException(String message, String codigoUnicoTransaccion, String estado) {
+        super(message);
+        this.codigoUnicoTransaccion = codigoUnicoTransaccion;
+        this.estado = estado;
+    }
+
+    public String getCodigoUnicoTransaccion() {
+        return codigoUnicoTransaccion;
+    }
+
+    public String getEstado() {
+        return estado;
+    }
+
+    @Override
+    public String getMessage() {
+        return "Plazo de la solicitud agotado: " + super.getMessage();
+    }
+}
@@ -14,7 +14,9 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "POS_CONFIGURACION")
+@Table(name = "POS_CONFIGURACION", indexes = {
+        @Index(name = "UK_POS_CONFIGURACION_MAC", columnList = "DIRECCION_MAC", unique = true)
+})
 public class Configuracion implements Serializable {
 
     @EmbeddedId
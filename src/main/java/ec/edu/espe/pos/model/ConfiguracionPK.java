@@ -3,6 +3,8 @@ package ec.edu.espe.pos.model;
 import java.io.Serializable;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import ec.edu.espe.pos.validation.Alfanumerico;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
@@ -13,11 +15,16 @@ import lombok.AllArgsConstructor;
 @Embeddable
 public class ConfiguracionPK implements Serializable {
 
-    @NotNull
+    // Mismos textos que ConfiguracionService: la longitud se valida aparte del formato.
+    @NotNull(message = "Código POS con longitud incorrecta: ${validatedValue}")
+    @Size(min = 10, max = 10, message = "Código POS con longitud incorrecta: ${validatedValue}")
+    @Alfanumerico(message = "Código POS con formato incorrecto: ${validatedValue}")
     @Column(name = "CODIGO_POS", length = 10, nullable = false)
     private String codigo;
 
-    @NotNull
+    @NotNull(message = "Modelo con longitud incorrecta: ${validatedValue}")
+    @Size(max = 10, message = "Modelo con longitud incorrecta: ${validatedValue}")
+    @Alfanumerico(message = "Modelo con formato incorrecto: ${validatedValue}")
     @Column(name = "MODELO", length = 10, nullable = false)
     private String modelo;
 
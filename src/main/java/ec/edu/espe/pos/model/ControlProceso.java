@@ -0,0 +1,68 @@
+package ec.edu.espe.pos.model;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "POS_CONTROL_PROCESO")
+public class ControlProceso implements Serializable {
+
+    @Id
+    @Column(name = "NOMBRE", length = 32, nullable = false)
+    private String nombre;
+
+    @NotNull
+    @Column(name = "ULTIMO_CODIGO", nullable = false)
+    private Integer ultimoCodigo;
+
+    @NotNull
+    @Column(name = "FECHA_ACTUALIZACION", nullable = false)
+    private LocalDateTime fechaActualizacion;
+
+    public ControlProceso(String nombre) {
+        this.nombre = nombre;
+    }
+
+    @Override
+    public int hashCode() {
+        final int prime = 31;
+        int result = 1;
+        result = prime * result + ((nombre == null) ? 0 : nombre.hashCode());
+        return result;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj)
+            return true;
+        if (obj == null)
+            return false;
+        if (getClass() != obj.getClass())
+            return false;
+        ControlProceso other = (ControlProceso) obj;
+        if (nombre == null) {
+            if (other.nombre != null)
+                return false;
+        } else if (!nombre.equals(other.nombre))
+            return false;
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return "PosControlProceso{" +
+                "nombre='" + nombre + '\'' +
+                ", ultimoCodigo=" + ultimoCodigo +
+                ", fechaActualizacion=" + fechaActualizacion +
+                '}';
+    }
+}
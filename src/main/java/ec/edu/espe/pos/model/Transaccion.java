@@ -15,7 +15,9 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "POS_TRANSACCION")
+@Table(name = "POS_TRANSACCION", indexes = {
+        @Index(name = "IDX_TRANSACCION_ESTADO_CODIGO", columnList = "ESTADO, COD_TRANSACCION")
+})
 public class Transaccion implements Serializable {
 
     @Id
@@ -0,0 +1,89 @@
+package ec.edu.espe.pos.model;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "POS_COLA_OFFLINE")
+public class TransaccionPendiente implements Serializable {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "COD_PENDIENTE", nullable = false)
+    private Integer codigo;
+
+    @NotNull
+    @Column(name = "CODIGO_UNICO_TRANSACCION", length = 64, nullable = false, unique = true)
+    private String codigoUnicoTransaccion;
+
+    @NotNull
+    @Column(name = "CONTENIDO", length = 8000, nullable = false)
+    private String contenido;
+
+    @NotNull
+    @Column(name = "FECHA_ENCOLADO", nullable = false)
+    private LocalDateTime fechaEncolado;
+
+    @NotNull
+    @Column(name = "INTENTOS", nullable = false)
+    private Integer intentos;
+
+    @Column(name = "ESTADO", length = 3)
+    private String estado;
+
+    @Column(name = "PROXIMO_INTENTO")
+    private LocalDateTime proximoIntento;
+
+    @Column(name = "ULTIMO_ERROR", length = 500)
+    private String ultimoError;
+
+    public TransaccionPendiente(Integer codigo) {
+        this.codigo = codigo;
+    }
+
+    @Override
+    public int hashCode() {
+        final int prime = 31;
+        int result = 1;
+        result = prime * result + ((codigo == null) ? 0 : codigo.hashCode());
+        return result;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj)
+            return true;
+        if (obj == null)
+            return false;
+        if (getClass() != obj.getClass())
+            return false;
+        TransaccionPendiente other = (TransaccionPendiente) obj;
+        if (codigo == null) {
+            if (other.codigo != null)
+                return false;
+        } else if (!codigo.equals(other.codigo))
+            return false;
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return "PosTransaccionPendiente{" +
+                "codigo=" + codigo +
+                ", codigoUnicoTransaccion='" + codigoUnicoTransaccion + '\'' +
+                ", fechaEncolado=" + fechaEncolado +
+                ", intentos=" + intentos +
+                ", estado='" + estado + '\'' +
+                ", proximoIntento=" + proximoIntento +
+                '}';
+    }
+}
@@ -0,0 +1,40 @@
+package ec.edu.espe.pos.repository;
+
+import ec.edu.espe.pos.model.Configuracion;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.RequiredArgsConstructor;
+
+@Repository
+@RequiredArgsConstructor
+public class ConfiguracionJdbcRepository {
+
+    // ON CONFLICT lo entienden SQLite (3.24+) y PostgreSQL: una sola sentencia por fila, sin SELECT previo.
+    private static final String SQL_UPSERT = "INSERT INTO POS_CONFIGURACION "
+            + "(CODIGO_POS, MODELO, DIRECCION_MAC, CODIGO_COMERCIO, FECHA_ACTIVACION) VALUES (?, ?, ?, ?, ?) "
+            + "ON CONFLICT (CODIGO_POS, MODELO) DO UPDATE SET DIRECCION_MAC = excluded.DIRECCION_MAC, "
+            + "CODIGO_COMERCIO = excluded.CODIGO_COMERCIO, FECHA_ACTIVACION = excluded.FECHA_ACTIVACION";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public int[] guardarLote(List<Configuracion> configuraciones) {
+        List<Object[]> parametros = new ArrayList<>(configuraciones.size());
+        for (Configuracion configuracion : configuraciones) {
+            parametros.add(new Object[] {
+                    configuracion.getPk().getCodigo(),
+                    configuracion.getPk().getModelo(),
+                    configuracion.getDireccionMac(),
+                    configuracion.getCodigoComercio(),
+                    configuracion.getFechaActivacion() == null ? null
+                            : Timestamp.valueOf(configuracion.getFechaActivacion())
+            });
+        }
+        return jdbcTemplate.batchUpdate(SQL_UPSERT, parametros);
+    }
+}
@@ -3,8 +3,20 @@ package ec.edu.espe.pos.repository;
 import ec.edu.espe.pos.model.Configuracion;
 import ec.edu.espe.pos.model.ConfiguracionPK;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface ConfiguracionRepository extends JpaRepository<Configuracion, ConfiguracionPK> {
     Optional<Configuracion> findByPk(ConfiguracionPK pk);
-}
\ No newline at end of file
+
+    @Query("select count(c) > 0 from Configuracion c where c.direccionMac = :direccionMac "
+            + "and (c.pk.codigo <> :codigo or c.pk.modelo <> :modelo)")
+    boolean existsByDireccionMacEnOtraConfiguracion(@Param("direccionMac") String direccionMac,
+            @Param("codigo") String codigo, @Param("modelo") String modelo);
+
+    List<Configuracion> findByDireccionMacIn(Collection<String> direccionesMac);
+}
@@ -0,0 +1,23 @@
+package ec.edu.espe.pos.repository;
+
+public final class ContextoFragmento {
+
+    private static final ThreadLocal<Integer> FRAGMENTO_ACTUAL = new ThreadLocal<>();
+
+    private ContextoFragmento() {
+    }
+
+    public static Integer actual() {
+        return FRAGMENTO_ACTUAL.get();
+    }
+
+    static Integer establecer(Integer fragmento) {
+        Integer anterior = FRAGMENTO_ACTUAL.get();
+        if (fragmento == null) {
+            FRAGMENTO_ACTUAL.remove();
+        } else {
+            FRAGMENTO_ACTUAL.set(fragmento);
+        }
+        return anterior;
+    }
+}
@@ -0,0 +1,7 @@
+package ec.edu.espe.pos.repository;
+
+import ec.edu.espe.pos.model.ControlProceso;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface ControlProcesoRepository extends JpaRepository<ControlProceso, String> {
+}
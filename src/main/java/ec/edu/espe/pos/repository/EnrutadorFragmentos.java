@@ -0,0 +1,87 @@
+package ec.edu.espe.pos.repository;
+
+import ec.edu.espe.pos.model.Transaccion;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+public class EnrutadorFragmentos implements MethodInterceptor {
+
+    private final Object repositorio;
+    private final FragmentosTransaccion fragmentos;
+
+    public EnrutadorFragmentos(Object repositorio, FragmentosTransaccion fragmentos) {
+        this.repositorio = repositorio;
+        this.fragmentos = fragmentos;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocacion) throws Throwable {
+        Method metodo = invocacion.getMethod();
+        Object[] argumentos = invocacion.getArguments();
+        if (ContextoFragmento.actual() != null || metodo.getDeclaringClass() == Object.class) {
+            return invocacion.proceed();
+        }
+        if (argumentos.length == 1 && argumentos[0] instanceof Iterable<?> entidades
+                && "saveAll".equals(metodo.getName())) {
+            return guardarPorFragmento(metodo, entidades);
+        }
+        Integer fragmento = fragmentoDe(argumentos);
+        if (fragmento != null) {
+            return fragmentos.ejecutarEn(fragmento, () -> invocar(metodo, argumentos));
+        }
+        if (List.class.isAssignableFrom(metodo.getReturnType())) {
+            return fragmentos.consultarTodos(f -> (List<?>) invocar(metodo, argumentos));
+        }
+        return fragmentos.ejecutarEn(FragmentosTransaccion.FRAGMENTO_PRINCIPAL, () -> invocar(metodo, argumentos));
+    }
+
+    private Integer fragmentoDe(Object[] argumentos) {
+        if (argumentos.length == 0) {
+            return null;
+        }
+        if (argumentos[0] instanceof Transaccion transaccion) {
+            Integer fragmento = fragmentos.fragmentoDeCodigo(transaccion.getCodigoUnicoTransaccion());
+            return fragmento == null ? FragmentosTransaccion.FRAGMENTO_PRINCIPAL : fragmento;
+        }
+        if (argumentos[0] instanceof String codigo) {
+            return fragmentos.fragmentoDeCodigo(codigo);
+        }
+        return null;
+    }
+
+    private Object guardarPorFragmento(Method metodo, Iterable<?> entidades) {
+        List<String> codigos = new ArrayList<>();
+        List<Object> lista = new ArrayList<>();
+        for (Object entidad : entidades) {
+            lista.add(entidad);
+            codigos.add(entidad instanceof Transaccion t ? t.getCodigoUnicoTransaccion() : null);
+        }
+        List<Object> guardadas = new ArrayList<>(lista.size());
+        for (Map.Entry<Integer, List<Integer>> grupo : fragmentos.agruparPorFragmento(codigos).entrySet()) {
+            List<Object> entidadesGrupo = grupo.getValue().stream().map(lista::get).toList();
+            guardadas.addAll((List<?>) fragmentos.ejecutarEn(grupo.getKey(),
+                    () -> invocar(metodo, new Object[] { entidadesGrupo })));
+        }
+        return guardadas;
+    }
+
+    private Object invocar(Method metodo, Object[] argumentos) {
+        try {
+            return metodo.invoke(repositorio, argumentos);
+        } catch (InvocationTargetException e) {
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
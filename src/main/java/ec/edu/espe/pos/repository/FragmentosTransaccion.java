@@ -0,0 +1,124 @@
+package ec.edu.espe.pos.repository;
+
+import ec.edu.espe.pos.config.Hilos;
+
+import jakarta.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+
+@Component
+public class FragmentosTransaccion {
+
+    public static final int FRAGMENTO_PRINCIPAL = 0;
+
+    private final int cantidad;
+    private final ExecutorService ejecutor;
+
+    public FragmentosTransaccion(@Value("${pos.fragmentos.cantidad:1}") int cantidad,
+            @Value("${pos.fragmentos.paralelismo:4}") int paralelismo,
+            @Value("${spring.threads.virtual.enabled:false}") boolean hilosVirtuales) {
+        this.cantidad = Math.max(1, cantidad);
+        this.ejecutor = this.cantidad > 1
+                ? Hilos.acotado("consulta-fragmentos", Math.min(paralelismo, this.cantidad), hilosVirtuales)
+                : null;
+    }
+
+    public boolean isHabilitado() {
+        return cantidad > 1;
+    }
+
+    public int getCantidad() {
+        return cantidad;
+    }
+
+    // Se reparte por el prefijo aleatorio del código: cada transacción elige fragmento, también dentro
+    // de un mismo terminal, y el código conserva el fragmento elegido en su último campo.
+    public int fragmentoPorPrefijo(int prefijoAleatorio) {
+        return Math.floorMod(prefijoAleatorio, cantidad);
+    }
+
+    // El último campo del código único guarda el fragmento + 1; los códigos previos (…-000000000001)
+    // corresponden al fragmento principal.
+    public Integer fragmentoDeCodigo(String codigoUnicoTransaccion) {
+        if (codigoUnicoTransaccion == null || !codigoUnicoTransaccion.startsWith("TRX")) {
+            return null;
+        }
+        int separador = codigoUnicoTransaccion.lastIndexOf('-');
+        try {
+            long campo = Long.parseLong(codigoUnicoTransaccion.substring(separador + 1));
+            int fragmento = (int) (campo - 1);
+            return fragmento >= 0 && fragmento < cantidad ? fragmento : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    public long campoCodigo(int fragmento) {
+        return fragmento + 1L;
+    }
+
+    public <T> T ejecutarEn(Integer fragmento, Supplier<T> operacion) {
+        Integer anterior = ContextoFragmento.establecer(fragmento);
+        try {
+            return operacion.get();
+        } finally {
+            ContextoFragmento.establecer(anterior);
+        }
+    }
+
+    public Map<Integer, List<Integer>> agruparPorFragmento(List<String> codigosUnicos) {
+        Map<Integer, List<Integer>> grupos = new LinkedHashMap<>();
+        for (int i = 0; i < codigosUnicos.size(); i++) {
+            Integer fragmento = fragmentoDeCodigo(codigosUnicos.get(i));
+            grupos.computeIfAbsent(fragmento == null ? FRAGMENTO_PRINCIPAL : fragmento,
+                    clave -> new ArrayList<>()).add(i);
+        }
+        return grupos;
+    }
+
+    public <T> List<T> consultarTodos(IntFunction<List<T>> consulta) {
+        if (!isHabilitado()) {
+            return consulta.apply(FRAGMENTO_PRINCIPAL);
+        }
+        List<Future<List<T>>> parciales = new ArrayList<>(cantidad);
+        for (int i = 0; i < cantidad; i++) {
+            int fragmento = i;
+            parciales.add(ejecutor.submit(() -> ejecutarEn(fragmento, () -> consulta.apply(fragmento))));
+        }
+        List<T> resultado = new ArrayList<>();
+        try {
+            for (Future<List<T>> parcial : parciales) {
+                resultado.addAll(parcial.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Consulta entre fragmentos interrumpida", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            parciales.forEach(parcial -> parcial.cancel(true));
+        }
+        return resultado;
+    }
+
+    @PreDestroy
+    public void detener() {
+        if (ejecutor != null) {
+            ejecutor.shutdownNow();
+        }
+    }
+}
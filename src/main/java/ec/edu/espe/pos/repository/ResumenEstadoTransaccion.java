@@ -0,0 +1,10 @@
+package ec.edu.espe.pos.repository;
+
+public interface ResumenEstadoTransaccion {
+
+    String getCodigoUnicoTransaccion();
+
+    String getEstado();
+
+    String getDetalle();
+}
@@ -3,6 +3,7 @@ package ec.edu.espe.pos.repository;
 import ec.edu.espe.pos.model.SeguridadGateway;
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 
@@ -13,4 +14,7 @@ public interface SeguridadGatewayRepository extends JpaRepository<SeguridadGatew
     List<SeguridadGateway> findByEstado(String estado);
     
     Optional<SeguridadGateway> findFirstByEstadoOrderByFechaActualizacionDesc(String estado);
-}
\ No newline at end of file
+
+    Optional<SeguridadGateway> findFirstByEstadoAndFechaActivacionLessThanEqualOrderByFechaActualizacionDesc(
+            String estado, LocalDate fechaActivacion);
+}
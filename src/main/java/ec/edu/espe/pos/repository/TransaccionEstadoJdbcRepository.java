@@ -0,0 +1,66 @@
+package ec.edu.espe.pos.repository;
+
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import lombok.RequiredArgsConstructor;
+
+@Repository
+@RequiredArgsConstructor
+public class TransaccionEstadoJdbcRepository {
+
+    private static final int TAMANO_CONSULTA = 500;
+
+    private static final String SQL_TRANSICION = "UPDATE POS_TRANSACCION SET ESTADO = ?, DETALLE = COALESCE(?, DETALLE) "
+            + "WHERE CODIGO_UNICO_TRANSACCION = ? AND ESTADO IN ("
+            + String.join(", ", Collections.nCopies(TransicionesEstadoTransaccion.MAXIMO_ORIGENES, "?"))
+            + ")";
+
+    private static final String SQL_ESTADOS = "SELECT CODIGO_UNICO_TRANSACCION, ESTADO FROM POS_TRANSACCION "
+            + "WHERE CODIGO_UNICO_TRANSACCION IN (:codigos)";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public int[] transicionarEstados(List<TransicionEstado> transiciones) {
+        List<Object[]> parametros = new ArrayList<>(transiciones.size());
+        for (TransicionEstado transicion : transiciones) {
+            List<String> origenes = new ArrayList<>(
+                    TransicionesEstadoTransaccion.origenesPermitidos(transicion.estadoDestino()));
+            Object[] fila = new Object[3 + TransicionesEstadoTransaccion.MAXIMO_ORIGENES];
+            fila[0] = transicion.estadoDestino();
+            fila[1] = transicion.detalle();
+            fila[2] = transicion.codigoUnicoTransaccion();
+            for (int i = 0; i < TransicionesEstadoTransaccion.MAXIMO_ORIGENES; i++) {
+                // Se repite el primer origen para completar la lista fija de parámetros.
+                fila[3 + i] = origenes.isEmpty() ? null : origenes.get(Math.min(i, origenes.size() - 1));
+            }
+            parametros.add(fila);
+        }
+        return jdbcTemplate.getJdbcTemplate().batchUpdate(SQL_TRANSICION, parametros);
+    }
+
+    public Map<String, String> buscarEstados(Collection<String> codigosUnicos) {
+        List<String> codigos = new ArrayList<>(Set.copyOf(codigosUnicos));
+        Map<String, String> estados = new HashMap<>();
+        for (int inicio = 0; inicio < codigos.size(); inicio += TAMANO_CONSULTA) {
+            List<String> bloque = codigos.subList(inicio, Math.min(inicio + TAMANO_CONSULTA, codigos.size()));
+            jdbcTemplate.query(SQL_ESTADOS, new MapSqlParameterSource("codigos", bloque),
+                    fila -> {
+                        estados.put(fila.getString("CODIGO_UNICO_TRANSACCION"), fila.getString("ESTADO"));
+                    });
+        }
+        return estados;
+    }
+
+    public record TransicionEstado(String codigoUnicoTransaccion, String estadoDestino, String detalle) {
+    }
+}
@@ -0,0 +1,27 @@
+package ec.edu.espe.pos.repository;
+
+import ec.edu.espe.pos.model.TransaccionPendiente;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface TransaccionPendienteRepository extends JpaRepository<TransaccionPendiente, Integer> {
+
+    // Las filas encoladas antes de existir ESTADO y PROXIMO_INTENTO cuentan como pendientes y listas.
+    @Query("select p from TransaccionPendiente p where (p.estado is null or p.estado = :estado) "
+            + "and (p.proximoIntento is null or p.proximoIntento <= :ahora) order by p.codigo asc")
+    List<TransaccionPendiente> buscarListasParaEnvio(@Param("estado") String estado,
+            @Param("ahora") LocalDateTime ahora, Pageable pagina);
+
+    @Query("select count(p) from TransaccionPendiente p where p.estado is null or p.estado = :estado")
+    long contarPorEstado(@Param("estado") String estado);
+
+    boolean existsByCodigoUnicoTransaccion(String codigoUnicoTransaccion);
+
+    @Query("select min(p.fechaEncolado) from TransaccionPendiente p where p.estado is null or p.estado = 'PEN'")
+    LocalDateTime findFechaEncoladoMasAntigua();
+}
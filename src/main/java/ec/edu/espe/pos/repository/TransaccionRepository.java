@@ -1,14 +1,56 @@
 package ec.edu.espe.pos.repository;
 
+import ec.edu.espe.pos.exception.InvalidDataException;
 import ec.edu.espe.pos.model.Transaccion;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 public interface TransaccionRepository extends JpaRepository<Transaccion, Integer> {
     Optional<Transaccion> findByCodigoUnicoTransaccion(String codigoUnicoTransaccion);
     List<Transaccion> findByEstado(String estado);
     List<Transaccion> findByTipoAndEstado(String tipo, String estado);
     Boolean existsByCodigoUnicoTransaccion(String codigoUnicoTransaccion);
-}
\ No newline at end of file
+    List<Transaccion> findByEstadoAndFechaBeforeAndCodigoGreaterThanOrderByCodigoAsc(String estado,
+            LocalDateTime fecha, Integer codigo, Pageable pagina);
+
+    @Query("select t.estado from Transaccion t where t.codigoUnicoTransaccion = :codigoUnicoTransaccion")
+    Optional<String> findEstadoByCodigoUnicoTransaccion(
+            @Param("codigoUnicoTransaccion") String codigoUnicoTransaccion);
+
+    @Query("select t.codigoUnicoTransaccion as codigoUnicoTransaccion, t.estado as estado, t.detalle as detalle "
+            + "from Transaccion t where t.codigoUnicoTransaccion = :codigoUnicoTransaccion")
+    Optional<ResumenEstadoTransaccion> findResumenEstadoByCodigoUnicoTransaccion(
+            @Param("codigoUnicoTransaccion") String codigoUnicoTransaccion);
+
+    @Transactional
+    @Modifying
+    @Query("update Transaccion t set t.estado = :estadoDestino, t.detalle = coalesce(:detalle, t.detalle) "
+            + "where t.codigoUnicoTransaccion = :codigoUnicoTransaccion and t.estado in :estadosOrigen")
+    int actualizarEstadoCondicional(@Param("codigoUnicoTransaccion") String codigoUnicoTransaccion,
+            @Param("estadoDestino") String estadoDestino, @Param("detalle") String detalle,
+            @Param("estadosOrigen") Collection<String> estadosOrigen);
+
+    @Transactional
+    @Modifying
+    @Query("update Transaccion t set t.detalle = :detalle where t.codigoUnicoTransaccion = :codigoUnicoTransaccion")
+    int actualizarDetalle(@Param("codigoUnicoTransaccion") String codigoUnicoTransaccion,
+            @Param("detalle") String detalle);
+
+    default boolean transicionarEstado(String codigoUnicoTransaccion, String estadoDestino, String detalle) {
+        Set<String> estadosOrigen = TransicionesEstadoTransaccion.origenesPermitidos(estadoDestino);
+        if (estadosOrigen.isEmpty()) {
+            throw new InvalidDataException("Estado de destino no permitido: " + estadoDestino);
+        }
+        return actualizarEstadoCondicional(codigoUnicoTransaccion, estadoDestino, detalle, estadosOrigen) > 0;
+    }
+}
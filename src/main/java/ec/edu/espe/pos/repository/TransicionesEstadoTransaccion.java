@@ -0,0 +1,34 @@
+package ec.edu.espe.pos.repository;
+
+import java.util.Map;
+import java.util.Set;
+
+public final class TransicionesEstadoTransaccion {
+
+    public static final String ESTADO_ENVIADO = "ENV";
+    public static final String ESTADO_AUTORIZADO = "AUT";
+    public static final String ESTADO_RECHAZADO = "REC";
+    public static final String ESTADO_REVERSADO = "REV";
+
+    private static final Map<String, Set<String>> ORIGENES_PERMITIDOS = Map.of(
+            ESTADO_AUTORIZADO, Set.of(ESTADO_ENVIADO),
+            ESTADO_RECHAZADO, Set.of(ESTADO_ENVIADO),
+            ESTADO_REVERSADO, Set.of(ESTADO_ENVIADO));
+
+    public static final int MAXIMO_ORIGENES = ORIGENES_PERMITIDOS.values().stream()
+            .mapToInt(Set::size)
+            .max()
+            .orElse(1);
+
+    private TransicionesEstadoTransaccion() {
+    }
+
+    public static Set<String> origenesPermitidos(String estadoDestino) {
+        return estadoDestino == null ? Set.of() : ORIGENES_PERMITIDOS.getOrDefault(estadoDestino, Set.of());
+    }
+
+    public static boolean esEstadoFinal(String estado) {
+        return estado != null && ORIGENES_PERMITIDOS.containsKey(estado)
+                && ORIGENES_PERMITIDOS.values().stream().noneMatch(origenes -> origenes.contains(estado));
+    }
+}
@@ -0,0 +1,106 @@
+package ec.edu.espe.pos.service;
+
+import ec.edu.espe.pos.model.SeguridadGateway;
+import ec.edu.espe.pos.model.SeguridadMarca;
+import ec.edu.espe.pos.repository.SeguridadGatewayRepository;
+import ec.edu.espe.pos.repository.SeguridadMarcaRepository;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+
+import lombok.RequiredArgsConstructor;
+
+@Service
+@RequiredArgsConstructor
+public class AlmacenClavesService {
+
+    private static final Logger log = LoggerFactory.getLogger(AlmacenClavesService.class);
+
+    public static final String ESTADO_ACTIVO = "ACT";
+
+    private final SeguridadGatewayRepository seguridadGatewayRepository;
+    private final SeguridadMarcaRepository seguridadMarcaRepository;
+    private final AtomicReference<ClavesActivas> claves = new AtomicReference<>(ClavesActivas.VACIAS);
+
+    public Optional<String> obtenerClaveGateway() {
+        return Optional.ofNullable(claves.get().claveGateway());
+    }
+
+    public Optional<String> obtenerClaveMarca(String marca) {
+        return Optional.ofNullable(claves.get().clavesMarca().get(marca));
+    }
+
+    public Optional<SecretKey> obtenerLlaveMarca(String marca) {
+        return Optional.ofNullable(claves.get().llavesMarca().get(marca));
+    }
+
+    public LocalDateTime obtenerFechaCarga() {
+        return claves.get().fechaCarga();
+    }
+
+    @Scheduled(fixedDelayString = "${pos.claves.intervalo-recarga-ms:60000}")
+    public void recargar() {
+        try {
+            String claveGateway = seguridadGatewayRepository
+                    .findFirstByEstadoAndFechaActivacionLessThanEqualOrderByFechaActualizacionDesc(
+                            ESTADO_ACTIVO, LocalDate.now())
+                    .map(SeguridadGateway::getClave)
+                    .orElse(null);
+
+            Map<String, String> clavesMarca = new HashMap<>();
+            Map<String, SecretKey> llavesMarca = new HashMap<>();
+            for (SeguridadMarca seguridadMarca : seguridadMarcaRepository.findAll()) {
+                clavesMarca.put(seguridadMarca.getMarca(), seguridadMarca.getClave());
+                llavesMarca.put(seguridadMarca.getMarca(), derivarLlaveAes(seguridadMarca.getClave()));
+            }
+
+            ClavesActivas nuevas = new ClavesActivas(claveGateway, Map.copyOf(clavesMarca),
+                    Map.copyOf(llavesMarca), LocalDateTime.now());
+            ClavesActivas anteriores = claves.getAndSet(nuevas);
+
+            if (!Objects.equals(anteriores.claveGateway(), nuevas.claveGateway())
+                    || !anteriores.clavesMarca().equals(nuevas.clavesMarca())) {
+                log.info("Claves de seguridad rotadas: gateway activa={}, marcas={}",
+                        nuevas.claveGateway() != null, nuevas.clavesMarca().keySet());
+            }
+        } catch (Exception e) {
+            log.error("Error al recargar claves de seguridad, se mantienen las anteriores: {}", e.getMessage());
+        }
+    }
+
+    private SecretKey derivarLlaveAes(String clave) throws NoSuchAlgorithmException {
+        try {
+            byte[] decodificada = Base64.getDecoder().decode(clave);
+            if (decodificada.length == 16 || decodificada.length == 24 || decodificada.length == 32) {
+                return new SecretKeySpec(decodificada, "AES");
+            }
+        } catch (IllegalArgumentException e) {
+            log.debug("La clave de marca no está en Base64, se deriva con SHA-256");
+        }
+        byte[] resumen = MessageDigest.getInstance("SHA-256").digest(clave.getBytes(StandardCharsets.UTF_8));
+        return new SecretKeySpec(resumen, "AES");
+    }
+
+    private record ClavesActivas(String claveGateway, Map<String, String> clavesMarca,
+            Map<String, SecretKey> llavesMarca, LocalDateTime fechaCarga) {
+
+        private static final ClavesActivas VACIAS = new ClavesActivas(null, Map.of(), Map.of(), null);
+    }
+}
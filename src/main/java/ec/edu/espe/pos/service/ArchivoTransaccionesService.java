@@ -0,0 +1,282 @@
+package ec.edu.espe.pos.service;
+
+import ec.edu.espe.pos.model.Transaccion;
+import ec.edu.espe.pos.repository.FragmentosTransaccion;
+import ec.edu.espe.pos.repository.TransicionesEstadoTransaccion;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+
+@Service
+public class ArchivoTransaccionesService {
+
+    private static final Logger log = LoggerFactory.getLogger(ArchivoTransaccionesService.class);
+    private static final String ESQUEMA_ARCHIVO = "archivo";
+    private static final int AUTO_VACUUM_INCREMENTAL = 2;
+
+    // La cola offline solo existe en la base principal: sus códigos se excluyen en memoria para poder
+    // usar la misma consulta en cada fragmento.
+    private static final String SQL_CANDIDATAS = "SELECT COD_TRANSACCION, FECHA, CODIGO_UNICO_TRANSACCION "
+            + "FROM POS_TRANSACCION WHERE ESTADO IN (?, ?, ?) AND FECHA < ? AND COD_TRANSACCION > ? "
+            + "ORDER BY COD_TRANSACCION LIMIT ?";
+
+    private static final String SQL_CODIGOS_EN_COLA = "SELECT CODIGO_UNICO_TRANSACCION FROM POS_COLA_OFFLINE";
+
+    private static final String SQL_BUSCAR_ARCHIVADA = "SELECT * FROM " + ESQUEMA_ARCHIVO
+            + ".POS_TRANSACCION WHERE CODIGO_UNICO_TRANSACCION = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final FragmentosTransaccion fragmentosTransaccion;
+    private final boolean habilitado;
+    private final int diasRetencion;
+    private final int tamanoLote;
+    private final Path directorio;
+
+    public ArchivoTransaccionesService(JdbcTemplate jdbcTemplate, FragmentosTransaccion fragmentosTransaccion,
+            @Value("${pos.archivo.habilitado:false}") boolean habilitado,
+            @Value("${pos.archivo.dias-retencion:90}") int diasRetencion,
+            @Value("${pos.archivo.tamano-lote:1000}") int tamanoLote,
+            @Value("${pos.archivo.directorio:archivo}") String directorio) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.fragmentosTransaccion = fragmentosTransaccion;
+        this.habilitado = habilitado;
+        this.diasRetencion = diasRetencion;
+        this.tamanoLote = tamanoLote;
+        this.directorio = Paths.get(directorio);
+    }
+
+    @Scheduled(cron = "${pos.archivo.cron:0 30 3 * * *}")
+    public void archivar() {
+        if (!habilitado) {
+            return;
+        }
+        LocalDateTime limite = LocalDateTime.now().minusDays(diasRetencion);
+        log.info("Iniciando archivo de transacciones cerradas anteriores a {}", limite);
+        try {
+            Files.createDirectories(directorio);
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo crear el directorio de archivo " + directorio, e);
+        }
+
+        Set<String> enCola = fragmentosTransaccion.ejecutarEn(FragmentosTransaccion.FRAGMENTO_PRINCIPAL,
+                () -> new HashSet<>(jdbcTemplate.queryForList(SQL_CODIGOS_EN_COLA, String.class)));
+        int archivadas = 0;
+        for (int i = 0; i < fragmentosTransaccion.getCantidad(); i++) {
+            int fragmento = i;
+            archivadas += fragmentosTransaccion.ejecutarEn(fragmento,
+                    () -> archivarFragmento(fragmento, limite, enCola));
+        }
+        log.info("Archivo finalizado: {} transacciones movidas", archivadas);
+    }
+
+    private int archivarFragmento(int fragmento, LocalDateTime limite, Set<String> enCola) {
+        int archivadas = 0;
+        int ultimoCodigo = 0;
+        while (true) {
+            Candidatas candidatas = buscarCandidatas(limite, ultimoCodigo, enCola);
+            if (candidatas.ultimoCodigo() == ultimoCodigo) {
+                break;
+            }
+            for (Map.Entry<YearMonth, List<Integer>> mes : candidatas.porMes().entrySet()) {
+                archivadas += moverAlArchivo(mes.getKey(), mes.getValue());
+            }
+            ultimoCodigo = candidatas.ultimoCodigo();
+        }
+        if (archivadas > 0) {
+            compactar();
+        }
+        if (fragmentosTransaccion.isHabilitado()) {
+            log.info("Fragmento {}: {} transacciones movidas al archivo", fragmento, archivadas);
+        }
+        return archivadas;
+    }
+
+    public Optional<Transaccion> buscarArchivada(String codigoUnicoTransaccion) {
+        YearMonth mes = mesDelCodigo(codigoUnicoTransaccion);
+        if (mes == null || !Files.exists(archivoDelMes(mes))) {
+            return Optional.empty();
+        }
+        return jdbcTemplate.execute((ConnectionCallback<Optional<Transaccion>>) conexion -> {
+            adjuntar(conexion, mes);
+            try (PreparedStatement consulta = conexion.prepareStatement(SQL_BUSCAR_ARCHIVADA)) {
+                consulta.setString(1, codigoUnicoTransaccion);
+                try (ResultSet rs = consulta.executeQuery()) {
+                    return rs.next() ? Optional.of(mapearTransaccion(rs)) : Optional.empty();
+                }
+            } finally {
+                separar(conexion);
+            }
+        });
+    }
+
+    private Candidatas buscarCandidatas(LocalDateTime limite, int ultimoCodigo, Set<String> enCola) {
+        Map<YearMonth, List<Integer>> porMes = new TreeMap<>();
+        int[] ultimo = { ultimoCodigo };
+        jdbcTemplate.query(SQL_CANDIDATAS, rs -> {
+            int codigo = rs.getInt("COD_TRANSACCION");
+            ultimo[0] = Math.max(ultimo[0], codigo);
+            if (enCola.contains(rs.getString("CODIGO_UNICO_TRANSACCION"))) {
+                return;
+            }
+            YearMonth mes = YearMonth.from(rs.getTimestamp("FECHA").toLocalDateTime());
+            porMes.computeIfAbsent(mes, clave -> new ArrayList<>()).add(codigo);
+        }, TransicionesEstadoTransaccion.ESTADO_AUTORIZADO, TransicionesEstadoTransaccion.ESTADO_RECHAZADO,
+                TransicionesEstadoTransaccion.ESTADO_REVERSADO, Timestamp.valueOf(limite), ultimoCodigo, tamanoLote);
+        return new Candidatas(porMes, ultimo[0]);
+    }
+
+    // Dos fases: la copia se confirma y se cuenta en el archivo antes de borrar de la base principal.
+    // Un COMMIT con bases adjuntas en WAL no es atómico entre archivos; así un fallo deja, como mucho,
+    // filas repetidas en ambos lados que la siguiente pasada vuelve a borrar.
+    private int moverAlArchivo(YearMonth mes, List<Integer> codigos) {
+        String marcadores = String.join(", ", Collections.nCopies(codigos.size(), "?"));
+        return jdbcTemplate.execute((ConnectionCallback<Integer>) conexion -> {
+            adjuntar(conexion, mes);
+            try {
+                try (Statement sentencia = conexion.createStatement()) {
+                    sentencia.execute("CREATE TABLE IF NOT EXISTS " + ESQUEMA_ARCHIVO
+                            + ".POS_TRANSACCION AS SELECT * FROM main.POS_TRANSACCION WHERE 0");
+                    sentencia.execute("CREATE UNIQUE INDEX IF NOT EXISTS " + ESQUEMA_ARCHIVO
+                            + ".UK_ARCHIVO_CODIGO_UNICO ON POS_TRANSACCION (CODIGO_UNICO_TRANSACCION)");
+                }
+                ejecutarEnTransaccion(conexion, "INSERT OR IGNORE INTO " + ESQUEMA_ARCHIVO
+                        + ".POS_TRANSACCION SELECT * FROM main.POS_TRANSACCION WHERE COD_TRANSACCION IN ("
+                        + marcadores + ")", codigos);
+
+                int copiadas = contarArchivadas(conexion, marcadores, codigos);
+                if (copiadas != codigos.size()) {
+                    log.error("El archivo de {} contiene {} de {} transacciones copiadas; no se borra nada de la "
+                            + "base principal", mes, copiadas, codigos.size());
+                    return 0;
+                }
+                int borradas = ejecutarEnTransaccion(conexion, "DELETE FROM main.POS_TRANSACCION "
+                        + "WHERE COD_TRANSACCION IN (" + marcadores + ") AND CODIGO_UNICO_TRANSACCION IN "
+                        + "(SELECT CODIGO_UNICO_TRANSACCION FROM " + ESQUEMA_ARCHIVO + ".POS_TRANSACCION)",
+                        codigos);
+                log.debug("{} transacciones de {} movidas al archivo", borradas, mes);
+                return borradas;
+            } finally {
+                separar(conexion);
+            }
+        });
+    }
+
+    private int ejecutarEnTransaccion(Connection conexion, String sql, List<Integer> codigos) throws SQLException {
+        conexion.setAutoCommit(false);
+        try (PreparedStatement sentencia = conexion.prepareStatement(sql)) {
+            for (int i = 0; i < codigos.size(); i++) {
+                sentencia.setInt(i + 1, codigos.get(i));
+            }
+            int filas = sentencia.executeUpdate();
+            conexion.commit();
+            return filas;
+        } catch (SQLException e) {
+            conexion.rollback();
+            throw e;
+        } finally {
+            conexion.setAutoCommit(true);
+        }
+    }
+
+    private int contarArchivadas(Connection conexion, String marcadores, List<Integer> codigos)
+            throws SQLException {
+        try (PreparedStatement contar = conexion.prepareStatement("SELECT COUNT(*) FROM main.POS_TRANSACCION p "
+                + "JOIN " + ESQUEMA_ARCHIVO + ".POS_TRANSACCION a "
+                + "ON a.CODIGO_UNICO_TRANSACCION = p.CODIGO_UNICO_TRANSACCION "
+                + "WHERE p.COD_TRANSACCION IN (" + marcadores + ")")) {
+            for (int i = 0; i < codigos.size(); i++) {
+                contar.setInt(i + 1, codigos.get(i));
+            }
+            try (ResultSet rs = contar.executeQuery()) {
+                return rs.next() ? rs.getInt(1) : 0;
+            }
+        }
+    }
+
+    private void compactar() {
+        Integer autoVacuum = jdbcTemplate.queryForObject("PRAGMA auto_vacuum", Integer.class);
+        if (autoVacuum != null && autoVacuum == AUTO_VACUUM_INCREMENTAL) {
+            jdbcTemplate.execute("PRAGMA incremental_vacuum");
+            log.info("Páginas libres de la base devueltas al sistema de archivos");
+        } else {
+            log.info("auto_vacuum no es incremental; las páginas liberadas se reutilizarán en nuevas inserciones");
+        }
+    }
+
+    private void adjuntar(Connection conexion, YearMonth mes) throws SQLException {
+        try (PreparedStatement adjuntar = conexion.prepareStatement("ATTACH DATABASE ? AS " + ESQUEMA_ARCHIVO)) {
+            adjuntar.setString(1, archivoDelMes(mes).toString());
+            adjuntar.execute();
+        }
+    }
+
+    private void separar(Connection conexion) throws SQLException {
+        try (Statement sentencia = conexion.createStatement()) {
+            sentencia.execute("DETACH DATABASE " + ESQUEMA_ARCHIVO);
+        }
+    }
+
+    private Path archivoDelMes(YearMonth mes) {
+        return directorio.resolve(String.format("pos-%d-%02d.db", mes.getYear(), mes.getMonthValue()));
+    }
+
+    static YearMonth mesDelCodigo(String codigoUnicoTransaccion) {
+        if (codigoUnicoTransaccion == null) {
+            return null;
+        }
+        String[] partes = codigoUnicoTransaccion.split("-");
+        if (partes.length < 3) {
+            return null;
+        }
+        try {
+            return YearMonth.of(Integer.parseInt(partes[1]), Integer.parseInt(partes[2]));
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    private static Transaccion mapearTransaccion(ResultSet rs) throws SQLException {
+        Transaccion transaccion = new Transaccion(rs.getInt("COD_TRANSACCION"));
+        transaccion.setTipo(rs.getString("TIPO"));
+        transaccion.setMarca(rs.getString("MARCA"));
+        transaccion.setModalidad(rs.getString("MODALIDAD"));
+        transaccion.setDetalle(rs.getString("DETALLE"));
+        transaccion.setMonto(rs.getBigDecimal("MONTO"));
+        transaccion.setCodigoUnicoTransaccion(rs.getString("CODIGO_UNICO_TRANSACCION"));
+        transaccion.setFecha(rs.getTimestamp("FECHA").toLocalDateTime());
+        transaccion.setEstado(rs.getString("ESTADO"));
+        transaccion.setEstadoRecibo(rs.getString("ESTADO_RECIBO"));
+        transaccion.setMoneda(rs.getString("MONEDA"));
+        return transaccion;
+    }
+
+    private record Candidatas(Map<YearMonth, List<Integer>> porMes, int ultimoCodigo) {
+    }
+}
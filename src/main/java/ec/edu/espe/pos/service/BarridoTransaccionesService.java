@@ -0,0 +1,206 @@
+package ec.edu.espe.pos.service;
+
+import ec.edu.espe.pos.client.GatewayTransaccionClient;
+import ec.edu.espe.pos.config.Hilos;
+import ec.edu.espe.pos.controller.dto.ActualizacionEstadoDTO;
+import ec.edu.espe.pos.controller.dto.ResultadoActualizacionDTO;
+import ec.edu.espe.pos.model.ControlProceso;
+import ec.edu.espe.pos.model.Transaccion;
+import ec.edu.espe.pos.repository.ControlProcesoRepository;
+import ec.edu.espe.pos.repository.FragmentosTransaccion;
+import ec.edu.espe.pos.repository.TransaccionRepository;
+import ec.edu.espe.pos.repository.TransicionesEstadoTransaccion;
+
+import jakarta.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+@Service
+public class BarridoTransaccionesService {
+
+    private static final Logger log = LoggerFactory.getLogger(BarridoTransaccionesService.class);
+    private static final String NOMBRE_PROCESO = "BARRIDO_ENV";
+    // Único estado del gateway que autoriza el reverso: la transacción no llegó a registrarse allá.
+    static final String ESTADO_DESCONOCIDA = ResultadoActualizacionDTO.NO_ENCONTRADA;
+
+    private final TransaccionRepository transaccionRepository;
+    private final ControlProcesoRepository controlProcesoRepository;
+    private final GatewayTransaccionClient gatewayClient;
+    private final TransaccionService transaccionService;
+    private final FragmentosTransaccion fragmentosTransaccion;
+    private final boolean habilitado;
+    private final long antiguedadMinutos;
+    private final int tamanoLote;
+    private final ExecutorService ejecutor;
+
+    public BarridoTransaccionesService(TransaccionRepository transaccionRepository,
+            ControlProcesoRepository controlProcesoRepository,
+            GatewayTransaccionClient gatewayClient,
+            TransaccionService transaccionService,
+            FragmentosTransaccion fragmentosTransaccion,
+            @Value("${pos.barrido.habilitado:true}") boolean habilitado,
+            @Value("${pos.barrido.antiguedad-minutos:10}") long antiguedadMinutos,
+            @Value("${pos.barrido.tamano-lote:100}") int tamanoLote,
+            @Value("${pos.barrido.concurrencia:4}") int concurrencia,
+            @Value("${spring.threads.virtual.enabled:false}") boolean hilosVirtuales) {
+        this.transaccionRepository = transaccionRepository;
+        this.controlProcesoRepository = controlProcesoRepository;
+        this.gatewayClient = gatewayClient;
+        this.transaccionService = transaccionService;
+        this.fragmentosTransaccion = fragmentosTransaccion;
+        this.habilitado = habilitado;
+        this.antiguedadMinutos = antiguedadMinutos;
+        this.tamanoLote = tamanoLote;
+        this.ejecutor = Hilos.acotado("barrido", concurrencia, hilosVirtuales);
+    }
+
+    @Scheduled(fixedDelayString = "${pos.barrido.intervalo-ms:60000}",
+            initialDelayString = "${pos.barrido.retraso-inicial-ms:30000}")
+    public void barrer() {
+        if (!habilitado) {
+            return;
+        }
+        LocalDateTime limite = LocalDateTime.now().minusMinutes(antiguedadMinutos);
+        // Los códigos internos se repiten entre fragmentos: cada uno lleva su propio punto de control.
+        for (int fragmento = 0; fragmento < fragmentosTransaccion.getCantidad(); fragmento++) {
+            barrerFragmento(fragmento, limite);
+        }
+    }
+
+    private void barrerFragmento(int fragmento, LocalDateTime limite) {
+        String nombreProceso = fragmento == FragmentosTransaccion.FRAGMENTO_PRINCIPAL
+                ? NOMBRE_PROCESO
+                : NOMBRE_PROCESO + "_F" + fragmento;
+        int ultimoCodigo = leerPuntoControl(nombreProceso);
+        log.info("Iniciando barrido de transacciones ENV anteriores a {} desde el código {} ({})", limite,
+                ultimoCodigo, nombreProceso);
+
+        int procesadas = 0;
+        while (true) {
+            int desde = ultimoCodigo;
+            List<Transaccion> lote = fragmentosTransaccion.ejecutarEn(fragmento, () -> transaccionRepository
+                    .findByEstadoAndFechaBeforeAndCodigoGreaterThanOrderByCodigoAsc(
+                            TransicionesEstadoTransaccion.ESTADO_ENVIADO, limite, desde,
+                            PageRequest.of(0, tamanoLote)));
+            if (lote.isEmpty()) {
+                break;
+            }
+            if (!procesarLote(lote)) {
+                // Sin respuesta del gateway no se reversa nada ni se mueve el punto de control.
+                log.warn("Barrido detenido en el código {} ({}): se reintenta en la próxima ejecución",
+                        desde, nombreProceso);
+                return;
+            }
+            procesadas += lote.size();
+            ultimoCodigo = lote.get(lote.size() - 1).getCodigo();
+            guardarPuntoControl(nombreProceso, ultimoCodigo);
+            if (lote.size() < tamanoLote) {
+                break;
+            }
+        }
+        // Pasada completa: la siguiente vuelve a empezar, pero solo encuentra las que siguen en ENV.
+        guardarPuntoControl(nombreProceso, 0);
+        log.info("Barrido finalizado: {} transacciones revisadas", procesadas);
+    }
+
+    private boolean procesarLote(List<Transaccion> lote) {
+        Optional<Map<String, String>> confirmadas = consultarGateway(lote);
+        if (confirmadas.isEmpty()) {
+            return false;
+        }
+        List<Callable<Boolean>> reversos = new ArrayList<>();
+
+        for (Transaccion transaccion : lote) {
+            String estadoGateway = confirmadas.get().get(transaccion.getCodigoUnicoTransaccion());
+            if (TransaccionService.ESTADO_AUTORIZADO.equals(estadoGateway)
+                    || TransaccionService.ESTADO_RECHAZADO.equals(estadoGateway)) {
+                confirmar(transaccion, estadoGateway);
+            } else if (ESTADO_DESCONOCIDA.equals(estadoGateway)) {
+                reversos.add(() -> transaccionService.reversarTransaccion(transaccion));
+            } else {
+                log.debug("Transacción {} sin estado definitivo en el gateway ({}), se revisa en la próxima pasada",
+                        transaccion.getCodigoUnicoTransaccion(), estadoGateway);
+            }
+        }
+
+        if (reversos.isEmpty()) {
+            return true;
+        }
+        try {
+            int aplicados = 0;
+            for (Future<Boolean> reverso : ejecutor.invokeAll(reversos)) {
+                if (Boolean.TRUE.equals(reverso.get())) {
+                    aplicados++;
+                }
+            }
+            log.info("Reversos aplicados: {} de {}", aplicados, reversos.size());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Barrido interrumpido mientras se enviaban reversos");
+        } catch (ExecutionException e) {
+            log.error("Error al enviar reversos: {}", e.getMessage());
+        }
+        return true;
+    }
+
+    private Optional<Map<String, String>> consultarGateway(List<Transaccion> lote) {
+        Map<String, String> estados = new HashMap<>();
+        try {
+            List<String> codigos = lote.stream().map(Transaccion::getCodigoUnicoTransaccion).toList();
+            List<ActualizacionEstadoDTO> respuesta = gatewayClient.consultarEstados(codigos);
+            if (respuesta != null) {
+                for (ActualizacionEstadoDTO estado : respuesta) {
+                    estados.put(estado.getCodigoUnicoTransaccion(), estado.getEstado());
+                }
+            }
+        } catch (Exception e) {
+            log.warn("No fue posible consultar al gateway el estado del lote: {}", e.getMessage());
+            return Optional.empty();
+        }
+        return Optional.of(estados);
+    }
+
+    private void confirmar(Transaccion transaccion, String estado) {
+        ActualizacionEstadoDTO actualizacion = new ActualizacionEstadoDTO();
+        actualizacion.setCodigoUnicoTransaccion(transaccion.getCodigoUnicoTransaccion());
+        actualizacion.setEstado(estado);
+        actualizacion.setMensaje("Estado confirmado por el gateway durante el barrido");
+        try {
+            transaccionService.actualizarEstadoTransaccion(actualizacion);
+        } catch (Exception e) {
+            log.warn("No se pudo confirmar la transacción {}: {}", transaccion.getCodigoUnicoTransaccion(),
+                    e.getMessage());
+        }
+    }
+
+    private int leerPuntoControl(String nombreProceso) {
+        return controlProcesoRepository.findById(nombreProceso)
+                .map(ControlProceso::getUltimoCodigo)
+                .orElse(0);
+    }
+
+    private void guardarPuntoControl(String nombreProceso, int ultimoCodigo) {
+        controlProcesoRepository.save(new ControlProceso(nombreProceso, ultimoCodigo, LocalDateTime.now()));
+    }
+
+    @PreDestroy
+    public void detener() {
+        ejecutor.shutdownNow();
+    }
+}
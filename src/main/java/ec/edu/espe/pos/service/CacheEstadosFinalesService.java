@@ -0,0 +1,51 @@
+package ec.edu.espe.pos.service;
+
+import ec.edu.espe.pos.controller.dto.EstadoTransaccionDTO;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+@Service
+public class CacheEstadosFinalesService {
+
+    private final ConcurrentHashMap<String, EstadoTransaccionDTO> estados = new ConcurrentHashMap<>();
+    private final Queue<String> ordenIngreso = new ConcurrentLinkedQueue<>();
+    private final int capacidadMaxima;
+
+    public CacheEstadosFinalesService(@Value("${pos.estado.cache.capacidad-maxima:100000}") int capacidadMaxima) {
+        this.capacidadMaxima = capacidadMaxima;
+    }
+
+    public EstadoTransaccionDTO obtener(String codigoUnicoTransaccion) {
+        return estados.get(codigoUnicoTransaccion);
+    }
+
+    public void registrar(EstadoTransaccionDTO estado) {
+        if (estados.putIfAbsent(estado.getCodigoUnicoTransaccion(), estado) != null) {
+            return;
+        }
+        ordenIngreso.add(estado.getCodigoUnicoTransaccion());
+        while (estados.size() > capacidadMaxima) {
+            String masAntiguo = ordenIngreso.poll();
+            if (masAntiguo == null) {
+                break;
+            }
+            estados.remove(masAntiguo);
+        }
+    }
+
+    public void invalidar(String codigoUnicoTransaccion) {
+        // Sin quitarla del orden, la entrada vieja desalojaría antes de tiempo al mismo código si vuelve a ingresar.
+        if (estados.remove(codigoUnicoTransaccion) != null) {
+            ordenIngreso.remove(codigoUnicoTransaccion);
+        }
+    }
+
+    public int tamano() {
+        return estados.size();
+    }
+}
@@ -0,0 +1,154 @@
+package ec.edu.espe.pos.service;
+
+import ec.edu.espe.pos.exception.InvalidDataException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.Base64;
+
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+
+@Service
+public class CifradoTarjetaService {
+
+    private static final Logger log = LoggerFactory.getLogger(CifradoTarjetaService.class);
+
+    private static final String TRANSFORMACION = "AES/GCM/NoPadding";
+    private static final int LONGITUD_IV = 12;
+    private static final int LONGITUD_TAG_BITS = 128;
+    private static final int LONGITUD_LLAVE_DATOS = 32;
+    private static final int VERSION_SOBRE = 1;
+
+    private static final ThreadLocal<Cipher> CIFRADORES = ThreadLocal.withInitial(CifradoTarjetaService::crearCifrador);
+
+    private final AlmacenClavesService almacenClavesService;
+    private final boolean habilitado;
+    private final SecureRandom aleatorio;
+    private final Base64.Encoder base64 = Base64.getEncoder();
+
+    @Autowired
+    public CifradoTarjetaService(AlmacenClavesService almacenClavesService,
+            @Value("${pos.cifrado-tarjeta.habilitado:false}") boolean habilitado) {
+        this(almacenClavesService, habilitado, new SecureRandom());
+    }
+
+    CifradoTarjetaService(AlmacenClavesService almacenClavesService, boolean habilitado, SecureRandom aleatorio) {
+        this.almacenClavesService = almacenClavesService;
+        this.habilitado = habilitado;
+        this.aleatorio = aleatorio;
+        log.info("Cifrado de datos de tarjeta {}", habilitado ? "habilitado" : "deshabilitado");
+    }
+
+    public boolean isHabilitado() {
+        return habilitado;
+    }
+
+    public String proteger(String marca, String codigoUnicoTransaccion, String datosSensibles) {
+        if (!habilitado || datosSensibles == null) {
+            return datosSensibles;
+        }
+        SecretKey llaveMarca = almacenClavesService.obtenerLlaveMarca(marca)
+                .orElseThrow(() -> new InvalidDataException("No existe clave de cifrado para la marca: " + marca));
+
+        byte[] llaveDatos = new byte[LONGITUD_LLAVE_DATOS];
+        byte[] textoPlano = datosSensibles.getBytes(StandardCharsets.UTF_8);
+        try {
+            aleatorio.nextBytes(llaveDatos);
+            byte[] datosAdicionales = codigoUnicoTransaccion.getBytes(StandardCharsets.UTF_8);
+
+            byte[] ivDatos = nuevoIv();
+            byte[] datosCifrados = cifrar(new LlaveDatos(llaveDatos), ivDatos, datosAdicionales, textoPlano);
+            byte[] ivLlave = nuevoIv();
+            byte[] llaveCifrada = cifrar(llaveMarca, ivLlave, datosAdicionales, llaveDatos);
+
+            return new StringBuilder(256)
+                    .append("{\"version\":").append(VERSION_SOBRE)
+                    .append(",\"marca\":\"").append(marca)
+                    .append("\",\"ivLlave\":\"").append(base64.encodeToString(ivLlave))
+                    .append("\",\"llave\":\"").append(base64.encodeToString(llaveCifrada))
+                    .append("\",\"ivDatos\":\"").append(base64.encodeToString(ivDatos))
+                    .append("\",\"datos\":\"").append(base64.encodeToString(datosCifrados))
+                    .append("\"}")
+                    .toString();
+        } catch (GeneralSecurityException e) {
+            log.error("Error al cifrar los datos de la tarjeta: {}", e.getMessage());
+            throw new IllegalStateException("Error al cifrar los datos de la tarjeta", e);
+        } finally {
+            Arrays.fill(llaveDatos, (byte) 0);
+            Arrays.fill(textoPlano, (byte) 0);
+        }
+    }
+
+    private byte[] cifrar(SecretKey llave, byte[] iv, byte[] datosAdicionales, byte[] contenido)
+            throws GeneralSecurityException {
+        // Los hilos de plataforma del pool reutilizan su Cipher; un hilo virtual vive una sola tarea y
+        // guardarlo en un ThreadLocal solo retendría el objeto. La segunda llamada de proteger() reinicia
+        // el Cipher con la llave de marca, así no conserva la llave de datos.
+        Cipher cifrador = Thread.currentThread().isVirtual() ? crearCifrador() : CIFRADORES.get();
+        cifrador.init(Cipher.ENCRYPT_MODE, llave, new GCMParameterSpec(LONGITUD_TAG_BITS, iv));
+        cifrador.updateAAD(datosAdicionales);
+        return cifrador.doFinal(contenido);
+    }
+
+    private byte[] nuevoIv() {
+        byte[] iv = new byte[LONGITUD_IV];
+        aleatorio.nextBytes(iv);
+        return iv;
+    }
+
+    private static Cipher crearCifrador() {
+        try {
+            return Cipher.getInstance(TRANSFORMACION);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("AES/GCM no está disponible en este JVM", e);
+        }
+    }
+
+    // SecretKeySpec copia la llave y esa copia no se puede borrar; esta envoltura usa el mismo arreglo
+    // que proteger() pone a cero al terminar.
+    private static final class LlaveDatos implements SecretKey {
+
+        private final byte[] llave;
+        private boolean destruida;
+
+        private LlaveDatos(byte[] llave) {
+            this.llave = llave;
+        }
+
+        @Override
+        public String getAlgorithm() {
+            return "AES";
+        }
+
+        @Override
+        public String getFormat() {
+            return "RAW";
+        }
+
+        @Override
+        public byte[] getEncoded() {
+            return llave.clone();
+        }
+
+        @Override
+        public void destroy() {
+            Arrays.fill(llave, (byte) 0);
+            destruida = true;
+        }
+
+        @Override
+        public boolean isDestroyed() {
+            return destruida;
+        }
+    }
+}
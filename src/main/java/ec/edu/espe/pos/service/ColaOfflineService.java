@@ -0,0 +1,254 @@
+package ec.edu.espe.pos.service;
+
+import ec.edu.espe.pos.client.GatewayComercioClient;
+import ec.edu.espe.pos.client.GatewayTransaccionClient;
+import ec.edu.espe.pos.config.ModoOfflineProperties;
+import ec.edu.espe.pos.controller.dto.GatewayTransaccionDTO;
+import ec.edu.espe.pos.model.TransaccionPendiente;
+import ec.edu.espe.pos.repository.TransaccionPendienteRepository;
+import ec.edu.espe.pos.repository.TransaccionRepository;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import feign.FeignException;
+import feign.RetryableException;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.ConnectException;
+import java.net.NoRouteToHostException;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Service
+public class ColaOfflineService {
+
+    private static final Logger log = LoggerFactory.getLogger(ColaOfflineService.class);
+
+    public static final String ESTADO_PENDIENTE = "PEN";
+    public static final String ESTADO_FALLIDA = "FAL";
+
+    private static final int LONGITUD_ERROR = 500;
+
+    private final TransaccionPendienteRepository pendienteRepository;
+    private final GatewayTransaccionClient gatewayClient;
+    private final GatewayComercioClient comercioClient;
+    private final TransaccionRepository transaccionRepository;
+    private final CifradoTarjetaService cifradoTarjetaService;
+    private final CacheEstadosFinalesService cacheEstadosFinales;
+    private final ModoOfflineProperties propiedades;
+    private final ObjectMapper objectMapper;
+
+    public ColaOfflineService(TransaccionPendienteRepository pendienteRepository,
+            GatewayTransaccionClient gatewayClient,
+            GatewayComercioClient comercioClient,
+            TransaccionRepository transaccionRepository,
+            CifradoTarjetaService cifradoTarjetaService,
+            CacheEstadosFinalesService cacheEstadosFinales,
+            ModoOfflineProperties propiedades,
+            ObjectMapper objectMapper,
+            MeterRegistry registro) {
+        this.pendienteRepository = pendienteRepository;
+        this.gatewayClient = gatewayClient;
+        this.comercioClient = comercioClient;
+        this.transaccionRepository = transaccionRepository;
+        this.cifradoTarjetaService = cifradoTarjetaService;
+        this.cacheEstadosFinales = cacheEstadosFinales;
+        this.propiedades = propiedades;
+        this.objectMapper = objectMapper;
+
+        // La cola guarda la tarjeta en disco hasta que vuelve el gateway: solo se admite dentro del sobre cifrado.
+        if (propiedades.isHabilitado() && !cifradoTarjetaService.isHabilitado()) {
+            throw new IllegalStateException(
+                    "pos.offline.habilitado=true requiere pos.cifrado-tarjeta.habilitado=true");
+        }
+
+        Gauge.builder("pos.offline.cola.profundidad", pendienteRepository,
+                repositorio -> repositorio.contarPorEstado(ESTADO_PENDIENTE))
+                .description("Transacciones aprobadas fuera de línea pendientes de envío al gateway")
+                .register(registro);
+        Gauge.builder("pos.offline.cola.fallidas", pendienteRepository,
+                repositorio -> repositorio.contarPorEstado(ESTADO_FALLIDA))
+                .description("Transacciones fuera de línea que agotaron sus reintentos y requieren revisión")
+                .register(registro);
+        Gauge.builder("pos.offline.cola.antiguedad", this, ColaOfflineService::antiguedadSegundos)
+                .description("Antigüedad en segundos de la transacción pendiente más antigua")
+                .baseUnit("seconds")
+                .register(registro);
+    }
+
+    public boolean permiteAprobarFueraDeLinea(String marca, BigDecimal monto, Exception error) {
+        if (!propiedades.isHabilitado() || marca == null || monto == null || !esErrorDeConectividad(error)) {
+            return false;
+        }
+        BigDecimal limite = propiedades.getLimites().get(marca);
+        return limite != null && monto.compareTo(limite) <= 0;
+    }
+
+    public void encolar(GatewayTransaccionDTO transaccion) throws JsonProcessingException {
+        if (!cifradoTarjetaService.isHabilitado()) {
+            throw new IllegalStateException("No se encolan datos de tarjeta sin cifrado");
+        }
+        TransaccionPendiente pendiente = new TransaccionPendiente();
+        pendiente.setCodigoUnicoTransaccion(transaccion.getCodigoUnicoTransaccion());
+        pendiente.setContenido(objectMapper.writeValueAsString(transaccion));
+        pendiente.setFechaEncolado(LocalDateTime.now());
+        pendiente.setIntentos(0);
+        pendiente.setEstado(ESTADO_PENDIENTE);
+        pendienteRepository.save(pendiente);
+        log.info("Transacción {} encolada para envío diferido al gateway", transaccion.getCodigoUnicoTransaccion());
+    }
+
+    public boolean estaPendiente(String codigoUnicoTransaccion) {
+        return pendienteRepository.existsByCodigoUnicoTransaccion(codigoUnicoTransaccion);
+    }
+
+    @Scheduled(fixedDelayString = "${pos.offline.intervalo-ms:30000}",
+            initialDelayString = "${pos.offline.retraso-inicial-ms:30000}")
+    public void reenviarPendientes() {
+        if (!propiedades.isReenvioHabilitado()) {
+            return;
+        }
+        List<TransaccionPendiente> lote = pendienteRepository.buscarListasParaEnvio(ESTADO_PENDIENTE,
+                LocalDateTime.now(), PageRequest.of(0, propiedades.getTamanoLote()));
+        if (lote.isEmpty()) {
+            return;
+        }
+        log.info("Reenviando {} transacciones aprobadas fuera de línea", lote.size());
+        long espaciadoMs = propiedades.getEnviosPorSegundo() > 0
+                ? (long) (1000 / propiedades.getEnviosPorSegundo())
+                : 0;
+
+        int enviadas = 0;
+        for (TransaccionPendiente pendiente : lote) {
+            if (enviadas > 0 && !esperar(espaciadoMs)) {
+                break;
+            }
+            if (!reenviar(pendiente)) {
+                log.warn("Gateway aún no disponible, se suspende el reenvío de la cola fuera de línea");
+                break;
+            }
+            enviadas++;
+        }
+        log.info("Reenvío de cola fuera de línea finalizado: {} transacciones enviadas", enviadas);
+    }
+
+    private boolean reenviar(TransaccionPendiente pendiente) {
+        GatewayTransaccionDTO transaccion;
+        try {
+            transaccion = objectMapper.readValue(pendiente.getContenido(), GatewayTransaccionDTO.class);
+        } catch (IOException e) {
+            // Reintentar no arregla un contenido ilegible.
+            moverAFallidas(pendiente, "Contenido ilegible: " + e.getMessage());
+            return true;
+        }
+        try {
+            if (transaccion.getFacturacionComercio() == null) {
+                transaccion.setFacturacionComercio(comercioClient.obtenerFacturacionPorComercio(
+                        transaccion.getComercio().getCodigo()));
+            }
+            ResponseEntity<String> respuesta = gatewayClient.sincronizarTransaccion(transaccion);
+            log.info("Transacción fuera de línea {} enviada al gateway con estado {}",
+                    pendiente.getCodigoUnicoTransaccion(), respuesta.getStatusCode());
+            if (respuesta.getBody() != null && respuesta.getBody().contains("rechazada")) {
+                registrarRechazo(pendiente, respuesta.getStatusCode().value());
+            }
+            pendienteRepository.delete(pendiente);
+            return true;
+        } catch (RetryableException e) {
+            registrarFallo(pendiente, "Gateway no disponible: " + e.getMessage());
+            return false;
+        } catch (FeignException e) {
+            if (!esRechazoDefinitivo(e.status())) {
+                registrarFallo(pendiente, "Gateway respondió " + e.status());
+                return false;
+            }
+            log.error("El gateway rechazó la transacción fuera de línea {} con estado {}: {}",
+                    pendiente.getCodigoUnicoTransaccion(), e.status(), e.contentUTF8());
+            registrarRechazo(pendiente, e.status());
+            pendienteRepository.delete(pendiente);
+            return true;
+        }
+    }
+
+    // Solo un 4xx es una respuesta final; 429 y 5xx dicen "ahora no" y la transacción ya se aprobó localmente.
+    private static boolean esRechazoDefinitivo(int status) {
+        return status >= 400 && status < 500 && status != 429 && status != 408;
+    }
+
+    private void registrarRechazo(TransaccionPendiente pendiente, int status) {
+        String codigo = pendiente.getCodigoUnicoTransaccion();
+        transaccionRepository.actualizarDetalle(codigo,
+                "Aprobada fuera de línea y rechazada por el gateway al reenviar (HTTP " + status + ")");
+        cacheEstadosFinales.invalidar(codigo);
+        log.warn("Transacción {} aprobada fuera de línea fue rechazada por el gateway: requiere conciliación",
+                codigo);
+    }
+
+    private void registrarFallo(TransaccionPendiente pendiente, String motivo) {
+        int intentos = pendiente.getIntentos() + 1;
+        pendiente.setIntentos(intentos);
+        if (intentos >= propiedades.getMaximoIntentos()) {
+            moverAFallidas(pendiente, motivo);
+            return;
+        }
+        long esperaMs = Math.min(propiedades.getReintentoMaximoMs(),
+                propiedades.getReintentoBaseMs() << Math.min(intentos - 1, 20));
+        pendiente.setProximoIntento(LocalDateTime.now().plus(Duration.ofMillis(esperaMs)));
+        pendiente.setUltimoError(recortar(motivo));
+        pendienteRepository.save(pendiente);
+    }
+
+    private void moverAFallidas(TransaccionPendiente pendiente, String motivo) {
+        pendiente.setEstado(ESTADO_FALLIDA);
+        pendiente.setUltimoError(recortar(motivo));
+        pendienteRepository.save(pendiente);
+        log.error("Transacción fuera de línea {} movida a fallidas tras {} intentos: {}",
+                pendiente.getCodigoUnicoTransaccion(), pendiente.getIntentos(), motivo);
+    }
+
+    private static String recortar(String texto) {
+        return texto == null || texto.length() <= LONGITUD_ERROR ? texto : texto.substring(0, LONGITUD_ERROR);
+    }
+
+    private boolean esperar(long milisegundos) {
+        if (milisegundos <= 0) {
+            return true;
+        }
+        try {
+            Thread.sleep(milisegundos);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private double antiguedadSegundos() {
+        LocalDateTime masAntigua = pendienteRepository.findFechaEncoladoMasAntigua();
+        return masAntigua == null ? 0 : Duration.between(masAntigua, LocalDateTime.now()).toSeconds();
+    }
+
+    // Solo fallos al conectar: con un timeout de lectura el gateway pudo haber recibido y procesado la transacción.
+    static boolean esErrorDeConectividad(Throwable error) {
+        for (Throwable causa = error; causa != null; causa = causa.getCause()) {
+            if (causa instanceof ConnectException || causa instanceof UnknownHostException
+                    || causa instanceof NoRouteToHostException) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
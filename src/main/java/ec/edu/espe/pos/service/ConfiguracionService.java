@@ -2,17 +2,21 @@ package ec.edu.espe.pos.service;
 
 import ec.edu.espe.pos.model.Configuracion;
 import ec.edu.espe.pos.model.ConfiguracionPK;
+import ec.edu.espe.pos.repository.ConfiguracionJdbcRepository;
 import ec.edu.espe.pos.repository.ConfiguracionRepository;
 import ec.edu.espe.pos.exception.NotFoundException;
 import ec.edu.espe.pos.exception.InvalidDataException;
 import ec.edu.espe.pos.exception.DuplicateException;
+import ec.edu.espe.pos.validation.ValidadorConfiguracion;
 
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
-import java.util.regex.Pattern;
+import java.util.Map;
 
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
@@ -24,12 +28,12 @@ public class ConfiguracionService {
 
     private static final Logger log = LoggerFactory.getLogger(ConfiguracionService.class);
     private static final String ENTITY_NAME = "Configuracion";
-    private static final Pattern MAC_ADDRESS_PATTERN = Pattern.compile("^([0-9A-Fa-f]{2}[:-]){5}([0-9A-Fa-f]{2})$");
-    private static final int CODIGO_POS_LENGTH = 10;
-    private static final int MODELO_LENGTH = 10;
-    private static final String PATRON_ALFANUMERICO = "^[A-Za-z0-9]{%d}$";
+    private static final int CODIGO_POS_LENGTH = ValidadorConfiguracion.CODIGO_POS_LENGTH;
+    private static final int MODELO_LENGTH = ValidadorConfiguracion.MODELO_LENGTH;
+    private static final int TAMANO_CONSULTA_MAC = 500;
 
     private final ConfiguracionRepository configuracionRepository;
+    private final ConfiguracionJdbcRepository configuracionJdbcRepository;
 
     @Transactional(readOnly = true)
     public Configuracion obtenerPorId(ConfiguracionPK id) {
@@ -58,6 +62,25 @@ public class ConfiguracionService {
         }
     }
 
+    @Transactional
+    public List<Configuracion> sincronizarLote(List<Configuracion> configuraciones) {
+        log.info("Sincronizando lote de {} configuraciones", configuraciones.size());
+        Map<String, ConfiguracionPK> macsLote = new HashMap<>();
+        for (Configuracion configuracion : configuraciones) {
+            validarCampos(configuracion);
+            ConfiguracionPK previa = macsLote.putIfAbsent(configuracion.getDireccionMac(), configuracion.getPk());
+            if (previa != null && !previa.equals(configuracion.getPk())) {
+                log.error("Error de validación: dirección MAC duplicada dentro del lote");
+                throw new DuplicateException(configuracion.getDireccionMac(), "Dirección MAC");
+            }
+        }
+        validarDuplicadosMacLote(macsLote);
+
+        configuracionJdbcRepository.guardarLote(configuraciones);
+        log.info("Lote de configuraciones sincronizado exitosamente: {}", configuraciones.size());
+        return configuraciones;
+    }
+
     @Transactional(readOnly = true)
     public Configuracion obtenerConfiguracionActual() {
         log.info("Obteniendo configuración actual del POS");
@@ -96,12 +119,21 @@ public class ConfiguracionService {
 
     private void validarConfiguracion(Configuracion configuracion) {
         log.debug("Validando configuración");
+        validarCampos(configuracion);
+        validarDuplicadosMac(configuracion);
+    }
+
+    private void validarCampos(Configuracion configuracion) {
+        if (configuracion.getPk() == null) {
+            log.error("Error de validación: configuración sin clave primaria");
+            throw new InvalidDataException("La clave primaria es obligatoria");
+        }
         validarCodigoPOS(configuracion.getPk().getCodigo());
         validarModelo(configuracion.getPk().getModelo());
         validarDireccionMAC(configuracion.getDireccionMac());
+        configuracion.setDireccionMac(ValidadorConfiguracion.normalizarDireccionMac(configuracion.getDireccionMac()));
         validarFechaActivacion(configuracion.getFechaActivacion());
         validarCodigoComercio(configuracion.getCodigoComercio());
-        validarDuplicadosMac(configuracion);
     }
 
     private void validarCodigoPOS(String codigoPos) {
@@ -109,7 +141,7 @@ public class ConfiguracionService {
             log.error("Error de validación: código POS con longitud incorrecta");
             throw new InvalidDataException("Código POS con longitud incorrecta: " + codigoPos);
         }
-        if (!codigoPos.matches(String.format(PATRON_ALFANUMERICO, CODIGO_POS_LENGTH))) {
+        if (!ValidadorConfiguracion.esAlfanumerico(codigoPos, CODIGO_POS_LENGTH, CODIGO_POS_LENGTH)) {
             log.error("Error de validación: código POS con formato incorrecto");
             throw new InvalidDataException("Código POS con formato incorrecto: " + codigoPos);
         }
@@ -120,14 +152,14 @@ public class ConfiguracionService {
             log.error("Error de validación: modelo con longitud incorrecta");
             throw new InvalidDataException("Modelo con longitud incorrecta: " + modelo);
         }
-        if (!modelo.matches(String.format(PATRON_ALFANUMERICO, modelo.length()))) {
+        if (!ValidadorConfiguracion.esAlfanumerico(modelo, 0, MODELO_LENGTH)) {
             log.error("Error de validación: modelo con formato incorrecto");
             throw new InvalidDataException("Modelo con formato incorrecto: " + modelo);
         }
     }
 
     private void validarDireccionMAC(String direccionMac) {
-        if (direccionMac == null || !MAC_ADDRESS_PATTERN.matcher(direccionMac).matches()) {
+        if (!ValidadorConfiguracion.esDireccionMac(direccionMac)) {
             log.error("Error de validación: dirección MAC con formato incorrecto");
             throw new InvalidDataException("Dirección MAC con formato incorrecto: " + direccionMac);
         }
@@ -150,13 +182,24 @@ public class ConfiguracionService {
 
     private void validarDuplicadosMac(Configuracion configuracion) {
         log.debug("Validando duplicados de configuración");
-        configuracionRepository.findAll().stream()
-                .filter(config -> !config.getPk().equals(configuracion.getPk()))
-                .forEach(config -> {
-                    if (config.getDireccionMac().equals(configuracion.getDireccionMac())) {
-                        log.error("Error de validación: dirección MAC duplicada");
-                        throw new DuplicateException(configuracion.getDireccionMac(), "Dirección MAC");
-                    }
-                });
+        if (configuracionRepository.existsByDireccionMacEnOtraConfiguracion(configuracion.getDireccionMac(),
+                configuracion.getPk().getCodigo(), configuracion.getPk().getModelo())) {
+            log.error("Error de validación: dirección MAC duplicada");
+            throw new DuplicateException(configuracion.getDireccionMac(), "Dirección MAC");
+        }
+    }
+
+    private void validarDuplicadosMacLote(Map<String, ConfiguracionPK> macsLote) {
+        log.debug("Validando duplicados de {} direcciones MAC", macsLote.size());
+        List<String> macs = new ArrayList<>(macsLote.keySet());
+        for (int inicio = 0; inicio < macs.size(); inicio += TAMANO_CONSULTA_MAC) {
+            List<String> bloque = macs.subList(inicio, Math.min(inicio + TAMANO_CONSULTA_MAC, macs.size()));
+            for (Configuracion existente : configuracionRepository.findByDireccionMacIn(bloque)) {
+                if (!existente.getPk().equals(macsLote.get(existente.getDireccionMac()))) {
+                    log.error("Error de validación: dirección MAC duplicada");
+                    throw new DuplicateException(existente.getDireccionMac(), "Dirección MAC");
+                }
+            }
+        }
     }
 }
\ No newline at end of file
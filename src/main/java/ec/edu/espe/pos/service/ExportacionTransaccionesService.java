@@ -0,0 +1,363 @@
+package ec.edu.espe.pos.service;
+
+import ec.edu.espe.pos.controller.dto.ResultadoExportacionDTO;
+import ec.edu.espe.pos.exception.InvalidDataException;
+import ec.edu.espe.pos.repository.FragmentosTransaccion;
+
+import org.apache.arrow.compression.CommonsCompressionFactory;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.DecimalVector;
+import org.apache.arrow.vector.IntVector;
+import org.apache.arrow.vector.SmallIntVector;
+import org.apache.arrow.vector.TimeStampMilliVector;
+import org.apache.arrow.vector.VarCharVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.compression.CompressionUtil;
+import org.apache.arrow.vector.dictionary.Dictionary;
+import org.apache.arrow.vector.dictionary.DictionaryProvider;
+import org.apache.arrow.vector.ipc.ArrowFileWriter;
+import org.apache.arrow.vector.ipc.message.IpcOption;
+import org.apache.arrow.vector.types.TimeUnit;
+import org.apache.arrow.vector.types.pojo.ArrowType;
+import org.apache.arrow.vector.types.pojo.DictionaryEncoding;
+import org.apache.arrow.vector.types.pojo.Field;
+import org.apache.arrow.vector.types.pojo.FieldType;
+import org.apache.arrow.vector.types.pojo.Schema;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+@Service
+public class ExportacionTransaccionesService {
+
+    private static final Logger log = LoggerFactory.getLogger(ExportacionTransaccionesService.class);
+    private static final DateTimeFormatter FORMATO_EJECUCION = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+    private static final ArrowType TIPO_INDICE = new ArrowType.Int(16, true);
+    private static final int PRECISION_MONTO = 20;
+    private static final int ESCALA_MONTO = 2;
+
+    private static final String[] COLUMNAS_CODIGO = {
+            "TIPO", "MARCA", "MODALIDAD", "ESTADO", "ESTADO_RECIBO", "MONEDA" };
+
+    private static final String SQL_EXPORTAR = "SELECT COD_TRANSACCION, TIPO, MARCA, MODALIDAD, DETALLE, MONTO, "
+            + "CODIGO_UNICO_TRANSACCION, FECHA, ESTADO, ESTADO_RECIBO, MONEDA FROM POS_TRANSACCION "
+            + "WHERE FECHA >= ? AND FECHA < ? ORDER BY FECHA, COD_TRANSACCION";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final FragmentosTransaccion fragmentosTransaccion;
+    private final Path directorio;
+    private final int filasPorLote;
+    private final long memoriaMaxima;
+
+    public ExportacionTransaccionesService(DataSource dataSource, FragmentosTransaccion fragmentosTransaccion,
+            @Value("${pos.exportacion.directorio:exportaciones}") String directorio,
+            @Value("${pos.exportacion.filas-por-lote:4096}") int filasPorLote,
+            @Value("${pos.exportacion.tamano-cursor:1000}") int tamanoCursor,
+            @Value("${pos.exportacion.memoria-maxima-bytes:268435456}") long memoriaMaxima) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(tamanoCursor);
+        this.fragmentosTransaccion = fragmentosTransaccion;
+        this.directorio = Paths.get(directorio);
+        this.filasPorLote = filasPorLote;
+        this.memoriaMaxima = memoriaMaxima;
+    }
+
+    public ResultadoExportacionDTO exportar(LocalDate desde, LocalDate hasta) {
+        if (desde == null || hasta == null || hasta.isBefore(desde)) {
+            throw new InvalidDataException("El rango de fechas de la exportación es inválido");
+        }
+        Timestamp inicio = Timestamp.valueOf(desde.atStartOfDay());
+        Timestamp fin = Timestamp.valueOf(hasta.plusDays(1).atStartOfDay());
+        Path raiz = directorio.resolve(LocalDateTime.now().format(FORMATO_EJECUCION));
+        log.info("Exportando transacciones entre {} y {} a {}", desde, hasta, raiz);
+
+        try (BufferAllocator allocator = new RootAllocator(memoriaMaxima);
+                Diccionarios diccionarios = new Diccionarios(allocator)) {
+            for (int i = 0; i < COLUMNAS_CODIGO.length; i++) {
+                String sql = "SELECT DISTINCT " + COLUMNAS_CODIGO[i] + " FROM POS_TRANSACCION "
+                        + "WHERE FECHA >= ? AND FECHA < ? AND " + COLUMNAS_CODIGO[i] + " IS NOT NULL";
+                diccionarios.cargar(i, fragmentosTransaccion.consultarTodos(
+                        fragmento -> jdbcTemplate.queryForList(sql, String.class, inicio, fin))
+                        .stream().distinct().toList());
+            }
+            Schema esquema = diccionarios.esquema();
+            Particiones particiones = new Particiones(raiz, esquema, diccionarios, allocator);
+            try {
+                if (fragmentosTransaccion.isHabilitado()) {
+                    exportarPorFragmento(desde, hasta, particiones);
+                } else {
+                    jdbcTemplate.query(SQL_EXPORTAR, particiones::escribir, inicio, fin);
+                }
+            } finally {
+                particiones.close();
+            }
+            log.info("Exportación finalizada: {} transacciones en {} archivos",
+                    particiones.filas, particiones.archivos.size());
+            return ResultadoExportacionDTO.builder()
+                    .directorio(raiz.toString())
+                    .archivos(particiones.archivos)
+                    .transacciones(particiones.filas)
+                    .build();
+        }
+    }
+
+    // Un día a la vez y, dentro del día, un fragmento tras otro: las particiones del día siguen abiertas
+    // mientras se recorren los fragmentos y cada archivo se escribe una sola vez.
+    private void exportarPorFragmento(LocalDate desde, LocalDate hasta, Particiones particiones) {
+        for (LocalDate dia = desde; !dia.isAfter(hasta); dia = dia.plusDays(1)) {
+            Timestamp inicioDia = Timestamp.valueOf(dia.atStartOfDay());
+            Timestamp finDia = Timestamp.valueOf(dia.plusDays(1).atStartOfDay());
+            for (int fragmento = 0; fragmento < fragmentosTransaccion.getCantidad(); fragmento++) {
+                fragmentosTransaccion.ejecutarEn(fragmento, () -> {
+                    jdbcTemplate.query(SQL_EXPORTAR, particiones::escribir, inicioDia, finDia);
+                    return null;
+                });
+            }
+        }
+    }
+
+    private static final class Diccionarios implements DictionaryProvider, AutoCloseable {
+
+        private final BufferAllocator allocator;
+        private final Map<Long, Dictionary> porId = new HashMap<>();
+        private final List<Map<String, Short>> indices = new ArrayList<>();
+
+        private Diccionarios(BufferAllocator allocator) {
+            this.allocator = allocator;
+        }
+
+        private void cargar(int columna, List<String> valores) {
+            if (valores.size() > Short.MAX_VALUE) {
+                throw new InvalidDataException("Demasiados valores distintos en " + COLUMNAS_CODIGO[columna]);
+            }
+            VarCharVector vector = new VarCharVector(COLUMNAS_CODIGO[columna].toLowerCase() + "_dict", allocator);
+            vector.allocateNew(valores.size());
+            Map<String, Short> indice = new HashMap<>();
+            for (short i = 0; i < valores.size(); i++) {
+                vector.setSafe(i, valores.get(i).getBytes(StandardCharsets.UTF_8));
+                indice.put(valores.get(i), i);
+            }
+            vector.setValueCount(valores.size());
+            porId.put((long) columna, new Dictionary(vector, new DictionaryEncoding(columna, false, TIPO_INDICE)));
+            indices.add(indice);
+        }
+
+        private Field campo(String nombre, int columna) {
+            return new Field(nombre, new FieldType(true, TIPO_INDICE, porId.get((long) columna).getEncoding()),
+                    null);
+        }
+
+        private Schema esquema() {
+            return new Schema(List.of(
+                    Field.notNullable("codigo", new ArrowType.Int(32, true)),
+                    campo("tipo", 0),
+                    campo("marca", 1),
+                    campo("modalidad", 2),
+                    Field.nullable("detalle", ArrowType.Utf8.INSTANCE),
+                    Field.nullable("monto", new ArrowType.Decimal(PRECISION_MONTO, ESCALA_MONTO, 128)),
+                    Field.notNullable("codigo_unico_transaccion", ArrowType.Utf8.INSTANCE),
+                    Field.notNullable("fecha", new ArrowType.Timestamp(TimeUnit.MILLISECOND, null)),
+                    campo("estado", 3),
+                    campo("estado_recibo", 4),
+                    campo("moneda", 5)));
+        }
+
+        private void codificar(SmallIntVector vector, int fila, int columna, String valor) {
+            Short indice = valor == null ? null : indices.get(columna).get(valor);
+            if (indice == null) {
+                vector.setNull(fila);
+            } else {
+                vector.setSafe(fila, indice);
+            }
+        }
+
+        @Override
+        public Dictionary lookup(long id) {
+            return porId.get(id);
+        }
+
+        @Override
+        public Set<Long> getDictionaryIds() {
+            return porId.keySet();
+        }
+
+        @Override
+        public void close() {
+            porId.values().forEach(diccionario -> diccionario.getVector().close());
+        }
+    }
+
+    private final class Particiones implements AutoCloseable {
+
+        private final Path raiz;
+        private final Schema esquema;
+        private final Diccionarios diccionarios;
+        private final BufferAllocator allocator;
+        private final Map<String, Particion> abiertas = new LinkedHashMap<>();
+        private final List<String> archivos = new ArrayList<>();
+        private LocalDate diaActual;
+        private long filas;
+
+        private Particiones(Path raiz, Schema esquema, Diccionarios diccionarios, BufferAllocator allocator) {
+            this.raiz = raiz;
+            this.esquema = esquema;
+            this.diccionarios = diccionarios;
+            this.allocator = allocator;
+        }
+
+        private void escribir(ResultSet rs) throws SQLException {
+            LocalDateTime fecha = rs.getTimestamp("FECHA").toLocalDateTime();
+            LocalDate dia = fecha.toLocalDate();
+            if (!dia.equals(diaActual)) {
+                cerrarAbiertas();
+                diaActual = dia;
+            }
+            String marca = rs.getString("MARCA");
+            Particion particion = abiertas.computeIfAbsent(marca, clave -> abrir(dia, clave));
+            particion.agregar(rs, fecha);
+            filas++;
+        }
+
+        private Particion abrir(LocalDate dia, String marca) {
+            Path carpeta = raiz.resolve("fecha=" + dia).resolve("marca=" + marca);
+            try {
+                Files.createDirectories(carpeta);
+                Path archivo = carpeta.resolve("transacciones.arrow");
+                archivos.add(archivo.toString());
+                return new Particion(archivo, esquema, diccionarios, allocator);
+            } catch (IOException e) {
+                throw new UncheckedIOException("No se pudo crear la partición " + carpeta, e);
+            }
+        }
+
+        private void cerrarAbiertas() {
+            for (Particion particion : abiertas.values()) {
+                particion.close();
+            }
+            abiertas.clear();
+        }
+
+        @Override
+        public void close() {
+            cerrarAbiertas();
+        }
+    }
+
+    private final class Particion implements AutoCloseable {
+
+        private final FileOutputStream salida;
+        private final VectorSchemaRoot root;
+        private final ArrowFileWriter writer;
+        private final Diccionarios diccionarios;
+        private int enLote;
+
+        private Particion(Path archivo, Schema esquema, Diccionarios diccionarios, BufferAllocator allocator)
+                throws IOException {
+            this.diccionarios = diccionarios;
+            this.salida = new FileOutputStream(archivo.toFile());
+            this.root = VectorSchemaRoot.create(esquema, allocator);
+            this.writer = new ArrowFileWriter(root, diccionarios, salida.getChannel(), null, IpcOption.DEFAULT,
+                    CommonsCompressionFactory.INSTANCE, CompressionUtil.CodecType.ZSTD);
+            this.writer.start();
+            this.root.allocateNew();
+        }
+
+        private void agregar(ResultSet rs, LocalDateTime fecha) throws SQLException {
+            int fila = enLote;
+            ((IntVector) root.getVector("codigo")).setSafe(fila, rs.getInt("COD_TRANSACCION"));
+            diccionarios.codificar((SmallIntVector) root.getVector("tipo"), fila, 0, rs.getString("TIPO"));
+            diccionarios.codificar((SmallIntVector) root.getVector("marca"), fila, 1, rs.getString("MARCA"));
+            diccionarios.codificar((SmallIntVector) root.getVector("modalidad"), fila, 2, rs.getString("MODALIDAD"));
+            texto((VarCharVector) root.getVector("detalle"), fila, rs.getString("DETALLE"));
+            BigDecimal monto = rs.getBigDecimal("MONTO");
+            if (monto == null) {
+                ((DecimalVector) root.getVector("monto")).setNull(fila);
+            } else {
+                ((DecimalVector) root.getVector("monto")).setSafe(fila,
+                        monto.setScale(ESCALA_MONTO, RoundingMode.HALF_UP));
+            }
+            texto((VarCharVector) root.getVector("codigo_unico_transaccion"), fila,
+                    rs.getString("CODIGO_UNICO_TRANSACCION"));
+            // Timestamp sin zona en Arrow: la hora de pared se guarda como si fuera UTC, sin depender de la JVM.
+            ((TimeStampMilliVector) root.getVector("fecha")).setSafe(fila,
+                    fecha.toInstant(ZoneOffset.UTC).toEpochMilli());
+            diccionarios.codificar((SmallIntVector) root.getVector("estado"), fila, 3, rs.getString("ESTADO"));
+            diccionarios.codificar((SmallIntVector) root.getVector("estado_recibo"), fila, 4,
+                    rs.getString("ESTADO_RECIBO"));
+            diccionarios.codificar((SmallIntVector) root.getVector("moneda"), fila, 5, rs.getString("MONEDA"));
+            enLote++;
+            if (enLote == filasPorLote) {
+                vaciar();
+            }
+        }
+
+        private void vaciar() {
+            if (enLote == 0) {
+                return;
+            }
+            root.setRowCount(enLote);
+            try {
+                writer.writeBatch();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Error al escribir el lote de exportación", e);
+            }
+            root.allocateNew();
+            enLote = 0;
+        }
+
+        private void texto(VarCharVector vector, int fila, String valor) {
+            if (valor == null) {
+                vector.setNull(fila);
+            } else {
+                vector.setSafe(fila, valor.getBytes(StandardCharsets.UTF_8));
+            }
+        }
+
+        @Override
+        public void close() {
+            try {
+                vaciar();
+                writer.end();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Error al cerrar la partición de exportación", e);
+            } finally {
+                writer.close();
+                root.close();
+                try {
+                    salida.close();
+                } catch (IOException e) {
+                    log.warn("No se pudo cerrar el archivo de exportación: {}", e.getMessage());
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package ec.edu.espe.pos.service;
+
+import ec.edu.espe.pos.exception.TarjetaInvalidaException;
+import ec.edu.espe.pos.validation.ValidadorTarjeta;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+@Service
+public class PrevalidacionTarjetaService {
+
+    private static final Logger log = LoggerFactory.getLogger(PrevalidacionTarjetaService.class);
+    private static final String MARCA_AMEX = "AMEX";
+    private static final int CVV_LENGTH = 3;
+    private static final int CVV_LENGTH_AMEX = 4;
+
+    private final boolean habilitada;
+    private final int[] iniciosBin;
+    private final int[] finesBin;
+    private final String[] marcasBin;
+
+    public PrevalidacionTarjetaService(
+            @Value("${pos.prevalidacion-tarjeta.habilitada:true}") boolean habilitada,
+            @Value("${pos.prevalidacion-tarjeta.rangos-bin:classpath:rangos-bin.csv}") Resource rangosBin) {
+        this.habilitada = habilitada;
+        List<String[]> rangos = leerRangos(rangosBin);
+        rangos.sort(Comparator.comparingInt(rango -> Integer.parseInt(rango[0])));
+        this.iniciosBin = new int[rangos.size()];
+        this.finesBin = new int[rangos.size()];
+        this.marcasBin = new String[rangos.size()];
+        for (int i = 0; i < rangos.size(); i++) {
+            iniciosBin[i] = Integer.parseInt(rangos.get(i)[0]);
+            finesBin[i] = Integer.parseInt(rangos.get(i)[1]);
+            marcasBin[i] = rangos.get(i)[2];
+        }
+        log.info("Cargados {} rangos BIN para la prevalidación de tarjetas", rangos.size());
+    }
+
+    public void prevalidar(String marca, String numero, String fechaCaducidad, String cvv) {
+        if (!habilitada) {
+            return;
+        }
+        if (!ValidadorTarjeta.esNumeroValido(numero)) {
+            throw new TarjetaInvalidaException("Número de tarjeta inválido");
+        }
+        String marcaBin = marcaPorBin(ValidadorTarjeta.bin(numero));
+        if (marcaBin == null || !marcaBin.equals(marca)) {
+            throw new TarjetaInvalidaException("El número de tarjeta no corresponde a la marca " + marca);
+        }
+        if (!ValidadorTarjeta.estaVigente(fechaCaducidad, YearMonth.now())) {
+            throw new TarjetaInvalidaException("Tarjeta caducada o fecha de caducidad inválida");
+        }
+        if (!ValidadorTarjeta.esCvvValido(cvv, MARCA_AMEX.equals(marca) ? CVV_LENGTH_AMEX : CVV_LENGTH)) {
+            throw new TarjetaInvalidaException("CVV inválido");
+        }
+    }
+
+    public String marcaPorBin(int bin) {
+        int posicion = Arrays.binarySearch(iniciosBin, bin);
+        if (posicion < 0) {
+            posicion = -posicion - 2;
+        }
+        if (posicion < 0 || bin > finesBin[posicion]) {
+            return null;
+        }
+        return marcasBin[posicion];
+    }
+
+    private static List<String[]> leerRangos(Resource recurso) {
+        List<String[]> rangos = new ArrayList<>();
+        try (BufferedReader lector = new BufferedReader(
+                new InputStreamReader(recurso.getInputStream(), StandardCharsets.UTF_8))) {
+            String linea;
+            while ((linea = lector.readLine()) != null) {
+                linea = linea.trim();
+                if (linea.isEmpty() || linea.startsWith("#")) {
+                    continue;
+                }
+                String[] campos = linea.split(",");
+                rangos.add(new String[] { campos[0].trim(), campos[1].trim(), campos[2].trim() });
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo leer la tabla de rangos BIN", e);
+        }
+        return rangos;
+    }
+}
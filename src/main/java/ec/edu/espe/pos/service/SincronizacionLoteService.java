@@ -0,0 +1,186 @@
+package ec.edu.espe.pos.service;
+
+import ec.edu.espe.pos.client.GatewayTransaccionClient;
+import ec.edu.espe.pos.client.Plazo;
+import ec.edu.espe.pos.controller.dto.GatewayTransaccionDTO;
+import ec.edu.espe.pos.controller.dto.ResultadoSincronizacionDTO;
+import ec.edu.espe.pos.exception.PlazoExcedidoException;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+@Service
+public class SincronizacionLoteService {
+
+    private static final Logger log = LoggerFactory.getLogger(SincronizacionLoteService.class);
+
+    private final GatewayTransaccionClient gatewayClient;
+    private final boolean habilitado;
+    private final int tamanoMaximo;
+    private final long esperaMaximaMs;
+    private final BlockingQueue<Pendiente> cola;
+    private volatile boolean activo;
+    private Thread despachador;
+
+    public SincronizacionLoteService(GatewayTransaccionClient gatewayClient,
+            @Value("${pos.gateway.lote.habilitado:false}") boolean habilitado,
+            @Value("${pos.gateway.lote.tamano-maximo:50}") int tamanoMaximo,
+            @Value("${pos.gateway.lote.espera-maxima-ms:20}") long esperaMaximaMs,
+            @Value("${pos.gateway.lote.capacidad-cola:1000}") int capacidadCola) {
+        this.gatewayClient = gatewayClient;
+        this.habilitado = habilitado;
+        this.tamanoMaximo = tamanoMaximo;
+        this.esperaMaximaMs = esperaMaximaMs;
+        this.cola = new ArrayBlockingQueue<>(capacidadCola);
+    }
+
+    @PostConstruct
+    public void iniciar() {
+        if (!habilitado) {
+            return;
+        }
+        activo = true;
+        despachador = new Thread(this::despachar, "sincronizacion-lote");
+        despachador.setDaemon(true);
+        despachador.start();
+        log.info("Sincronización por lotes habilitada: hasta {} transacciones o {} ms por lote",
+                tamanoMaximo, esperaMaximaMs);
+    }
+
+    @PreDestroy
+    public void detener() {
+        activo = false;
+        if (despachador != null) {
+            despachador.interrupt();
+        }
+    }
+
+    public ResponseEntity<String> sincronizar(GatewayTransaccionDTO transaccion) {
+        if (!activo) {
+            return gatewayClient.sincronizarTransaccion(transaccion);
+        }
+        Pendiente pendiente = new Pendiente(transaccion, new CompletableFuture<>());
+        if (!cola.offer(pendiente)) {
+            log.warn("Cola de sincronización llena, se envía la transacción {} individualmente",
+                    transaccion.getCodigoUnicoTransaccion());
+            return gatewayClient.sincronizarTransaccion(transaccion);
+        }
+        long restante = Plazo.restanteMs();
+        try {
+            if (restante == Plazo.SIN_PLAZO) {
+                return pendiente.respuesta().get();
+            }
+            try {
+                return pendiente.respuesta().get(restante, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                // Cancelada, el despachador ya no la envía; si el lote acaba de responder, vale su respuesta.
+                if (pendiente.respuesta().cancel(false)) {
+                    throw new PlazoExcedidoException("sin respuesta del lote para "
+                            + transaccion.getCodigoUnicoTransaccion());
+                }
+                return pendiente.respuesta().get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrumpido esperando la respuesta del lote", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            throw new IllegalStateException("Error al sincronizar el lote con el gateway", e.getCause());
+        }
+    }
+
+    private void despachar() {
+        List<Pendiente> lote = new ArrayList<>(tamanoMaximo);
+        while (activo) {
+            try {
+                Pendiente primero = cola.poll(1, TimeUnit.SECONDS);
+                if (primero == null) {
+                    continue;
+                }
+                lote.add(primero);
+                long limite = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(esperaMaximaMs);
+                while (lote.size() < tamanoMaximo) {
+                    long restante = limite - System.nanoTime();
+                    if (restante <= 0) {
+                        break;
+                    }
+                    Pendiente siguiente = cola.poll(restante, TimeUnit.NANOSECONDS);
+                    if (siguiente == null) {
+                        break;
+                    }
+                    lote.add(siguiente);
+                    cola.drainTo(lote, tamanoMaximo - lote.size());
+                }
+                enviar(lote);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } finally {
+                lote.clear();
+            }
+        }
+        List<Pendiente> restantes = new ArrayList<>();
+        cola.drainTo(restantes);
+        restantes.forEach(p -> p.respuesta().completeExceptionally(
+                new IllegalStateException("Sincronización por lotes detenida")));
+    }
+
+    private void enviar(List<Pendiente> lote) {
+        // Las ya completadas las canceló quien las esperaba al agotar su plazo: no se envían.
+        lote.removeIf(pendiente -> pendiente.respuesta().isDone());
+        if (lote.isEmpty()) {
+            return;
+        }
+        List<GatewayTransaccionDTO> transacciones = new ArrayList<>(lote.size());
+        for (Pendiente pendiente : lote) {
+            transacciones.add(pendiente.transaccion());
+        }
+        try {
+            List<ResultadoSincronizacionDTO> resultados = gatewayClient.sincronizarLote(transacciones);
+            Map<String, ResultadoSincronizacionDTO> porCodigo = new HashMap<>();
+            if (resultados != null) {
+                for (ResultadoSincronizacionDTO resultado : resultados) {
+                    porCodigo.put(resultado.getCodigoUnicoTransaccion(), resultado);
+                }
+            }
+            for (Pendiente pendiente : lote) {
+                ResultadoSincronizacionDTO resultado = porCodigo.get(
+                        pendiente.transaccion().getCodigoUnicoTransaccion());
+                if (resultado == null || resultado.getStatus() == null) {
+                    pendiente.respuesta().completeExceptionally(new IllegalStateException(
+                            "El gateway no devolvió resultado para la transacción "
+                                    + pendiente.transaccion().getCodigoUnicoTransaccion()));
+                } else {
+                    pendiente.respuesta().complete(
+                            ResponseEntity.status(resultado.getStatus()).body(resultado.getMensaje()));
+                }
+            }
+            log.debug("Lote de {} transacciones sincronizado con el gateway", lote.size());
+        } catch (RuntimeException e) {
+            log.error("Error al sincronizar lote de {} transacciones: {}", lote.size(), e.getMessage());
+            lote.forEach(p -> p.respuesta().completeExceptionally(e));
+        }
+    }
+
+    private record Pendiente(GatewayTransaccionDTO transaccion, CompletableFuture<ResponseEntity<String>> respuesta) {
+    }
+}
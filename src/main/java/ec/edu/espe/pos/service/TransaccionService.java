@@ -2,33 +2,53 @@ package ec.edu.espe.pos.service;
 
 import ec.edu.espe.pos.model.Configuracion;
 import ec.edu.espe.pos.model.Transaccion;
+import ec.edu.espe.pos.repository.FragmentosTransaccion;
+import ec.edu.espe.pos.repository.TransaccionEstadoJdbcRepository;
+import ec.edu.espe.pos.repository.TransaccionEstadoJdbcRepository.TransicionEstado;
 import ec.edu.espe.pos.repository.TransaccionRepository;
+import ec.edu.espe.pos.repository.TransicionesEstadoTransaccion;
 import ec.edu.espe.pos.client.GatewayTransaccionClient;
-import ec.edu.espe.pos.client.ValidacionTarjetaClient;
 import ec.edu.espe.pos.controller.dto.ActualizacionEstadoDTO;
 import ec.edu.espe.pos.controller.dto.ComercioDTO;
+import ec.edu.espe.pos.controller.dto.EstadoTransaccionDTO;
 import ec.edu.espe.pos.controller.dto.FacturacionComercioDTO;
+import ec.edu.espe.pos.controller.dto.ResultadoActualizacionDTO;
 import ec.edu.espe.pos.controller.dto.GatewayTransaccionDTO;
 import ec.edu.espe.pos.controller.dto.ValidacionTarjetaDTO;
 import ec.edu.espe.pos.controller.mapper.TransaccionMapper;
 import ec.edu.espe.pos.client.GatewayComercioClient;
+import ec.edu.espe.pos.client.Plazo;
 import ec.edu.espe.pos.exception.NotFoundException;
 import ec.edu.espe.pos.exception.InvalidDataException;
+import ec.edu.espe.pos.exception.PlazoExcedidoException;
 import ec.edu.espe.pos.exception.TarjetaInvalidaException;
 
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
+import java.sql.Statement;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.Random;
+import java.util.function.Supplier;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.core.JsonProcessingException;
 
 @Service
 public class TransaccionService {
@@ -44,6 +64,7 @@ public class TransaccionService {
     public static final String ESTADO_ENVIADO = "ENV";
     public static final String ESTADO_AUTORIZADO = "AUT";
     public static final String ESTADO_RECHAZADO = "REC";
+    public static final String ESTADO_REVERSADO = "REV";
 
     public static final String ESTADO_RECIBO_IMPRESO = "IMP";
     public static final String ESTADO_RECIBO_PENDIENTE = "PEN";
@@ -52,35 +73,90 @@ public class TransaccionService {
 
     private static final Set<String> MARCAS_VALIDAS = Set.of("MSCD", "VISA", "AMEX", "DINE");
 
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    static final String ATRIBUTO_CODIGO = "codigoUnicoTransaccion";
+
     private final TransaccionRepository transaccionRepository;
+    private final TransaccionEstadoJdbcRepository transaccionEstadoJdbcRepository;
     private final GatewayTransaccionClient gatewayClient;
     private final GatewayComercioClient comercioClient;
     private final ConfiguracionService configuracionService;
-    private final ValidacionTarjetaClient validacionTarjetaClient;
+    private final ValidacionTarjetaService validacionTarjetaService;
+    private final CifradoTarjetaService cifradoTarjetaService;
+    private final CacheEstadosFinalesService cacheEstadosFinales;
+    private final VersionesEstadoService versionesEstado;
+    private final ColaOfflineService colaOfflineService;
+    private final SincronizacionLoteService sincronizacionLoteService;
+    private final PrevalidacionTarjetaService prevalidacionTarjetaService;
+    private final VelocidadTransaccionesService velocidadTransaccionesService;
+    private final ArchivoTransaccionesService archivoTransaccionesService;
+    private final FragmentosTransaccion fragmentosTransaccion;
+    private final TransactionTemplate transactionTemplate;
+    private final ObservationRegistry observationRegistry;
 
     public TransaccionService(TransaccionRepository transaccionRepository,
+            TransaccionEstadoJdbcRepository transaccionEstadoJdbcRepository,
             GatewayTransaccionClient gatewayClient,
             GatewayComercioClient comercioClient,
             ConfiguracionService configuracionService,
-            ValidacionTarjetaClient validacionTarjetaClient) {
+            ValidacionTarjetaService validacionTarjetaService,
+            CifradoTarjetaService cifradoTarjetaService,
+            CacheEstadosFinalesService cacheEstadosFinales,
+            VersionesEstadoService versionesEstado,
+            ColaOfflineService colaOfflineService,
+            SincronizacionLoteService sincronizacionLoteService,
+            PrevalidacionTarjetaService prevalidacionTarjetaService,
+            VelocidadTransaccionesService velocidadTransaccionesService,
+            ArchivoTransaccionesService archivoTransaccionesService,
+            FragmentosTransaccion fragmentosTransaccion,
+            TransactionTemplate transactionTemplate,
+            ObservationRegistry observationRegistry) {
         this.transaccionRepository = transaccionRepository;
+        this.transaccionEstadoJdbcRepository = transaccionEstadoJdbcRepository;
         this.gatewayClient = gatewayClient;
         this.comercioClient = comercioClient;
         this.configuracionService = configuracionService;
-        this.validacionTarjetaClient = validacionTarjetaClient;
+        this.validacionTarjetaService = validacionTarjetaService;
+        this.cifradoTarjetaService = cifradoTarjetaService;
+        this.cacheEstadosFinales = cacheEstadosFinales;
+        this.versionesEstado = versionesEstado;
+        this.colaOfflineService = colaOfflineService;
+        this.sincronizacionLoteService = sincronizacionLoteService;
+        this.prevalidacionTarjetaService = prevalidacionTarjetaService;
+        this.velocidadTransaccionesService = velocidadTransaccionesService;
+        this.archivoTransaccionesService = archivoTransaccionesService;
+        this.fragmentosTransaccion = fragmentosTransaccion;
+        this.transactionTemplate = transactionTemplate;
+        this.observationRegistry = observationRegistry;
     }
 
-    private void validarTarjeta(String datosSensibles) {
-        try {
-            ObjectMapper mapper = new ObjectMapper();
-            JsonNode datosTarjeta = mapper.readTree(datosSensibles);
+    private <T> T observar(String nombre, String codigoUnicoTransaccion, Supplier<T> paso) {
+        Observation observacion = Observation.createNotStarted(nombre, observationRegistry);
+        if (codigoUnicoTransaccion != null) {
+            observacion.highCardinalityKeyValue(ATRIBUTO_CODIGO, codigoUnicoTransaccion);
+        }
+        return observacion.observe(paso);
+    }
 
+    private ValidacionTarjetaDTO leerDatosTarjeta(String datosSensibles) {
+        try {
+            JsonNode datosTarjeta = MAPPER.readTree(datosSensibles);
             ValidacionTarjetaDTO validacionDTO = new ValidacionTarjetaDTO();
             validacionDTO.setNumero(datosTarjeta.get("cardNumber").asText());
             validacionDTO.setFechaCaducidad(datosTarjeta.get("expiryDate").asText());
             validacionDTO.setCvv(datosTarjeta.get("cvv").asText());
+            return validacionDTO;
+        } catch (Exception e) {
+            log.error("Error al leer los datos de la tarjeta: {}", e.getMessage());
+            throw new TarjetaInvalidaException("Datos de tarjeta ilegibles");
+        }
+    }
 
-            ResponseEntity<Void> respuesta = validacionTarjetaClient.validarTarjeta(validacionDTO);
+    private void validarTarjeta(ValidacionTarjetaDTO validacionDTO) {
+        try {
+            ResponseEntity<Void> respuesta = observar("pos.tarjeta.validar", null,
+                    () -> validacionTarjetaService.validar(validacionDTO));
             
             if (respuesta.getStatusCode().value() == 404) {
                 log.error("Error en la validación de la tarjeta: datos inválidos");
@@ -88,7 +164,12 @@ public class TransaccionService {
             }
 
             log.info("Validación de tarjeta exitosa");
+        } catch (PlazoExcedidoException e) {
+            throw e;
         } catch (Exception e) {
+            if (Plazo.vencido()) {
+                throw new PlazoExcedidoException("validación de tarjeta sin respuesta a tiempo");
+            }
             log.error("Error al validar la tarjeta: {}", e.getMessage());
             throw new TarjetaInvalidaException(e.getMessage());
         }
@@ -105,92 +186,213 @@ public class TransaccionService {
         }
     }
 
-    @Transactional
     public Transaccion crear(Transaccion transaccion, String datosSensibles,
             Boolean interesDiferido, Integer cuotas) {
+        return Observation.createNotStarted("pos.transaccion.crear", observationRegistry)
+                .lowCardinalityKeyValue("marca", String.valueOf(transaccion.getMarca()))
+                .observe(() -> crearObservada(transaccion, datosSensibles, interesDiferido, cuotas));
+    }
+
+    private Transaccion crearObservada(Transaccion transaccion, String datosSensibles,
+            Boolean interesDiferido, Integer cuotas) {
+        // Sin transacción envolvente: cada escritura usa una transacción corta para no
+        // retener el bloqueo de escritura de SQLite durante las llamadas remotas.
         log.info("Iniciando creación de transacción. Datos recibidos: {}", transaccion);
 
         validarDatosIniciales(transaccion);
-        validarTarjeta(datosSensibles);
-        log.info("Validaciones completadas exitosamente");
+        ValidacionTarjetaDTO datosTarjeta = leerDatosTarjeta(datosSensibles);
+        prevalidacionTarjetaService.prevalidar(transaccion.getMarca(), datosTarjeta.getNumero(),
+                datosTarjeta.getFechaCaducidad(), datosTarjeta.getCvv());
+        Configuracion config = configuracionService.obtenerConfiguracionActual();
+        VelocidadTransaccionesService.Reserva reserva = velocidadTransaccionesService.verificar(
+                datosTarjeta.getNumero(), config.getPk().getCodigo(), transaccion.getMonto());
+        Transaccion transaccionGuardada;
+        try {
+            Plazo.verificar("la validación de tarjeta");
+            validarTarjeta(datosTarjeta);
+            log.info("Validaciones completadas exitosamente");
+            transaccionGuardada = registrarTransaccion(transaccion);
+        } catch (RuntimeException e) {
+            // El cobro no llegó a registrarse: el cajero puede reintentarlo sin que se tome por duplicado.
+            velocidadTransaccionesService.liberar(reserva);
+            throw e;
+        }
 
-        return crearYProcesarTransaccion(transaccion, datosSensibles, interesDiferido, cuotas);
+        Transaccion procesada = procesarConGateway(transaccionGuardada, config, datosSensibles, interesDiferido,
+                cuotas);
+        if (ESTADO_RECHAZADO.equals(procesada.getEstado())) {
+            velocidadTransaccionesService.liberar(reserva);
+        }
+        return procesada;
     }
 
-    private Transaccion crearYProcesarTransaccion(Transaccion transaccion, String datosSensibles,
-            Boolean interesDiferido, Integer cuotas) {
+    private Transaccion registrarTransaccion(Transaccion transaccion) {
+        Plazo.verificar("el registro de la transacción");
         transaccion.setTipo(TIPO_PAGO);
         transaccion.setModalidad(MODALIDAD_SIMPLE);
         transaccion.setMoneda("USD");
         transaccion.setFecha(LocalDateTime.now());
         transaccion.setEstado(ESTADO_ENVIADO);
         transaccion.setEstadoRecibo(ESTADO_RECIBO_PENDIENTE);
-        transaccion.setCodigoUnicoTransaccion(generarCodigoUnico());
+        // El archivo guarda por el mes de FECHA y busca por el mes del código: ambos salen del mismo instante.
+        transaccion.setCodigoUnicoTransaccion(generarCodigoUnico(transaccion.getFecha()));
         transaccion.setDetalle("Transacción POS - " + transaccion.getMarca());
 
         log.info("Valores establecidos para transacción: marca={}, monto={}",
                 transaccion.getMarca(), transaccion.getMonto());
 
-        Transaccion transaccionGuardada = transaccionRepository.save(transaccion);
+        String codigo = transaccion.getCodigoUnicoTransaccion();
+        Observation crear = observationRegistry.getCurrentObservation();
+        if (crear != null) {
+            crear.highCardinalityKeyValue(ATRIBUTO_CODIGO, codigo);
+        }
+        Transaccion transaccionGuardada = observar("pos.transaccion.guardar", codigo,
+                () -> transaccionRepository.save(transaccion));
         log.info("Transacción guardada inicialmente: {}", transaccionGuardada.getCodigoUnicoTransaccion());
-
-        return procesarConGateway(transaccionGuardada, datosSensibles, interesDiferido, cuotas);
+        versionesEstado.registrar(transaccionGuardada.getCodigoUnicoTransaccion(), ESTADO_ENVIADO);
+        return transaccionGuardada;
     }
 
-    @Transactional
-    public Transaccion procesarConGateway(Transaccion transaccion, String datosSensibles,
+    public Transaccion procesarConGateway(Transaccion transaccion, Configuracion config, String datosSensibles,
             Boolean interesDiferido, Integer cuotas) {
+        if (Plazo.vencido()) {
+            transaccion.setDetalle("Plazo agotado antes de enviar al gateway");
+            transicionarEstado(transaccion, ESTADO_RECHAZADO);
+            throw new PlazoExcedidoException("se abandona el envío al gateway",
+                    transaccion.getCodigoUnicoTransaccion(), transaccion.getEstado());
+        }
+        String nuevoEstado = null;
         try {
-            GatewayTransaccionDTO gatewayDTO = prepararGatewayDTO(transaccion, datosSensibles,
+            GatewayTransaccionDTO gatewayDTO = prepararGatewayDTO(transaccion, config, datosSensibles,
                     interesDiferido, cuotas);
             log.info("Enviando al gateway DTO con datos de tarjeta incluidos");
 
-            ResponseEntity<String> respuesta = gatewayClient.sincronizarTransaccion(gatewayDTO);
+            ResponseEntity<String> respuesta = observar("pos.gateway.sincronizar",
+                    transaccion.getCodigoUnicoTransaccion(), () -> sincronizacionLoteService.sincronizar(gatewayDTO));
             log.info("Respuesta del gateway - Status: {}, Body: {}", 
                     respuesta.getStatusCode(), respuesta.getBody());
 
             if (respuesta.getStatusCode().is2xxSuccessful() && 
                 respuesta.getBody() != null && 
                 respuesta.getBody().contains("aceptada")) {
-                transaccion.setEstado(ESTADO_AUTORIZADO);
+                nuevoEstado = ESTADO_AUTORIZADO;
                 log.info("Transacción autorizada");
             } else if (respuesta.getStatusCode().value() == 400 || 
                      (respuesta.getBody() != null && respuesta.getBody().contains("rechazada"))) {
-                transaccion.setEstado(ESTADO_RECHAZADO);
+                nuevoEstado = ESTADO_RECHAZADO;
                 log.info("Transacción rechazada");
             } else if (respuesta.getStatusCode().value() == 202) {
                 log.info("Transacción en proceso de validación");
             } else {
                 log.warn("Estado inesperado recibido: {}", respuesta.getStatusCode());
-                transaccion.setEstado(ESTADO_RECHAZADO); 
+                nuevoEstado = ESTADO_RECHAZADO;
             }
-            
-            transaccion = transaccionRepository.save(transaccion);
-            log.info("Estado de transacción actualizado a: {}", transaccion.getEstado());
+        } catch (Exception e) {
+            log.error("Error al procesar con gateway: {}", e.getMessage());
+            if (Plazo.vencido()) {
+                // Nadie espera ya la respuesta: queda ENV. El barrido consulta al gateway y la confirma (AUT/REC)
+                // si alcanzó a recibirla, o la reversa si no la conoce; el terminal la sigue con /estado.
+                log.warn("Plazo agotado procesando la transacción {} con el gateway",
+                        transaccion.getCodigoUnicoTransaccion());
+                throw new PlazoExcedidoException("el gateway no respondió a tiempo",
+                        transaccion.getCodigoUnicoTransaccion(), transaccion.getEstado());
+            }
+            if (colaOfflineService.permiteAprobarFueraDeLinea(transaccion.getMarca(), transaccion.getMonto(), e)) {
+                nuevoEstado = aprobarFueraDeLinea(transaccion, config, datosSensibles, interesDiferido, cuotas);
+            } else {
+                nuevoEstado = ESTADO_RECHAZADO;
+                log.info("Transacción marcada como rechazada debido a error de comunicación");
+            }
+        }
 
-            return transaccion;
+        if (nuevoEstado != null) {
+            transaccion = transicionarEstado(transaccion, nuevoEstado);
+        }
+        log.info("Estado de transacción actualizado a: {}", transaccion.getEstado());
+        return transaccion;
+    }
 
+    private String aprobarFueraDeLinea(Transaccion transaccion, Configuracion config, String datosSensibles,
+            Boolean interesDiferido, Integer cuotas) {
+        try {
+            // El CVV no se guarda nunca; el resto de la tarjeta queda solo dentro del sobre cifrado.
+            colaOfflineService.encolar(construirGatewayDTO(transaccion, config, sinCvv(datosSensibles),
+                    interesDiferido, cuotas));
+            transaccion.setDetalle("Aprobada fuera de línea, pendiente de envío al gateway");
+            log.info("Gateway no disponible: transacción {} aprobada fuera de línea",
+                    transaccion.getCodigoUnicoTransaccion());
+            return ESTADO_AUTORIZADO;
         } catch (Exception e) {
-            log.error("Error al procesar con gateway: {}", e.getMessage());
-            transaccion.setEstado(ESTADO_RECHAZADO);
-            transaccion = transaccionRepository.save(transaccion);
-            log.info("Transacción marcada como rechazada debido a error de comunicación");
+            log.error("No se pudo encolar la transacción fuera de línea: {}", e.getMessage());
+            return ESTADO_RECHAZADO;
+        }
+    }
+
+    static String sinCvv(String datosSensibles) throws JsonProcessingException {
+        JsonNode datosTarjeta = MAPPER.readTree(datosSensibles);
+        if (datosTarjeta instanceof ObjectNode objeto) {
+            objeto.remove("cvv");
+        }
+        return MAPPER.writeValueAsString(datosTarjeta);
+    }
+
+    private Transaccion transicionarEstado(Transaccion transaccion, String nuevoEstado) {
+        String codigo = transaccion.getCodigoUnicoTransaccion();
+        if (observar("pos.transaccion.transicionar", codigo,
+                () -> transaccionRepository.transicionarEstado(codigo, nuevoEstado, transaccion.getDetalle()))) {
+            transaccion.setEstado(nuevoEstado);
+            registrarEstadoConocido(codigo, nuevoEstado, transaccion.getDetalle());
             return transaccion;
         }
+        String estadoActual = transaccionRepository.findEstadoByCodigoUnicoTransaccion(codigo)
+                .orElse(transaccion.getEstado());
+        versionesEstado.registrar(codigo, estadoActual);
+        log.warn("Transición a {} no aplicada para la transacción {}: estado actual {}",
+                nuevoEstado, codigo, estadoActual);
+        transaccion.setEstado(estadoActual);
+        return transaccion;
     }
 
-    private GatewayTransaccionDTO prepararGatewayDTO(Transaccion transaccion, String datosSensibles,
-            Boolean interesDiferido, Integer cuotas) {
+    public boolean reversarTransaccion(Transaccion transaccion) {
+        log.info("Enviando reverso de la transacción sin confirmar: {}", transaccion.getCodigoUnicoTransaccion());
+        try {
+            GatewayTransaccionDTO reversoDTO = prepararGatewayDTO(transaccion,
+                    configuracionService.obtenerConfiguracionActual(), null, Boolean.FALSE, 0);
+            reversoDTO.setTipo(TIPO_REVERSO);
+
+            ResponseEntity<String> respuesta = gatewayClient.sincronizarTransaccion(reversoDTO);
+            if (!respuesta.getStatusCode().is2xxSuccessful()) {
+                log.warn("El gateway no aceptó el reverso de {}: {}", transaccion.getCodigoUnicoTransaccion(),
+                        respuesta.getStatusCode());
+                return false;
+            }
+        } catch (Exception e) {
+            log.error("Error al enviar reverso de {}: {}", transaccion.getCodigoUnicoTransaccion(), e.getMessage());
+            return false;
+        }
+        transaccion.setDetalle("Reverso automático por falta de confirmación del gateway");
+        return ESTADO_REVERSADO.equals(transicionarEstado(transaccion, ESTADO_REVERSADO).getEstado());
+    }
+
+    private GatewayTransaccionDTO prepararGatewayDTO(Transaccion transaccion, Configuracion config,
+            String datosSensibles, Boolean interesDiferido, Integer cuotas) {
+        GatewayTransaccionDTO dto = construirGatewayDTO(transaccion, config, datosSensibles,
+                interesDiferido, cuotas);
+        FacturacionComercioDTO facturacion = observar("pos.comercio.facturacion",
+                transaccion.getCodigoUnicoTransaccion(),
+                () -> comercioClient.obtenerFacturacionPorComercio(dto.getComercio().getCodigo()));
+        dto.setFacturacionComercio(facturacion);
+        return dto;
+    }
+
+    private GatewayTransaccionDTO construirGatewayDTO(Transaccion transaccion, Configuracion config,
+            String datosSensibles, Boolean interesDiferido, Integer cuotas) {
         GatewayTransaccionDTO dto = new GatewayTransaccionDTO();
-        Configuracion config = configuracionService.obtenerConfiguracionActual();
 
         ComercioDTO comercio = new ComercioDTO();
         comercio.setCodigo(config.getCodigoComercio());
 
-        FacturacionComercioDTO facturacion = comercioClient.obtenerFacturacionPorComercio(comercio.getCodigo());
-
         dto.setComercio(comercio);
-        dto.setFacturacionComercio(facturacion);
         dto.setTipo(transaccion.getModalidad());
         dto.setMarca(transaccion.getMarca());
         dto.setDetalle(transaccion.getDetalle());
@@ -202,44 +404,215 @@ public class TransaccionService {
         dto.setPais("EC");
         dto.setCodigoPos(config.getPk().getCodigo());
         dto.setModeloPos(config.getPk().getModelo());
-        dto.setTarjeta(datosSensibles);
+        dto.setTarjeta(cifradoTarjetaService.proteger(transaccion.getMarca(),
+                transaccion.getCodigoUnicoTransaccion(), datosSensibles));
         dto.setInteresDiferido(interesDiferido);
         dto.setCuotas(cuotas);
 
         return dto;
     }
 
-    @Transactional(readOnly = true)
+    // Sin transacción: la búsqueda en el archivo hace ATTACH, que SQLite no admite dentro de una transacción.
     public Transaccion obtenerPorCodigoUnico(String codigoUnicoTransaccion) {
-        return transaccionRepository.findByCodigoUnicoTransaccion(codigoUnicoTransaccion)
+        Transaccion transaccion = transaccionRepository.findByCodigoUnicoTransaccion(codigoUnicoTransaccion)
+                .or(() -> archivoTransaccionesService.buscarArchivada(codigoUnicoTransaccion))
                 .orElseThrow(() -> new RuntimeException("Transacción no encontrada"));
+        versionesEstado.registrar(codigoUnicoTransaccion, transaccion.getEstado());
+        return transaccion;
+    }
+
+    public String obtenerEtagEstado(String codigoUnicoTransaccion) {
+        if (versionesEstado.isHabilitado()) {
+            return versionesEstado.obtenerEtag(codigoUnicoTransaccion);
+        }
+        return transaccionRepository.findEstadoByCodigoUnicoTransaccion(codigoUnicoTransaccion)
+                .map(VersionesEstadoService::etiquetar)
+                .orElse(null);
+    }
+
+    public EstadoTransaccionDTO consultarEstado(String codigoUnicoTransaccion) {
+        EstadoTransaccionDTO estadoFinal = cacheEstadosFinales.obtener(codigoUnicoTransaccion);
+        if (estadoFinal != null) {
+            return estadoFinal;
+        }
+        EstadoTransaccionDTO estado = transaccionRepository
+                .findResumenEstadoByCodigoUnicoTransaccion(codigoUnicoTransaccion)
+                .map(resumen -> EstadoTransaccionDTO.builder()
+                        .codigoUnicoTransaccion(resumen.getCodigoUnicoTransaccion())
+                        .estado(resumen.getEstado())
+                        .detalle(resumen.getDetalle())
+                        .build())
+                .or(() -> archivoTransaccionesService.buscarArchivada(codigoUnicoTransaccion)
+                        .map(archivada -> EstadoTransaccionDTO.builder()
+                                .codigoUnicoTransaccion(archivada.getCodigoUnicoTransaccion())
+                                .estado(archivada.getEstado())
+                                .detalle(archivada.getDetalle())
+                                .build()))
+                .orElseThrow(() -> new NotFoundException(codigoUnicoTransaccion, "Transacción"));
+        registrarEstadoConocido(estado.getCodigoUnicoTransaccion(), estado.getEstado(), estado.getDetalle());
+        return estado;
+    }
+
+    private void registrarEstadoConocido(String codigoUnicoTransaccion, String estado, String detalle) {
+        versionesEstado.registrar(codigoUnicoTransaccion, estado);
+        // Sin mensaje el callback conserva el detalle anterior, que no se conoce aquí.
+        if (TransicionesEstadoTransaccion.esEstadoFinal(estado) && detalle != null) {
+            cacheEstadosFinales.registrar(EstadoTransaccionDTO.builder()
+                    .codigoUnicoTransaccion(codigoUnicoTransaccion)
+                    .estado(estado)
+                    .detalle(detalle)
+                    .build());
+        }
     }
 
-    @Transactional
     public void actualizarEstadoTransaccion(ActualizacionEstadoDTO actualizacion) {
         log.info("Actualizando estado de transacción: {}", actualizacion.getCodigoUnicoTransaccion());
-        
-        Transaccion transaccion = transaccionRepository.findByCodigoUnicoTransaccion(
+
+        if (transaccionRepository.transicionarEstado(actualizacion.getCodigoUnicoTransaccion(),
+                actualizacion.getEstado(), actualizacion.getMensaje())) {
+            registrarEstadoConocido(actualizacion.getCodigoUnicoTransaccion(), actualizacion.getEstado(),
+                    actualizacion.getMensaje());
+            log.info("Estado de transacción actualizado a: {}", actualizacion.getEstado());
+            return;
+        }
+
+        String estadoActual = transaccionRepository.findEstadoByCodigoUnicoTransaccion(
                 actualizacion.getCodigoUnicoTransaccion())
                 .orElseThrow(() -> new RuntimeException("Transacción no encontrada"));
+        versionesEstado.registrar(actualizacion.getCodigoUnicoTransaccion(), estadoActual);
+        if (estadoActual.equals(actualizacion.getEstado())) {
+            log.info("La transacción ya se encontraba en estado: {}", estadoActual);
+            return;
+        }
+        throw new InvalidDataException("Transición de estado no permitida de " + estadoActual
+                + " a " + actualizacion.getEstado());
+    }
+
+    public List<ResultadoActualizacionDTO> actualizarEstadosLote(List<ActualizacionEstadoDTO> actualizaciones) {
+        log.info("Actualizando estado de {} transacciones en lote", actualizaciones.size());
+        if (!fragmentosTransaccion.isHabilitado()) {
+            return transactionTemplate.execute(estado -> procesarLoteEstados(actualizaciones));
+        }
+        // Con almacenamiento fragmentado cada fragmento confirma su parte del lote en su propia transacción.
+        List<ResultadoActualizacionDTO> resultados = new ArrayList<>(
+                Collections.nCopies(actualizaciones.size(), (ResultadoActualizacionDTO) null));
+        Map<Integer, List<Integer>> grupos = fragmentosTransaccion.agruparPorFragmento(
+                actualizaciones.stream().map(ActualizacionEstadoDTO::getCodigoUnicoTransaccion).toList());
+        grupos.forEach((fragmento, posiciones) -> {
+            List<ActualizacionEstadoDTO> grupo = posiciones.stream().map(actualizaciones::get).toList();
+            List<ResultadoActualizacionDTO> parciales = fragmentosTransaccion.ejecutarEn(fragmento,
+                    () -> transactionTemplate.execute(estado -> procesarLoteEstados(grupo)));
+            for (int i = 0; i < posiciones.size(); i++) {
+                resultados.set(posiciones.get(i), parciales.get(i));
+            }
+        });
+        return resultados;
+    }
+
+    private List<ResultadoActualizacionDTO> procesarLoteEstados(List<ActualizacionEstadoDTO> actualizaciones) {
+        List<ResultadoActualizacionDTO> resultados = new ArrayList<>(
+                Collections.nCopies(actualizaciones.size(), (ResultadoActualizacionDTO) null));
+        List<TransicionEstado> transiciones = new ArrayList<>();
+        List<Integer> posiciones = new ArrayList<>();
+
+        for (int i = 0; i < actualizaciones.size(); i++) {
+            ActualizacionEstadoDTO actualizacion = actualizaciones.get(i);
+            // Igual que el callback individual: sin mensaje se conserva el detalle actual.
+            if (actualizacion.getCodigoUnicoTransaccion() == null
+                    || TransicionesEstadoTransaccion.origenesPermitidos(actualizacion.getEstado()).isEmpty()) {
+                resultados.set(i, resultadoLote(actualizacion, ResultadoActualizacionDTO.DATOS_INVALIDOS,
+                        "Código único y estado (AUT, REC o REV) son obligatorios"));
+                continue;
+            }
+            transiciones.add(new TransicionEstado(actualizacion.getCodigoUnicoTransaccion(),
+                    actualizacion.getEstado(), actualizacion.getMensaje()));
+            posiciones.add(i);
+        }
+
+        int[] filasActualizadas = transiciones.isEmpty()
+                ? new int[0]
+                : transaccionEstadoJdbcRepository.transicionarEstados(transiciones);
+
+        List<String> sinAplicar = new ArrayList<>();
+        for (int j = 0; j < filasActualizadas.length; j++) {
+            if (filasActualizadas[j] == 0) {
+                sinAplicar.add(transiciones.get(j).codigoUnicoTransaccion());
+            }
+        }
+        Map<String, String> estadosActuales = sinAplicar.isEmpty()
+                ? Map.of()
+                : transaccionEstadoJdbcRepository.buscarEstados(sinAplicar);
+
+        for (int j = 0; j < filasActualizadas.length; j++) {
+            ActualizacionEstadoDTO actualizacion = actualizaciones.get(posiciones.get(j));
+            String estadoActual = estadosActuales.get(actualizacion.getCodigoUnicoTransaccion());
+            ResultadoActualizacionDTO resultado;
+            if (filasActualizadas[j] > 0 || filasActualizadas[j] == Statement.SUCCESS_NO_INFO) {
+                resultado = resultadoLote(actualizacion, ResultadoActualizacionDTO.ACTUALIZADA,
+                        "Estado actualizado");
+            } else if (estadoActual == null) {
+                resultado = resultadoLote(actualizacion, ResultadoActualizacionDTO.NO_ENCONTRADA,
+                        "Transacción no encontrada");
+            } else if (estadoActual.equals(actualizacion.getEstado())) {
+                resultado = resultadoLote(actualizacion, ResultadoActualizacionDTO.SIN_CAMBIOS,
+                        "La transacción ya se encontraba en estado " + estadoActual);
+            } else {
+                resultado = resultadoLote(actualizacion, ResultadoActualizacionDTO.TRANSICION_INVALIDA,
+                        "Transición de estado no permitida de " + estadoActual + " a " + actualizacion.getEstado());
+            }
+            resultados.set(posiciones.get(j), resultado);
+        }
+        log.info("Lote de actualizaciones procesado: {} aplicadas, {} sin aplicar",
+                filasActualizadas.length - sinAplicar.size(), sinAplicar.size());
+        registrarEstadosAlConfirmar(actualizaciones, resultados, estadosActuales);
+        return resultados;
+    }
+
+    private void registrarEstadosAlConfirmar(List<ActualizacionEstadoDTO> actualizaciones,
+            List<ResultadoActualizacionDTO> resultados, Map<String, String> estadosActuales) {
+        Runnable registrar = () -> {
+            for (int i = 0; i < resultados.size(); i++) {
+                if (ResultadoActualizacionDTO.ACTUALIZADA.equals(resultados.get(i).getResultado())) {
+                    ActualizacionEstadoDTO actualizacion = actualizaciones.get(i);
+                    registrarEstadoConocido(actualizacion.getCodigoUnicoTransaccion(), actualizacion.getEstado(),
+                            actualizacion.getMensaje());
+                }
+            }
+            estadosActuales.forEach(versionesEstado::registrar);
+        };
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            registrar.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                registrar.run();
+            }
+        });
+    }
 
-        transaccion.setEstado(actualizacion.getEstado());
-        transaccion.setDetalle(actualizacion.getMensaje());
-        
-        transaccionRepository.save(transaccion);
-        log.info("Estado de transacción actualizado a: {}", actualizacion.getEstado());
+    private ResultadoActualizacionDTO resultadoLote(ActualizacionEstadoDTO actualizacion, String resultado,
+            String mensaje) {
+        return ResultadoActualizacionDTO.builder()
+                .codigoUnicoTransaccion(actualizacion.getCodigoUnicoTransaccion())
+                .estado(actualizacion.getEstado())
+                .resultado(resultado)
+                .mensaje(mensaje)
+                .build();
     }
 
-    private String generarCodigoUnico() {
-        LocalDateTime now = LocalDateTime.now();
+    private String generarCodigoUnico(LocalDateTime fecha) {
+        int aleatorio = new Random().nextInt(1000000);
+        int fragmento = fragmentosTransaccion.fragmentoPorPrefijo(aleatorio);
         return String.format("TRX%06d-%d-%02d-%02d-%02d-%02d-%02d-%012d",
-                new Random().nextInt(1000000),
-                now.getYear(),
-                now.getMonthValue(),
-                now.getDayOfMonth(),
-                now.getHour(),
-                now.getMinute(),
-                now.getSecond(),
-                1L);
+                aleatorio,
+                fecha.getYear(),
+                fecha.getMonthValue(),
+                fecha.getDayOfMonth(),
+                fecha.getHour(),
+                fecha.getMinute(),
+                fecha.getSecond(),
+                fragmentosTransaccion.campoCodigo(fragmento));
     }
 }
\ No newline at end of file
@@ -0,0 +1,178 @@
+package ec.edu.espe.pos.service;
+
+import ec.edu.espe.pos.client.ValidacionTarjetaClient;
+import ec.edu.espe.pos.config.Hilos;
+import ec.edu.espe.pos.controller.dto.ValidacionTarjetaDTO;
+
+import io.micrometer.context.ContextExecutorService;
+import io.micrometer.context.ContextSnapshotFactory;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import jakarta.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+
+import java.util.Arrays;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+@Service
+public class ValidacionTarjetaService {
+
+    private static final Logger log = LoggerFactory.getLogger(ValidacionTarjetaService.class);
+    private static final int MUESTRAS_LATENCIA = 256;
+    private static final int MUESTRAS_MINIMAS = 20;
+    private static final long UNIDAD_PRESUPUESTO = 1000;
+
+    private final ValidacionTarjetaClient validacionTarjetaClient;
+    private final boolean habilitado;
+    private final double percentil;
+    private final long retrasoMinimoMs;
+    private final long incrementoPresupuesto;
+    private final long presupuestoMaximo;
+    private final AtomicLongArray latenciasMs = new AtomicLongArray(MUESTRAS_LATENCIA);
+    private final AtomicInteger siguienteMuestra = new AtomicInteger();
+    private final AtomicLong presupuesto = new AtomicLong();
+    private final ExecutorService ejecutor;
+    private final Counter solicitudes;
+    private final Counter coberturasEnviadas;
+    private final Counter coberturasGanadoras;
+
+    public ValidacionTarjetaService(ValidacionTarjetaClient validacionTarjetaClient,
+            MeterRegistry registro,
+            @Value("${pos.validacion-tarjeta.cobertura.habilitada:false}") boolean habilitado,
+            @Value("${pos.validacion-tarjeta.cobertura.percentil:0.95}") double percentil,
+            @Value("${pos.validacion-tarjeta.cobertura.retraso-minimo-ms:50}") long retrasoMinimoMs,
+            @Value("${pos.validacion-tarjeta.cobertura.presupuesto:0.05}") double presupuesto,
+            @Value("${spring.threads.virtual.enabled:false}") boolean hilosVirtuales) {
+        this.validacionTarjetaClient = validacionTarjetaClient;
+        this.habilitado = habilitado;
+        this.percentil = percentil;
+        this.retrasoMinimoMs = retrasoMinimoMs;
+        this.incrementoPresupuesto = (long) (presupuesto * UNIDAD_PRESUPUESTO);
+        this.presupuestoMaximo = 10 * UNIDAD_PRESUPUESTO;
+        // Los intentos heredan la traza de quien valida, así sus llamadas Feign cuelgan del mismo span.
+        this.ejecutor = ContextExecutorService.wrap(Hilos.porTarea("validacion-tarjeta", hilosVirtuales),
+                ContextSnapshotFactory.builder().build()::captureAll);
+        this.solicitudes = Counter.builder("pos.validacion-tarjeta.solicitudes")
+                .description("Validaciones de tarjeta solicitadas")
+                .register(registro);
+        this.coberturasEnviadas = Counter.builder("pos.validacion-tarjeta.coberturas.enviadas")
+                .description("Segundos intentos lanzados por latencia del primero")
+                .register(registro);
+        this.coberturasGanadoras = Counter.builder("pos.validacion-tarjeta.coberturas.ganadoras")
+                .description("Segundos intentos que respondieron antes que el primero")
+                .register(registro);
+    }
+
+    @PreDestroy
+    public void detener() {
+        ejecutor.shutdownNow();
+    }
+
+    public ResponseEntity<Void> validar(ValidacionTarjetaDTO validacion) {
+        if (!habilitado) {
+            return validacionTarjetaClient.validarTarjeta(validacion);
+        }
+        solicitudes.increment();
+        presupuesto.accumulateAndGet(incrementoPresupuesto, (actual, incremento) ->
+                Math.min(presupuestoMaximo, actual + incremento));
+
+        CompletionService<ResponseEntity<Void>> intentos = new ExecutorCompletionService<>(ejecutor);
+        Future<ResponseEntity<Void>> primero = intentos.submit(() -> intentar(validacion));
+        Future<ResponseEntity<Void>> cobertura = null;
+        try {
+            Future<ResponseEntity<Void>> terminado = intentos.poll(retrasoCobertura(), TimeUnit.MILLISECONDS);
+            if (terminado == null && consumirPresupuesto()) {
+                coberturasEnviadas.increment();
+                log.debug("Validación de tarjeta lenta, se lanza un segundo intento");
+                cobertura = intentos.submit(() -> intentar(validacion));
+            }
+            if (terminado == null) {
+                terminado = intentos.take();
+            }
+            ResponseEntity<Void> respuesta = obtener(terminado, cobertura != null ? intentos : null);
+            if (terminado == cobertura) {
+                coberturasGanadoras.increment();
+            }
+            return respuesta;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrumpido durante la validación de la tarjeta", e);
+        } finally {
+            // Sin interrumpir: el intento perdedor termina, su resultado se descarta y su latencia alimenta el
+            // percentil. cancel(false) solo evita que arranque un intento que aún no empezó.
+            primero.cancel(false);
+            if (cobertura != null) {
+                cobertura.cancel(false);
+            }
+        }
+    }
+
+    private ResponseEntity<Void> intentar(ValidacionTarjetaDTO validacion) {
+        long inicio = System.nanoTime();
+        try {
+            return validacionTarjetaClient.validarTarjeta(validacion);
+        } finally {
+            // Cada intento aporta su propia latencia; la del perdedor también cuenta para el percentil.
+            registrarLatencia((System.nanoTime() - inicio) / 1_000_000);
+        }
+    }
+
+    private ResponseEntity<Void> obtener(Future<ResponseEntity<Void>> terminado,
+            CompletionService<ResponseEntity<Void>> restante) throws InterruptedException {
+        try {
+            return terminado.get();
+        } catch (ExecutionException e) {
+            if (restante != null) {
+                return obtener(restante.take(), null);
+            }
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private boolean consumirPresupuesto() {
+        long actual;
+        do {
+            actual = presupuesto.get();
+            if (actual < UNIDAD_PRESUPUESTO) {
+                return false;
+            }
+        } while (!presupuesto.compareAndSet(actual, actual - UNIDAD_PRESUPUESTO));
+        return true;
+    }
+
+    long retrasoCobertura() {
+        int registradas = Math.min(siguienteMuestra.get(), MUESTRAS_LATENCIA);
+        if (registradas < MUESTRAS_MINIMAS) {
+            return Math.max(retrasoMinimoMs, 1000);
+        }
+        long[] muestras = new long[registradas];
+        for (int i = 0; i < registradas; i++) {
+            muestras[i] = latenciasMs.get(i);
+        }
+        Arrays.sort(muestras);
+        int posicion = (int) Math.min(registradas - 1, Math.ceil(percentil * registradas) - 1);
+        return Math.max(retrasoMinimoMs, muestras[Math.max(0, posicion)]);
+    }
+
+    private void registrarLatencia(long latenciaMs) {
+        int indice = siguienteMuestra.getAndUpdate(i -> i == Integer.MAX_VALUE ? MUESTRAS_LATENCIA : i + 1);
+        latenciasMs.set(indice % MUESTRAS_LATENCIA, latenciaMs);
+    }
+}
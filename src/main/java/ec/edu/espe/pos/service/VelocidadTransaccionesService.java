@@ -0,0 +1,162 @@
+package ec.edu.espe.pos.service;
+
+import ec.edu.espe.pos.exception.DuplicateException;
+import ec.edu.espe.pos.exception.InvalidDataException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+@Service
+public class VelocidadTransaccionesService {
+
+    private static final Logger log = LoggerFactory.getLogger(VelocidadTransaccionesService.class);
+    // Huella reciente: 22 bits altos de la huella + 42 bits del instante en ms, en un solo long.
+    private static final int BITS_INSTANTE = 42;
+    private static final long MASCARA_INSTANTE = (1L << BITS_INSTANTE) - 1;
+    // Celda de conteo: 24 bits de etiqueta de la clave + 28 bits de cubeta + 12 bits de conteo.
+    private static final int BITS_CONTEO = 12;
+    private static final int BITS_CUBETA = 28;
+    private static final long MASCARA_CONTEO = (1L << BITS_CONTEO) - 1;
+    private static final long MASCARA_CUBETA = (1L << BITS_CUBETA) - 1;
+    private static final int DESPLAZAMIENTO_ETIQUETA = BITS_CUBETA + BITS_CONTEO;
+
+    public static final Reserva SIN_RESERVA = new Reserva(-1, 0);
+
+    private final boolean habilitado;
+    private final long ventanaDuplicadoMs;
+    private final int maximoPorTarjeta;
+    private final int maximoPorTerminal;
+    private final long duracionCubetaMs;
+    private final int cubetas;
+    private final int mascaraRanuras;
+    private final AtomicLongArray huellasRecientes;
+    private final AtomicLongArray contadoresTarjeta;
+    private final AtomicLongArray contadoresTerminal;
+
+    public record Reserva(int ranura, long valor) {
+    }
+
+    public VelocidadTransaccionesService(
+            @Value("${pos.velocidad.habilitado:true}") boolean habilitado,
+            @Value("${pos.velocidad.ventana-duplicado-ms:10000}") long ventanaDuplicadoMs,
+            @Value("${pos.velocidad.ventana-ms:60000}") long ventanaMs,
+            @Value("${pos.velocidad.cubetas:6}") int cubetas,
+            @Value("${pos.velocidad.maximo-por-tarjeta:5}") int maximoPorTarjeta,
+            @Value("${pos.velocidad.maximo-por-terminal:120}") int maximoPorTerminal,
+            @Value("${pos.velocidad.ranuras:65536}") int ranuras) {
+        this.habilitado = habilitado;
+        this.ventanaDuplicadoMs = ventanaDuplicadoMs;
+        this.maximoPorTarjeta = maximoPorTarjeta;
+        this.maximoPorTerminal = maximoPorTerminal;
+        this.cubetas = cubetas;
+        this.duracionCubetaMs = Math.max(1, ventanaMs / cubetas);
+        int capacidad = Integer.highestOneBit(Math.max(2, ranuras - 1)) << 1;
+        this.mascaraRanuras = capacidad - 1;
+        this.huellasRecientes = new AtomicLongArray(capacidad);
+        this.contadoresTarjeta = new AtomicLongArray(capacidad * cubetas);
+        this.contadoresTerminal = new AtomicLongArray(capacidad * cubetas);
+    }
+
+    // Reserva la huella tarjeta+monto; si el cobro no llega a registrarse hay que liberarla.
+    public Reserva verificar(String numeroTarjeta, String terminal, BigDecimal monto) {
+        if (!habilitado || numeroTarjeta == null) {
+            return SIN_RESERVA;
+        }
+        long ahora = System.currentTimeMillis();
+        long tarjeta = resumen(numeroTarjeta, 0x9E3779B97F4A7C15L);
+        long huella = mezclar(tarjeta ^ resumen(monto.stripTrailingZeros().toPlainString(), 0xC2B2AE3D27D4EB4FL));
+        Reserva reserva = reservar(huella, ahora, monto);
+        try {
+            long cubeta = ahora / duracionCubetaMs;
+            int porTarjeta = incrementar(contadoresTarjeta, tarjeta, cubeta);
+            if (porTarjeta > maximoPorTarjeta) {
+                log.warn("Ráfaga de {} transacciones con la misma tarjeta en la ventana", porTarjeta);
+                throw new InvalidDataException("Demasiadas transacciones con la misma tarjeta en poco tiempo");
+            }
+            if (terminal != null) {
+                int porTerminal = incrementar(contadoresTerminal, resumen(terminal, 0x165667B19E3779F9L), cubeta);
+                if (porTerminal > maximoPorTerminal) {
+                    log.warn("Ráfaga de {} transacciones en el terminal {} en la ventana", porTerminal, terminal);
+                    throw new InvalidDataException("Demasiadas transacciones en el terminal en poco tiempo");
+                }
+            }
+            return reserva;
+        } catch (RuntimeException e) {
+            liberar(reserva);
+            throw e;
+        }
+    }
+
+    public void liberar(Reserva reserva) {
+        if (reserva != null && reserva.ranura() >= 0) {
+            // Solo si nadie la reemplazó desde entonces.
+            huellasRecientes.compareAndSet(reserva.ranura(), reserva.valor(), 0);
+        }
+    }
+
+    private Reserva reservar(long huella, long ahora, BigDecimal monto) {
+        int ranura = (int) huella & mascaraRanuras;
+        long etiqueta = huella >>> BITS_INSTANTE;
+        long nuevo = (etiqueta << BITS_INSTANTE) | (ahora & MASCARA_INSTANTE);
+        long actual;
+        do {
+            actual = huellasRecientes.get(ranura);
+            long transcurrido = ahora - (actual & MASCARA_INSTANTE);
+            if (actual != 0 && actual >>> BITS_INSTANTE == etiqueta && transcurrido < ventanaDuplicadoMs) {
+                log.warn("Cobro duplicado detectado para el monto {} en {} ms", monto, transcurrido);
+                throw new DuplicateException("monto " + monto.toPlainString() + " con la misma tarjeta",
+                        "transacción reciente");
+            }
+        } while (!huellasRecientes.compareAndSet(ranura, actual, nuevo));
+        return new Reserva(ranura, nuevo);
+    }
+
+    // Cada celda lleva la etiqueta de su clave: una clave distinta que cae en la misma ranura
+    // reinicia la celda en lugar de sumarse. Una colisión puede subestimar, nunca sumar ajenos.
+    private int incrementar(AtomicLongArray contadores, long clave, long cubeta) {
+        int base = ((int) clave & mascaraRanuras) * cubetas;
+        int actual = base + (int) Math.floorMod(cubeta, (long) cubetas);
+        long etiqueta = clave >>> DESPLAZAMIENTO_ETIQUETA;
+        long cabecera = (etiqueta << DESPLAZAMIENTO_ETIQUETA) | ((cubeta & MASCARA_CUBETA) << BITS_CONTEO);
+        long valor;
+        long nuevo;
+        do {
+            valor = contadores.get(actual);
+            nuevo = (valor & ~MASCARA_CONTEO) == cabecera
+                    ? Math.min(valor + 1, cabecera | MASCARA_CONTEO)
+                    : cabecera | 1;
+        } while (!contadores.compareAndSet(actual, valor, nuevo));
+
+        int total = 0;
+        for (int i = 0; i < cubetas; i++) {
+            long celda = contadores.get(base + i);
+            long edad = (cubeta - (celda >>> BITS_CONTEO)) & MASCARA_CUBETA;
+            if (celda >>> DESPLAZAMIENTO_ETIQUETA == etiqueta && edad < cubetas) {
+                total += (int) (celda & MASCARA_CONTEO);
+            }
+        }
+        return total;
+    }
+
+    private static long resumen(String valor, long semilla) {
+        long h = semilla;
+        for (int i = 0; i < valor.length(); i++) {
+            h = (h ^ valor.charAt(i)) * 0x100000001B3L;
+        }
+        return mezclar(h);
+    }
+
+    private static long mezclar(long h) {
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,81 @@
+package ec.edu.espe.pos.service;
+
+import ec.edu.espe.pos.repository.TransicionesEstadoTransaccion;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+@Service
+public class VersionesEstadoService {
+
+    private final ConcurrentHashMap<String, String> estados = new ConcurrentHashMap<>();
+    private final Queue<String> ordenIngreso = new ConcurrentLinkedQueue<>();
+    private final int capacidadMaxima;
+    private final boolean habilitado;
+
+    public VersionesEstadoService(
+            @Value("${pos.estado.versiones.capacidad-maxima:200000}") int capacidadMaxima,
+            @Value("${pos.estado.versiones.habilitado:true}") boolean habilitado) {
+        this.capacidadMaxima = capacidadMaxima;
+        this.habilitado = habilitado;
+    }
+
+    public boolean isHabilitado() {
+        return habilitado;
+    }
+
+    public String obtenerEtag(String codigoUnicoTransaccion) {
+        String estado = habilitado ? estados.get(codigoUnicoTransaccion) : null;
+        return estado != null ? etiquetar(estado) : null;
+    }
+
+    public void registrar(String codigoUnicoTransaccion, String estado) {
+        if (!habilitado || codigoUnicoTransaccion == null || estado == null) {
+            return;
+        }
+        boolean[] nuevo = new boolean[1];
+        // Un lector lento puede traer un estado ya superado: un estado final nunca se reemplaza.
+        estados.compute(codigoUnicoTransaccion, (codigo, actual) -> {
+            if (actual == null) {
+                nuevo[0] = true;
+                return estado;
+            }
+            return TransicionesEstadoTransaccion.esEstadoFinal(actual) ? actual : estado;
+        });
+        if (!nuevo[0]) {
+            return;
+        }
+        ordenIngreso.add(codigoUnicoTransaccion);
+        while (estados.size() > capacidadMaxima) {
+            String masAntiguo = ordenIngreso.poll();
+            if (masAntiguo == null) {
+                break;
+            }
+            estados.remove(masAntiguo);
+        }
+    }
+
+    public static String etiquetar(String estado) {
+        return "\"" + estado + "\"";
+    }
+
+    public static boolean coincide(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || etag == null) {
+            return false;
+        }
+        for (String candidata : ifNoneMatch.split(",")) {
+            String valor = candidata.trim();
+            if (valor.startsWith("W/")) {
+                valor = valor.substring(2);
+            }
+            if (valor.equals(etag) || valor.equals("*")) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
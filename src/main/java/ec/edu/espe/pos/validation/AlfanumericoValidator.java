@@ -0,0 +1,21 @@
+package ec.edu.espe.pos.validation;
+
+import jakarta.validation.ConstraintValidator;
+import jakarta.validation.ConstraintValidatorContext;
+
+public class AlfanumericoValidator implements ConstraintValidator<Alfanumerico, String> {
+
+    private int min;
+    private int max;
+
+    @Override
+    public void initialize(Alfanumerico anotacion) {
+        this.min = anotacion.min();
+        this.max = anotacion.max();
+    }
+
+    @Override
+    public boolean isValid(String valor, ConstraintValidatorContext context) {
+        return valor == null || ValidadorConfiguracion.esAlfanumerico(valor, min, max);
+    }
+}
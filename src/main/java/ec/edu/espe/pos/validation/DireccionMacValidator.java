@@ -0,0 +1,12 @@
+package ec.edu.espe.pos.validation;
+
+import jakarta.validation.ConstraintValidator;
+import jakarta.validation.ConstraintValidatorContext;
+
+public class DireccionMacValidator implements ConstraintValidator<DireccionMac, String> {
+
+    @Override
+    public boolean isValid(String valor, ConstraintValidatorContext context) {
+        return valor == null || ValidadorConfiguracion.esDireccionMac(valor);
+    }
+}
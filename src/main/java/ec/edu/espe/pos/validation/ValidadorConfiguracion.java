@@ -0,0 +1,51 @@
+package ec.edu.espe.pos.validation;
+
+import java.util.Locale;
+
+public final class ValidadorConfiguracion {
+
+    public static final int CODIGO_POS_LENGTH = 10;
+    public static final int MODELO_LENGTH = 10;
+    private static final int MAC_LENGTH = 17;
+
+    private ValidadorConfiguracion() {
+    }
+
+    public static boolean esAlfanumerico(String valor, int longitudMinima, int longitudMaxima) {
+        if (valor == null || valor.length() < longitudMinima || valor.length() > longitudMaxima) {
+            return false;
+        }
+        for (int i = 0; i < valor.length(); i++) {
+            char c = valor.charAt(i);
+            if (!((c >= '0' && c <= '9') || (c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z'))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public static boolean esDireccionMac(String valor) {
+        if (valor == null || valor.length() != MAC_LENGTH) {
+            return false;
+        }
+        for (int i = 0; i < MAC_LENGTH; i++) {
+            char c = valor.charAt(i);
+            if (i % 3 == 2) {
+                if (c != ':' && c != '-') {
+                    return false;
+                }
+            } else if (!esHexadecimal(c)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public static String normalizarDireccionMac(String direccionMac) {
+        return direccionMac.replace('-', ':').toUpperCase(Locale.ROOT);
+    }
+
+    private static boolean esHexadecimal(char c) {
+        return (c >= '0' && c <= '9') || (c >= 'A' && c <= 'F') || (c >= 'a' && c <= 'f');
+    }
+}
@@ -0,0 +1,80 @@
+package ec.edu.espe.pos.validation;
+
+import java.time.YearMonth;
+
+public final class ValidadorTarjeta {
+
+    public static final int NUMERO_LENGTH_MINIMO = 12;
+    public static final int NUMERO_LENGTH_MAXIMO = 19;
+    public static final int BIN_LENGTH = 6;
+
+    private ValidadorTarjeta() {
+    }
+
+    public static boolean esNumeroValido(String numero) {
+        if (numero == null || numero.length() < NUMERO_LENGTH_MINIMO || numero.length() > NUMERO_LENGTH_MAXIMO) {
+            return false;
+        }
+        int suma = 0;
+        boolean duplicar = false;
+        for (int i = numero.length() - 1; i >= 0; i--) {
+            char c = numero.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+            int digito = c - '0';
+            if (duplicar) {
+                digito *= 2;
+                if (digito > 9) {
+                    digito -= 9;
+                }
+            }
+            suma += digito;
+            duplicar = !duplicar;
+        }
+        return suma % 10 == 0;
+    }
+
+    public static int bin(String numero) {
+        int bin = 0;
+        for (int i = 0; i < BIN_LENGTH; i++) {
+            bin = bin * 10 + (numero.charAt(i) - '0');
+        }
+        return bin;
+    }
+
+    public static boolean estaVigente(String fechaCaducidad, YearMonth mesActual) {
+        if (fechaCaducidad == null) {
+            return false;
+        }
+        int separador = fechaCaducidad.indexOf('/');
+        if (separador != 2 || (fechaCaducidad.length() != 5 && fechaCaducidad.length() != 7)) {
+            return false;
+        }
+        int mes = digitos(fechaCaducidad, 0, 2);
+        int anio = digitos(fechaCaducidad, 3, fechaCaducidad.length());
+        if (mes < 1 || mes > 12 || anio < 0) {
+            return false;
+        }
+        if (fechaCaducidad.length() == 5) {
+            anio += 2000;
+        }
+        return !YearMonth.of(anio, mes).isBefore(mesActual);
+    }
+
+    public static boolean esCvvValido(String cvv, int longitud) {
+        return cvv != null && cvv.length() == longitud && digitos(cvv, 0, longitud) >= 0;
+    }
+
+    private static int digitos(String valor, int desde, int hasta) {
+        int resultado = 0;
+        for (int i = desde; i < hasta; i++) {
+            char c = valor.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            resultado = resultado * 10 + (c - '0');
+        }
+        return resultado;
+    }
+}
@@ -0,0 +1,145 @@
+package ec.edu.espe.pos.carga;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import ec.edu.espe.pos.PosApplication;
+import ec.edu.espe.pos.repository.ConfiguracionRepository;
+
+// Requiere el jar extraído y el archivo CDS: mvn -Parranque-rapido package -DskipTests
+@EnabledIfSystemProperty(named = "pos.arranque", matches = "true")
+class ArranqueHastaPrimerPagoTest {
+
+	private static final Logger log = LoggerFactory.getLogger(ArranqueHastaPrimerPagoTest.class);
+	private static final int REPETICIONES = Integer.getInteger("pos.arranque.repeticiones", 3);
+	private static final Path JAR = Paths.get(System.getProperty("pos.arranque.jar",
+			"target/aplicacion/pos-0.0.1-SNAPSHOT.jar"));
+	private static final Path ARCHIVO_CDS = Paths.get(System.getProperty("pos.arranque.cds",
+			"target/aplicacion/pos.jsa"));
+	private static final String BASE = "target/pos-arranque.db";
+	private static final Duration ESPERA_MAXIMA = Duration.ofSeconds(120);
+
+	private final HttpClient cliente = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+
+	@Test
+	void medirTiempoHastaPrimerPago() throws Exception {
+		assertTrue(Files.exists(JAR), "No existe " + JAR + "; construir con mvn -Parranque-rapido package");
+		assertTrue(Files.exists(ARCHIVO_CDS), "No existe " + ARCHIVO_CDS);
+		Map<String, List<String>> variantes = new LinkedHashMap<>();
+		variantes.put("jar", List.of());
+		variantes.put("aot", List.of("-Dspring.aot.enabled=true"));
+		variantes.put("aot+cds", List.of("-Dspring.aot.enabled=true",
+				"-XX:SharedArchiveFile=" + ARCHIVO_CDS.toAbsolutePath()));
+
+		try (DependenciasRemotasStub stubs = DependenciasRemotasStub.desdePropiedadesSistema()) {
+			// El perfil por defecto crea el esquema (ddl-auto=update) que luego valida el perfil de producción.
+			prepararBase(stubs);
+			Map<String, List<Long>> tiempos = new LinkedHashMap<>();
+			for (int i = 0; i < REPETICIONES; i++) {
+				for (Map.Entry<String, List<String>> variante : variantes.entrySet()) {
+					tiempos.computeIfAbsent(variante.getKey(), clave -> new ArrayList<>())
+							.add(tiempoHastaPrimerPago(stubs, variante.getKey(), variante.getValue()));
+				}
+			}
+			log.info("Tiempo hasta el primer pago (ms) con el jar empaquetado y el perfil produccion: {}", tiempos);
+		}
+	}
+
+	private void prepararBase(DependenciasRemotasStub stubs) {
+		try (ConfigurableApplicationContext contexto = new SpringApplicationBuilder(PosApplication.class)
+				.properties(
+						"server.port=0",
+						"spring.datasource.url=jdbc:sqlite:" + BASE + "?journal_mode=WAL&busy_timeout=5000",
+						"spring.jpa.show-sql=false",
+						"pos.barrido.habilitado=false",
+						"pos.gateway.url=" + stubs.gateway().url(),
+						"pos.validacion-tarjeta.url=" + stubs.validacionTarjeta().url())
+				.run()) {
+			ProcesamientoCargaTest.prepararConfiguracion(contexto.getBean(ConfiguracionRepository.class));
+		}
+	}
+
+	private long tiempoHastaPrimerPago(DependenciasRemotasStub stubs, String variante, List<String> opciones)
+			throws IOException, InterruptedException {
+		int puerto = puertoLibre();
+		List<String> comando = new ArrayList<>();
+		comando.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+		comando.add("--add-opens=java.base/java.nio=ALL-UNNAMED");
+		comando.addAll(opciones);
+		comando.add("-Dspring.profiles.active=produccion");
+		comando.add("-Dserver.port=" + puerto);
+		comando.add("-Dspring.datasource.url=jdbc:sqlite:" + BASE + "?journal_mode=WAL&busy_timeout=5000");
+		comando.add("-Dspring.cloud.openfeign.client.config.default.logger-level=none");
+		comando.add("-Dpos.barrido.habilitado=false");
+		comando.add("-Dpos.gateway.url=" + stubs.gateway().url());
+		comando.add("-Dpos.validacion-tarjeta.url=" + stubs.validacionTarjeta().url());
+		comando.add("-jar");
+		// Misma ruta absoluta que en el entrenamiento: CDS descarta el archivo si cambia el classpath.
+		comando.add(JAR.toAbsolutePath().toString());
+
+		Path salida = Paths.get("target", "arranque-" + variante.replace('+', '-') + ".log");
+		long inicio = System.nanoTime();
+		Process proceso = new ProcessBuilder(comando)
+				.redirectErrorStream(true)
+				.redirectOutput(salida.toFile())
+				.start();
+		try {
+			HttpRequest pago = HttpRequest.newBuilder()
+					.uri(URI.create("http://127.0.0.1:" + puerto + "/v1/procesamiento-transaccion/procesar"))
+					.timeout(Duration.ofSeconds(30))
+					.header("Content-Type", "application/json")
+					.POST(HttpRequest.BodyPublishers.ofString(ProcesamientoCargaTest.CUERPO_PAGO))
+					.build();
+			long limite = inicio + ESPERA_MAXIMA.toNanos();
+			while (System.nanoTime() < limite) {
+				assertTrue(proceso.isAlive(),
+						"El proceso " + variante + " terminó antes del primer pago; ver " + salida);
+				try {
+					HttpResponse<String> respuesta = cliente.send(pago, HttpResponse.BodyHandlers.ofString());
+					if (respuesta.statusCode() == 201) {
+						return (System.nanoTime() - inicio) / 1_000_000;
+					}
+					log.debug("Variante {}: respuesta {} antes del primer pago", variante, respuesta.statusCode());
+				} catch (ConnectException e) {
+					// Tomcat aún no escucha
+				}
+				Thread.sleep(20);
+			}
+			throw new AssertionError("Sin primer pago en " + ESPERA_MAXIMA + " para " + variante + "; ver " + salida);
+		} finally {
+			proceso.destroy();
+			if (!proceso.waitFor(30, TimeUnit.SECONDS)) {
+				proceso.destroyForcibly().waitFor();
+			}
+		}
+	}
+
+	private static int puertoLibre() throws IOException {
+		try (ServerSocket socket = new ServerSocket(0)) {
+			return socket.getLocalPort();
+		}
+	}
+}
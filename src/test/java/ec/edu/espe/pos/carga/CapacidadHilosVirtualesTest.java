@@ -0,0 +1,112 @@
+package ec.edu.espe.pos.carga;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import ec.edu.espe.pos.PosApplication;
+import ec.edu.espe.pos.repository.ConfiguracionRepository;
+
+@EnabledIfSystemProperty(named = "pos.carga", matches = "true")
+class CapacidadHilosVirtualesTest {
+
+	private static final Logger log = LoggerFactory.getLogger(CapacidadHilosVirtualesTest.class);
+	private static final int HILOS_PLATAFORMA = 20;
+	private static final int PAGOS_SIMULTANEOS = 200;
+
+	private final HttpClient cliente = HttpClient.newHttpClient();
+
+	private record Resultado(int exitosos, int maximoEnCurso, long duracionMs) {
+	}
+
+	@Test
+	void pagosEnCursoSuperanElPoolDePlataforma() throws Exception {
+		// Misma carga y mismo server.tomcat.threads.max; con hilos virtuales Tomcat ignora ese límite.
+		Resultado plataforma = medir(false);
+		Resultado virtuales = medir(true);
+		log.info("Pool de plataforma {}: sin hilos virtuales {}, con hilos virtuales {}", HILOS_PLATAFORMA,
+				plataforma, virtuales);
+
+		assertEquals(PAGOS_SIMULTANEOS, plataforma.exitosos());
+		assertEquals(PAGOS_SIMULTANEOS, virtuales.exitosos());
+		assertTrue(plataforma.maximoEnCurso() <= HILOS_PLATAFORMA,
+				"La línea base superó el pool de plataforma: " + plataforma);
+		assertTrue(virtuales.maximoEnCurso() > HILOS_PLATAFORMA,
+				"Los pagos en curso no superaron el pool de plataforma: " + virtuales);
+		assertTrue(virtuales.duracionMs() * 2 < plataforma.duracionMs(),
+				"Los hilos virtuales no redujeron a la mitad la duración de la carga: " + plataforma + " vs "
+						+ virtuales);
+	}
+
+	private Resultado medir(boolean hilosVirtuales) throws Exception {
+		// La latencia del gateway mantiene cada pago en curso el tiempo suficiente para que se acumulen.
+		try (DependenciasRemotasStub stubs = new DependenciasRemotasStub(DistribucionLatencia.fija(500), 0.0,
+				DistribucionLatencia.fija(20), 0.0);
+				ConfigurableApplicationContext contexto = iniciar(stubs, hilosVirtuales)) {
+			ProcesamientoCargaTest.prepararConfiguracion(contexto.getBean(ConfiguracionRepository.class));
+			String puerto = contexto.getEnvironment().getProperty("local.server.port");
+			URI destino = URI.create("http://127.0.0.1:" + puerto + "/v1/procesamiento-transaccion/procesar");
+
+			ExecutorService ejecutor = Executors.newVirtualThreadPerTaskExecutor();
+			try {
+				long inicio = System.nanoTime();
+				List<Future<Integer>> resultados = new ArrayList<>();
+				for (int i = 0; i < PAGOS_SIMULTANEOS; i++) {
+					resultados.add(ejecutor.submit(() -> pagar(destino)));
+				}
+				int exitosos = 0;
+				for (Future<Integer> resultado : resultados) {
+					exitosos += resultado.get() == 201 ? 1 : 0;
+				}
+				long duracionMs = (System.nanoTime() - inicio) / 1_000_000;
+				return new Resultado(exitosos, stubs.gateway().maximoEnCurso(), duracionMs);
+			} finally {
+				ejecutor.shutdownNow();
+			}
+		}
+	}
+
+	private ConfigurableApplicationContext iniciar(DependenciasRemotasStub stubs, boolean hilosVirtuales) {
+		String base = hilosVirtuales ? "target/pos-hilos-virtuales.db" : "target/pos-hilos-plataforma.db";
+		return new SpringApplicationBuilder(PosApplication.class)
+				.properties(
+						"server.port=0",
+						"spring.datasource.url=jdbc:sqlite:" + base + "?journal_mode=WAL&busy_timeout=5000",
+						"spring.jpa.show-sql=false",
+						"spring.cloud.openfeign.client.config.default.logger-level=none",
+						"spring.threads.virtual.enabled=" + hilosVirtuales,
+						"server.tomcat.threads.max=" + HILOS_PLATAFORMA,
+						"pos.hilos-virtuales.diagnostico-fijacion.habilitado=" + hilosVirtuales,
+						"pos.gateway.lote.habilitado=false",
+						"pos.velocidad.habilitado=false",
+						"pos.barrido.habilitado=false",
+						"pos.gateway.url=" + stubs.gateway().url(),
+						"pos.validacion-tarjeta.url=" + stubs.validacionTarjeta().url())
+				.run();
+	}
+
+	private int pagar(URI destino) throws IOException, InterruptedException {
+		HttpRequest peticion = HttpRequest.newBuilder(destino)
+				.header("Content-Type", "application/json")
+				.POST(HttpRequest.BodyPublishers.ofString(ProcesamientoCargaTest.CUERPO_PAGO))
+				.build();
+		return cliente.send(peticion, HttpResponse.BodyHandlers.discarding()).statusCode();
+	}
+}
@@ -0,0 +1,73 @@
+package ec.edu.espe.pos.carga;
+
+import java.io.IOException;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+
+import org.springframework.test.context.DynamicPropertyRegistry;
+
+public class DependenciasRemotasStub implements AutoCloseable {
+
+	private static final ObjectMapper MAPPER = new ObjectMapper();
+
+	private final ServidorStub gateway;
+	private final ServidorStub validacionTarjeta;
+
+	public DependenciasRemotasStub(DistribucionLatencia latenciaGateway, double tasaErrorGateway,
+			DistribucionLatencia latenciaValidacion, double tasaErrorValidacion) throws IOException {
+		this.gateway = new ServidorStub()
+				.ruta("/v1/transacciones/sincronizar", latenciaGateway, tasaErrorGateway, 200,
+						"Transacción aceptada")
+				.ruta("/v1/transacciones/sincronizar-lote", latenciaGateway, tasaErrorGateway, 200,
+						DependenciasRemotasStub::aceptarLote)
+				.ruta("/v1/comercios/", latenciaGateway, tasaErrorGateway, 200, "{\"codigo\":1}")
+				.iniciar();
+		this.validacionTarjeta = new ServidorStub()
+				.ruta("/v1/tarjetas/validar", latenciaValidacion, tasaErrorValidacion, 200, "")
+				.iniciar();
+	}
+
+	public static DependenciasRemotasStub desdePropiedadesSistema() throws IOException {
+		return new DependenciasRemotasStub(
+				DistribucionLatencia.desdePropiedad(System.getProperty("pos.carga.latencia-gateway", "lognormal:20:0.5")),
+				Double.parseDouble(System.getProperty("pos.carga.error-gateway", "0.0")),
+				DistribucionLatencia.desdePropiedad(System.getProperty("pos.carga.latencia-validacion", "lognormal:10:0.5")),
+				Double.parseDouble(System.getProperty("pos.carga.error-validacion", "0.0")));
+	}
+
+	public void registrar(DynamicPropertyRegistry registro) {
+		registro.add("pos.gateway.url", gateway::url);
+		registro.add("pos.validacion-tarjeta.url", validacionTarjeta::url);
+	}
+
+	public ServidorStub gateway() {
+		return gateway;
+	}
+
+	public ServidorStub validacionTarjeta() {
+		return validacionTarjeta;
+	}
+
+	private static String aceptarLote(String peticion) {
+		try {
+			ArrayNode resultados = MAPPER.createArrayNode();
+			for (JsonNode transaccion : MAPPER.readTree(peticion)) {
+				resultados.addObject()
+						.put("codigoUnicoTransaccion", transaccion.path("codigoUnicoTransaccion").asText())
+						.put("status", 200)
+						.put("mensaje", "Transacción aceptada");
+			}
+			return MAPPER.writeValueAsString(resultados);
+		} catch (IOException e) {
+			throw new IllegalArgumentException(e);
+		}
+	}
+
+	@Override
+	public void close() {
+		gateway.close();
+		validacionTarjeta.close();
+	}
+}
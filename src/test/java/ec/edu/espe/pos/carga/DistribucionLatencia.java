@@ -0,0 +1,36 @@
+package ec.edu.espe.pos.carga;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+@FunctionalInterface
+public interface DistribucionLatencia {
+
+	long muestrearMs();
+
+	static DistribucionLatencia ninguna() {
+		return () -> 0L;
+	}
+
+	static DistribucionLatencia fija(long ms) {
+		return () -> ms;
+	}
+
+	static DistribucionLatencia uniforme(long minimoMs, long maximoMs) {
+		return () -> ThreadLocalRandom.current().nextLong(minimoMs, maximoMs + 1);
+	}
+
+	static DistribucionLatencia logNormal(double medianaMs, double sigma) {
+		double mu = Math.log(medianaMs);
+		return () -> Math.round(Math.exp(mu + sigma * ThreadLocalRandom.current().nextGaussian()));
+	}
+
+	static DistribucionLatencia desdePropiedad(String valor) {
+		String[] partes = valor.split(":");
+		return switch (partes[0]) {
+			case "fija" -> fija(Long.parseLong(partes[1]));
+			case "uniforme" -> uniforme(Long.parseLong(partes[1]), Long.parseLong(partes[2]));
+			case "lognormal" -> logNormal(Double.parseDouble(partes[1]), Double.parseDouble(partes[2]));
+			default -> ninguna();
+		};
+	}
+}
@@ -0,0 +1,72 @@
+package ec.edu.espe.pos.carga;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import ec.edu.espe.pos.PosApplication;
+import ec.edu.espe.pos.repository.ConfiguracionRepository;
+
+@EnabledIfSystemProperty(named = "pos.carga", matches = "true")
+class FragmentosCargaTest {
+
+	private static final Logger log = LoggerFactory.getLogger(FragmentosCargaTest.class);
+	private static final int[] CANTIDADES = { 1, 2, 4 };
+
+	@Test
+	void throughputSegunCantidadDeFragmentos() throws Exception {
+		int rps = Integer.getInteger("pos.carga.rps", 200);
+		Duration duracion = Duration.ofSeconds(Integer.getInteger("pos.carga.duracion-s", 20));
+
+		Map<Integer, GeneradorCarga.ResultadoCarga> resultados = new LinkedHashMap<>();
+		for (int cantidad : CANTIDADES) {
+			resultados.put(cantidad, medir(cantidad, rps, duracion));
+		}
+		resultados.forEach((cantidad, resultado) ->
+				log.info("Carga /procesar a {} rps con {} fragmentos: {}", rps, cantidad, resultado));
+
+		resultados.forEach((cantidad, resultado) -> assertTrue(resultado.exitosas() > 0,
+				cantidad + " fragmentos: " + resultado));
+	}
+
+	private GeneradorCarga.ResultadoCarga medir(int cantidad, int rps, Duration duracion) throws Exception {
+		// Gateway rápido: el límite lo pone la escritura en SQLite, que es lo que reparten los fragmentos.
+		try (DependenciasRemotasStub stubs = new DependenciasRemotasStub(DistribucionLatencia.fija(5), 0.0,
+				DistribucionLatencia.fija(5), 0.0);
+				ConfigurableApplicationContext contexto = iniciar(stubs, cantidad)) {
+			ProcesamientoCargaTest.prepararConfiguracion(contexto.getBean(ConfiguracionRepository.class));
+			String puerto = contexto.getEnvironment().getProperty("local.server.port");
+			return new GeneradorCarga().ejecutar(
+					URI.create("http://127.0.0.1:" + puerto + "/v1/procesamiento-transaccion/procesar"),
+					i -> ProcesamientoCargaTest.CUERPO_PAGO, rps, duracion);
+		}
+	}
+
+	private ConfigurableApplicationContext iniciar(DependenciasRemotasStub stubs, int cantidad) {
+		return new SpringApplicationBuilder(PosApplication.class)
+				.properties(
+						"server.port=0",
+						"spring.datasource.url=jdbc:sqlite:target/pos-carga-fragmentos-" + cantidad
+								+ ".db?journal_mode=WAL&busy_timeout=5000",
+						"spring.jpa.show-sql=false",
+						"spring.cloud.openfeign.client.config.default.logger-level=none",
+						"pos.fragmentos.cantidad=" + cantidad,
+						"pos.fragmentos.directorio=target/fragmentos-carga-" + cantidad,
+						"pos.gateway.lote.habilitado=false",
+						"pos.velocidad.habilitado=false",
+						"pos.barrido.habilitado=false",
+						"pos.gateway.url=" + stubs.gateway().url(),
+						"pos.validacion-tarjeta.url=" + stubs.validacionTarjeta().url())
+				.run();
+	}
+}
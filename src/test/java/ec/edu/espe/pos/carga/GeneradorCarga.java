@@ -0,0 +1,81 @@
+package ec.edu.espe.pos.carga;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.IntFunction;
+
+public class GeneradorCarga {
+
+	private final HttpClient cliente = HttpClient.newBuilder()
+			.executor(Executors.newVirtualThreadPerTaskExecutor())
+			.connectTimeout(Duration.ofSeconds(5))
+			.build();
+
+	public ResultadoCarga ejecutar(URI destino, IntFunction<String> cuerpo, int solicitudesPorSegundo,
+			Duration duracion) throws InterruptedException {
+		int total = (int) Math.max(1, solicitudesPorSegundo * duracion.toMillis() / 1000);
+		long periodoNanos = TimeUnit.SECONDS.toNanos(1) / solicitudesPorSegundo;
+		long[] latencias = new long[total];
+		AtomicInteger exitosas = new AtomicInteger();
+		AtomicInteger errores = new AtomicInteger();
+		CountDownLatch pendientes = new CountDownLatch(total);
+
+		long inicio = System.nanoTime();
+		for (int i = 0; i < total; i++) {
+			long programado = inicio + i * periodoNanos;
+			long espera = programado - System.nanoTime();
+			if (espera > 0) {
+				LockSupport.parkNanos(espera);
+			}
+			int indice = i;
+			HttpRequest peticion = HttpRequest.newBuilder(destino)
+					.timeout(Duration.ofSeconds(120))
+					.header("Content-Type", "application/json")
+					.POST(HttpRequest.BodyPublishers.ofString(cuerpo.apply(i)))
+					.build();
+			cliente.sendAsync(peticion, HttpResponse.BodyHandlers.discarding())
+					.whenComplete((respuesta, error) -> {
+						// Se mide desde el instante programado para no ocultar la espera en cola.
+						latencias[indice] = System.nanoTime() - programado;
+						if (error == null && respuesta.statusCode() < 300) {
+							exitosas.incrementAndGet();
+						} else {
+							errores.incrementAndGet();
+						}
+						pendientes.countDown();
+					});
+		}
+		pendientes.await(duracion.toSeconds() + 180, TimeUnit.SECONDS);
+		long transcurrido = System.nanoTime() - inicio;
+
+		long[] ordenadas = Arrays.copyOf(latencias, total);
+		Arrays.sort(ordenadas);
+		return new ResultadoCarga(total, exitosas.get(), errores.get(),
+				percentilMs(ordenadas, 0.50), percentilMs(ordenadas, 0.99),
+				(exitosas.get() + errores.get()) / (transcurrido / 1e9));
+	}
+
+	private static double percentilMs(long[] ordenadas, double percentil) {
+		int indice = (int) Math.min(ordenadas.length - 1, Math.ceil(percentil * ordenadas.length) - 1);
+		return ordenadas[Math.max(0, indice)] / 1e6;
+	}
+
+	public record ResultadoCarga(int enviadas, int exitosas, int errores, double p50Ms, double p99Ms,
+			double throughput) {
+
+		@Override
+		public String toString() {
+			return String.format("enviadas=%d exitosas=%d errores=%d p50=%.1fms p99=%.1fms throughput=%.1f/s",
+					enviadas, exitosas, errores, p50Ms, p99Ms, throughput);
+		}
+	}
+}
@@ -0,0 +1,83 @@
+package ec.edu.espe.pos.carga;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.net.URI;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import ec.edu.espe.pos.model.Configuracion;
+import ec.edu.espe.pos.model.ConfiguracionPK;
+import ec.edu.espe.pos.repository.ConfiguracionRepository;
+
+@EnabledIfSystemProperty(named = "pos.carga", matches = "true")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+		"spring.datasource.url=jdbc:sqlite:target/pos-carga.db?journal_mode=WAL&busy_timeout=5000",
+		"spring.jpa.show-sql=false",
+		"spring.cloud.openfeign.client.config.default.logger-level=none",
+		"pos.velocidad.habilitado=false"
+})
+class ProcesamientoCargaTest {
+
+	private static final Logger log = LoggerFactory.getLogger(ProcesamientoCargaTest.class);
+
+	static final String CUERPO_PAGO = "{\"monto\":10.00,\"marca\":\"VISA\",\"interesDiferido\":false,\"cuotas\":0,"
+			+ "\"datosTarjeta\":\"{\\\"cardNumber\\\":\\\"4111111111111111\\\",\\\"expiryDate\\\":\\\"12/30\\\","
+			+ "\\\"cvv\\\":\\\"123\\\"}\"}";
+
+	private static DependenciasRemotasStub stubs;
+
+	@LocalServerPort
+	private int puerto;
+
+	@Autowired
+	private ConfiguracionRepository configuracionRepository;
+
+	@DynamicPropertySource
+	static void propiedades(DynamicPropertyRegistry registro) throws IOException {
+		stubs = DependenciasRemotasStub.desdePropiedadesSistema();
+		stubs.registrar(registro);
+	}
+
+	@AfterAll
+	static void detenerStubs() {
+		stubs.close();
+	}
+
+	@BeforeEach
+	void prepararConfiguracion() {
+		prepararConfiguracion(configuracionRepository);
+	}
+
+	static void prepararConfiguracion(ConfiguracionRepository configuracionRepository) {
+		configuracionRepository.deleteAll();
+		configuracionRepository.save(new Configuracion(new ConfiguracionPK("POSCARGA01", "MOD01"),
+				"00:1A:2B:3C:4D:5E", 1, LocalDateTime.now().minusDays(1), null));
+	}
+
+	@Test
+	void procesarPagoATasaObjetivo() throws InterruptedException {
+		int rps = Integer.getInteger("pos.carga.rps", 50);
+		Duration duracion = Duration.ofSeconds(Integer.getInteger("pos.carga.duracion-s", 30));
+
+		GeneradorCarga.ResultadoCarga resultado = new GeneradorCarga().ejecutar(
+				URI.create("http://127.0.0.1:" + puerto + "/v1/procesamiento-transaccion/procesar"),
+				i -> CUERPO_PAGO, rps, duracion);
+
+		log.info("Carga /procesar a {} rps durante {}: {}", rps, duracion, resultado);
+		assertTrue(resultado.exitosas() > 0, resultado.toString());
+	}
+}
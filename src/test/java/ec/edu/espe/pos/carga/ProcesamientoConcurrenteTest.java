@@ -0,0 +1,113 @@
+package ec.edu.espe.pos.carga;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import ec.edu.espe.pos.repository.ConfiguracionRepository;
+
+@EnabledIfSystemProperty(named = "pos.carga", matches = "true")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+		"spring.datasource.url=jdbc:sqlite:target/pos-concurrente.db?journal_mode=WAL&busy_timeout=5000",
+		"spring.jpa.show-sql=false",
+		"spring.cloud.openfeign.client.config.default.logger-level=none",
+		"pos.velocidad.habilitado=false"
+})
+class ProcesamientoConcurrenteTest {
+
+	private static final Logger log = LoggerFactory.getLogger(ProcesamientoConcurrenteTest.class);
+	private static final int PAGOS_POR_TERMINAL = 20;
+
+	private static DependenciasRemotasStub stubs;
+
+	@LocalServerPort
+	private int puerto;
+
+	@Autowired
+	private ConfiguracionRepository configuracionRepository;
+
+	private final HttpClient cliente = HttpClient.newHttpClient();
+
+	@DynamicPropertySource
+	static void propiedades(DynamicPropertyRegistry registro) throws IOException {
+		stubs = new DependenciasRemotasStub(DistribucionLatencia.fija(50), 0.0, DistribucionLatencia.fija(20), 0.0);
+		stubs.registrar(registro);
+	}
+
+	@AfterAll
+	static void detenerStubs() {
+		stubs.close();
+	}
+
+	@BeforeEach
+	void prepararConfiguracion() {
+		ProcesamientoCargaTest.prepararConfiguracion(configuracionRepository);
+	}
+
+	@Test
+	void throughputEscalaConTerminalesParalelas() throws Exception {
+		double unaTerminal = medirThroughput(1);
+		double ochoTerminales = medirThroughput(8);
+
+		log.info("Pagos por segundo: 1 terminal={}, 8 terminales={}", unaTerminal, ochoTerminales);
+		assertTrue(ochoTerminales > unaTerminal * 4,
+				"El throughput no escala: 1 terminal=" + unaTerminal + ", 8 terminales=" + ochoTerminales);
+	}
+
+	private double medirThroughput(int terminales) throws Exception {
+		URI destino = URI.create("http://127.0.0.1:" + puerto + "/v1/procesamiento-transaccion/procesar");
+		ExecutorService ejecutor = Executors.newFixedThreadPool(terminales);
+		try {
+			long inicio = System.nanoTime();
+			List<Future<Integer>> resultados = new ArrayList<>();
+			for (int t = 0; t < terminales; t++) {
+				resultados.add(ejecutor.submit(() -> ejecutarTerminal(destino)));
+			}
+			int exitosos = 0;
+			for (Future<Integer> resultado : resultados) {
+				exitosos += resultado.get();
+			}
+			double segundos = (System.nanoTime() - inicio) / 1e9;
+			assertEquals(terminales * PAGOS_POR_TERMINAL, exitosos);
+			return exitosos / segundos;
+		} finally {
+			ejecutor.shutdownNow();
+		}
+	}
+
+	private int ejecutarTerminal(URI destino) throws IOException, InterruptedException {
+		int exitosos = 0;
+		for (int i = 0; i < PAGOS_POR_TERMINAL; i++) {
+			HttpRequest peticion = HttpRequest.newBuilder(destino)
+					.header("Content-Type", "application/json")
+					.POST(HttpRequest.BodyPublishers.ofString(ProcesamientoCargaTest.CUERPO_PAGO))
+					.build();
+			if (cliente.send(peticion, HttpResponse.BodyHandlers.discarding()).statusCode() == 201) {
+				exitosos++;
+			}
+		}
+		return exitosos;
+	}
+}
@@ -0,0 +1,107 @@
+package ec.edu.espe.pos.carga;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+public class ServidorStub implements AutoCloseable {
+
+	private final HttpServer servidor;
+	private final ExecutorService ejecutor = Executors.newVirtualThreadPerTaskExecutor();
+	private final AtomicLong solicitudes = new AtomicLong();
+	private final AtomicInteger enCurso = new AtomicInteger();
+	private final AtomicInteger maximoEnCurso = new AtomicInteger();
+	private volatile Headers ultimasCabeceras = new Headers();
+
+	public ServidorStub() throws IOException {
+		this.servidor = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		this.servidor.setExecutor(ejecutor);
+	}
+
+	public ServidorStub ruta(String prefijo, DistribucionLatencia latencia, double tasaError, int status,
+			String cuerpo) {
+		return ruta(prefijo, latencia, tasaError, status, peticion -> cuerpo);
+	}
+
+	public ServidorStub ruta(String prefijo, DistribucionLatencia latencia, double tasaError, int status,
+			Function<String, String> respuesta) {
+		servidor.createContext(prefijo, intercambio -> atender(intercambio, latencia, tasaError, status, respuesta));
+		return this;
+	}
+
+	public ServidorStub iniciar() {
+		servidor.start();
+		return this;
+	}
+
+	public String url() {
+		return "http://127.0.0.1:" + servidor.getAddress().getPort();
+	}
+
+	public long solicitudes() {
+		return solicitudes.get();
+	}
+
+	public int maximoEnCurso() {
+		return maximoEnCurso.get();
+	}
+
+	public String ultimaCabecera(String nombre) {
+		return ultimasCabeceras.getFirst(nombre);
+	}
+
+	@Override
+	public void close() {
+		servidor.stop(0);
+		ejecutor.shutdownNow();
+	}
+
+	private void atender(HttpExchange intercambio, DistribucionLatencia latencia, double tasaError, int status,
+			Function<String, String> respuesta) throws IOException {
+		solicitudes.incrementAndGet();
+		ultimasCabeceras = intercambio.getRequestHeaders();
+		maximoEnCurso.accumulateAndGet(enCurso.incrementAndGet(), Math::max);
+		try {
+			String peticion = new String(intercambio.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+			long espera = latencia.muestrearMs();
+			if (espera > 0) {
+				Thread.sleep(espera);
+			}
+			if (ThreadLocalRandom.current().nextDouble() < tasaError) {
+				responder(intercambio, 500, "{\"mensaje\":\"error simulado\"}");
+			} else {
+				responder(intercambio, status, respuesta.apply(peticion));
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			responder(intercambio, 503, "");
+		} finally {
+			enCurso.decrementAndGet();
+			intercambio.close();
+		}
+	}
+
+	private void responder(HttpExchange intercambio, int status, String cuerpo) throws IOException {
+		byte[] bytes = cuerpo.getBytes(StandardCharsets.UTF_8);
+		intercambio.getResponseHeaders().add("Content-Type", "application/json;charset=UTF-8");
+		if (bytes.length == 0) {
+			intercambio.sendResponseHeaders(status, -1);
+			return;
+		}
+		intercambio.sendResponseHeaders(status, bytes.length);
+		try (OutputStream salida = intercambio.getResponseBody()) {
+			salida.write(bytes);
+		}
+	}
+}
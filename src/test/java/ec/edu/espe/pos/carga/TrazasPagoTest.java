@@ -0,0 +1,122 @@
+package ec.edu.espe.pos.carga;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Bean;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import ec.edu.espe.pos.repository.ConfiguracionRepository;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.sdk.testing.exporter.InMemorySpanExporter;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.data.SpanData;
+
+@AutoConfigureObservability(metrics = false)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+		"spring.datasource.url=jdbc:sqlite:target/pos-trazas.db?journal_mode=WAL&busy_timeout=5000",
+		"spring.jpa.show-sql=false",
+		"spring.cloud.openfeign.client.config.default.logger-level=none",
+		"management.otlp.tracing.export.enabled=false",
+		"pos.velocidad.habilitado=false"
+})
+class TrazasPagoTest {
+
+	private static final AttributeKey<String> CODIGO = AttributeKey.stringKey("codigoUnicoTransaccion");
+
+	private static DependenciasRemotasStub stubs;
+
+	@LocalServerPort
+	private int puerto;
+
+	@Autowired
+	private ConfiguracionRepository configuracionRepository;
+
+	@Autowired
+	private InMemorySpanExporter exportador;
+
+	@Autowired
+	private SdkTracerProvider tracerProvider;
+
+	@TestConfiguration
+	static class ExportadorEnMemoria {
+
+		@Bean
+		InMemorySpanExporter exportadorEnMemoria() {
+			return InMemorySpanExporter.create();
+		}
+	}
+
+	@DynamicPropertySource
+	static void propiedades(DynamicPropertyRegistry registro) throws IOException {
+		stubs = new DependenciasRemotasStub(DistribucionLatencia.fija(5), 0.0, DistribucionLatencia.fija(5), 0.0);
+		stubs.registrar(registro);
+	}
+
+	@AfterAll
+	static void detenerStubs() {
+		stubs.close();
+	}
+
+	@BeforeEach
+	void preparar() {
+		ProcesamientoCargaTest.prepararConfiguracion(configuracionRepository);
+		exportador.reset();
+	}
+
+	@Test
+	void pagoDejaUnaTrazaConCadaEtapa() throws Exception {
+		HttpRequest peticion = HttpRequest.newBuilder(
+				URI.create("http://127.0.0.1:" + puerto + "/v1/procesamiento-transaccion/procesar"))
+				.header("Content-Type", "application/json")
+				.POST(HttpRequest.BodyPublishers.ofString(ProcesamientoCargaTest.CUERPO_PAGO))
+				.build();
+		assertEquals(201, HttpClient.newHttpClient()
+				.send(peticion, HttpResponse.BodyHandlers.discarding()).statusCode());
+		tracerProvider.forceFlush().join(5, TimeUnit.SECONDS);
+
+		List<SpanData> spans = exportador.getFinishedSpanItems();
+		SpanData crear = spans.stream()
+				.filter(span -> span.getName().equals("pos.transaccion.crear"))
+				.findFirst()
+				.orElseThrow();
+		String codigo = crear.getAttributes().get(CODIGO);
+		assertNotNull(codigo);
+		assertTrue(crear.getParentSpanContext().isValid(), "crear debe colgar del span HTTP de procesarPago");
+
+		List<SpanData> traza = spans.stream()
+				.filter(span -> span.getTraceId().equals(crear.getTraceId()))
+				.toList();
+		Set<String> etapas = traza.stream().map(SpanData::getName).collect(Collectors.toSet());
+		assertTrue(etapas.containsAll(Set.of("pos.tarjeta.validar", "pos.transaccion.guardar",
+				"pos.comercio.facturacion", "pos.gateway.sincronizar", "pos.transaccion.transicionar")),
+				"Etapas registradas: " + etapas);
+		assertTrue(traza.stream()
+				.filter(span -> span.getName().equals("pos.gateway.sincronizar"))
+				.allMatch(span -> codigo.equals(span.getAttributes().get(CODIGO))));
+
+		String traceparent = stubs.gateway().ultimaCabecera("traceparent");
+		assertNotNull(traceparent, "La llamada Feign al gateway no propagó la traza");
+		assertTrue(traceparent.contains(crear.getTraceId()));
+	}
+}
@@ -0,0 +1,146 @@
+package ec.edu.espe.pos.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import ec.edu.espe.pos.config.BalanceoProperties;
+import feign.Client;
+import feign.Request;
+import feign.RequestTemplate;
+import feign.Response;
+import feign.Target;
+
+class ClienteBalanceadoTest {
+
+	private static final Request.Options OPCIONES = new Request.Options(5, TimeUnit.SECONDS, 5, TimeUnit.SECONDS, true);
+	private static final String RAPIDA = "http://gateway-1:8080";
+	private static final String LENTA = "http://gateway-2:8080";
+
+	private final List<String> urls = new CopyOnWriteArrayList<>();
+
+	@Test
+	void sinInstanciasConfiguradasUsaLaUrlOriginal() throws Exception {
+		ClienteBalanceado cliente = new ClienteBalanceado(registrar(200, null, 0), new BalanceoProperties());
+
+		cliente.execute(peticion("/v1/transacciones/sincronizar"), OPCIONES);
+
+		assertEquals(List.of("http://gateway/v1/transacciones/sincronizar"), urls);
+	}
+
+	@Test
+	void redirigeConservandoLaRutaYLaConsulta() throws Exception {
+		ClienteBalanceado cliente = new ClienteBalanceado(registrar(200, null, 0), propiedades(List.of(RAPIDA)));
+
+		cliente.execute(peticion("/v1/transacciones/estado?codigo=TRX1"), OPCIONES);
+
+		assertEquals(List.of(RAPIDA + "/v1/transacciones/estado?codigo=TRX1"), urls);
+	}
+
+	@Test
+	void dosOpcionesPrefierenLaInstanciaMasRapida() throws Exception {
+		ClienteBalanceado cliente = new ClienteBalanceado(registrar(200, LENTA, 150), propiedades(List.of(RAPIDA, LENTA)));
+
+		for (int i = 0; i < 20; i++) {
+			cliente.execute(peticion("/v1/transacciones/sincronizar"), OPCIONES);
+		}
+
+		assertTrue(contar(LENTA) <= 1, "la instancia lenta recibió " + contar(LENTA) + " peticiones");
+		assertTrue(contar(RAPIDA) >= 19);
+	}
+
+	@Test
+	void expulsaLaInstanciaQueFallaYEnviaElTraficoALaOtra() throws Exception {
+		BalanceoProperties propiedades = propiedades(List.of(RAPIDA, LENTA));
+		propiedades.setFallosParaExpulsion(2);
+		propiedades.setExpulsionMs(60000);
+		Client fallaUna = (request, options) -> {
+			urls.add(request.url());
+			int estado = request.url().startsWith(LENTA) ? 503 : 200;
+			return Response.builder().status(estado).request(request).headers(Map.of()).build();
+		};
+		ClienteBalanceado cliente = new ClienteBalanceado(fallaUna, propiedades);
+
+		for (int i = 0; i < 20; i++) {
+			cliente.execute(peticion("/v1/transacciones/sincronizar"), OPCIONES);
+		}
+
+		assertTrue(contar(LENTA) <= 2, "la instancia fallida recibió " + contar(LENTA) + " peticiones");
+		assertTrue(urls.subList(urls.size() - 10, urls.size()).stream().allMatch(url -> url.startsWith(RAPIDA)));
+	}
+
+	@Test
+	void todasExpulsadasUsaLaPrimeraEnReingresar() throws Exception {
+		BalanceoProperties propiedades = propiedades(List.of(LENTA));
+		propiedades.setFallosParaExpulsion(1);
+		ClienteBalanceado cliente = new ClienteBalanceado(registrar(503, LENTA, 0), propiedades);
+
+		cliente.execute(peticion("/v1/transacciones/sincronizar"), OPCIONES);
+		cliente.execute(peticion("/v1/transacciones/sincronizar"), OPCIONES);
+
+		assertEquals(2, contar(LENTA));
+	}
+
+	@Test
+	void fallosConElPlazoVencidoNoExpulsanLaInstancia() {
+		BalanceoProperties propiedades = propiedades(List.of(RAPIDA, LENTA));
+		propiedades.setFallosParaExpulsion(1);
+		ClienteBalanceado cliente = new ClienteBalanceado((request, options) -> {
+			throw new SocketTimeoutException("Read timed out");
+		}, propiedades);
+
+		Plazo.establecer(0);
+		try {
+			for (int i = 0; i < 5; i++) {
+				assertThrows(SocketTimeoutException.class,
+						() -> cliente.execute(peticion("/v1/transacciones/sincronizar"), OPCIONES));
+			}
+		} finally {
+			Plazo.limpiar();
+		}
+
+		long ahora = System.currentTimeMillis();
+		assertTrue(cliente.instancias("gateway").stream().noneMatch(instancia -> instancia.estaExpulsada(ahora)));
+	}
+
+	private Client registrar(int estado, String lenta, long retrasoMs) {
+		return (request, options) -> {
+			urls.add(request.url());
+			if (lenta != null && request.url().startsWith(lenta) && retrasoMs > 0) {
+				try {
+					Thread.sleep(retrasoMs);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}
+			return Response.builder().status(estado).request(request).headers(Map.of()).build();
+		};
+	}
+
+	private long contar(String base) {
+		return urls.stream().filter(url -> url.startsWith(base)).count();
+	}
+
+	private static BalanceoProperties propiedades(List<String> instancias) {
+		BalanceoProperties propiedades = new BalanceoProperties();
+		propiedades.setInstancias(Map.of("gateway", instancias));
+		propiedades.setFactorEwma(1.0);
+		return propiedades;
+	}
+
+	private static Request peticion(String ruta) {
+		RequestTemplate plantilla = new RequestTemplate();
+		plantilla.feignTarget(new Target.HardCodedTarget<>(Object.class, "gateway", "http://gateway"));
+		return Request.create(Request.HttpMethod.POST, "http://gateway" + ruta, Map.of(), new byte[0],
+				StandardCharsets.UTF_8, plantilla);
+	}
+}
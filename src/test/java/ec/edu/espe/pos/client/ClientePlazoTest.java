@@ -0,0 +1,66 @@
+package ec.edu.espe.pos.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import ec.edu.espe.pos.exception.PlazoExcedidoException;
+import feign.Request;
+import feign.Response;
+
+class ClientePlazoTest {
+
+	private static final Request.Options OPCIONES = new Request.Options(60, TimeUnit.SECONDS, 60, TimeUnit.SECONDS, true);
+
+	private Request.Options recibidas;
+
+	private final ClientePlazo cliente = new ClientePlazo((request, options) -> {
+		recibidas = options;
+		return Response.builder().status(200).request(request).headers(Map.of()).build();
+	});
+
+	@AfterEach
+	void limpiarPlazo() {
+		Plazo.limpiar();
+	}
+
+	@Test
+	void sinPlazoConservaLosTiemposConfigurados() throws Exception {
+		cliente.execute(peticion(), OPCIONES);
+
+		assertSame(OPCIONES, recibidas);
+	}
+
+	@Test
+	void recortaLosTiemposAlPresupuestoRestante() throws Exception {
+		Plazo.establecer(500);
+
+		cliente.execute(peticion(), OPCIONES);
+
+		assertTrue(recibidas.readTimeoutMillis() <= 500);
+		assertTrue(recibidas.connectTimeoutMillis() <= 500);
+		assertEquals(OPCIONES.isFollowRedirects(), recibidas.isFollowRedirects());
+	}
+
+	@Test
+	void plazoVencidoNoLlegaAlServidor() {
+		Plazo.establecer(0);
+
+		assertThrows(PlazoExcedidoException.class, () -> cliente.execute(peticion(), OPCIONES));
+		assertNull(recibidas);
+	}
+
+	private static Request peticion() {
+		return Request.create(Request.HttpMethod.POST, "http://127.0.0.1/v1/transacciones/sincronizar",
+				Map.of(), new byte[0], StandardCharsets.UTF_8, null);
+	}
+}
@@ -0,0 +1,72 @@
+package ec.edu.espe.pos.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class InstanciaRemotaTest {
+
+	private final InstanciaRemota instancia = new InstanciaRemota("http://gateway-1:8080/");
+
+	@Test
+	void quitaLaBarraFinalDeLaUrl() {
+		assertEquals("http://gateway-1:8080", instancia.getUrl());
+	}
+
+	@Test
+	void latenciaEwmaPonderaLaUltimaMedicion() {
+		instancia.iniciar();
+		instancia.registrarExito(300, 0.5);
+
+		assertEquals(200.0, instancia.puntaje(0, 0), 0.001);
+
+		instancia.iniciar();
+		instancia.registrarExito(0, 0.5);
+
+		assertEquals(100.0, instancia.puntaje(0, 0), 0.001);
+	}
+
+	@Test
+	void peticionesEnCursoEncarecenLaInstancia() {
+		instancia.iniciar();
+		instancia.iniciar();
+
+		assertEquals(300.0, instancia.puntaje(0, 0), 0.001);
+	}
+
+	@Test
+	void seExpulsaTrasFallosConsecutivos() {
+		instancia.iniciar();
+		assertFalse(instancia.registrarFallo(10, 0.2, 2, 1000, 5000));
+		instancia.iniciar();
+		assertTrue(instancia.registrarFallo(10, 0.2, 2, 1000, 5000));
+
+		assertTrue(instancia.estaExpulsada(5999));
+		assertFalse(instancia.estaExpulsada(6000));
+		assertEquals(6000, instancia.getExpulsadaHasta());
+	}
+
+	@Test
+	void unExitoReiniciaLaCuentaDeFallos() {
+		instancia.iniciar();
+		instancia.registrarFallo(10, 0.2, 2, 1000, 5000);
+		instancia.iniciar();
+		instancia.registrarExito(10, 0.2);
+		instancia.iniciar();
+
+		assertFalse(instancia.registrarFallo(10, 0.2, 2, 1000, 5000));
+		assertFalse(instancia.estaExpulsada(5000));
+	}
+
+	@Test
+	void arranqueLentoAlReingresarTrasLaExpulsion() {
+		instancia.iniciar();
+		instancia.registrarFallo(10, 0.2, 1, 1000, 5000);
+
+		assertEquals(2000.0, instancia.puntaje(6000, 1000), 0.001);
+		assertEquals(200.0, instancia.puntaje(6500, 1000), 0.001);
+		assertEquals(100.0, instancia.puntaje(7000, 1000), 0.001);
+	}
+}
@@ -0,0 +1,78 @@
+package ec.edu.espe.pos.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import ec.edu.espe.pos.model.Transaccion;
+import ec.edu.espe.pos.repository.TransaccionRepository;
+import ec.edu.espe.pos.repository.TransicionesEstadoTransaccion;
+
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:sqlite:target/pos-fragmentos.db?journal_mode=WAL&busy_timeout=10000",
+		"spring.jpa.show-sql=false",
+		"pos.fragmentos.cantidad=3",
+		"pos.fragmentos.directorio=target/fragmentos-prueba",
+		"pos.barrido.habilitado=false"
+})
+class FragmentosConfigTest {
+
+	private static final String SQL_ESQUEMA = "SELECT type || ':' || name FROM sqlite_master "
+			+ "WHERE tbl_name = 'POS_TRANSACCION' AND sql IS NOT NULL ORDER BY type, name";
+
+	@Autowired
+	private TransaccionRepository transaccionRepository;
+
+	@Test
+	void cadaFragmentoRecibeElEsquemaDeLaBasePrincipal() {
+		List<String> principal = base("target/pos-fragmentos.db").queryForList(SQL_ESQUEMA, String.class);
+
+		assertTrue(principal.contains("table:POS_TRANSACCION"), principal.toString());
+		assertTrue(principal.stream().anyMatch(objeto -> objeto.startsWith("index:")), principal.toString());
+		for (int fragmento = 1; fragmento < 3; fragmento++) {
+			assertEquals(principal, fragmento(fragmento).queryForList(SQL_ESQUEMA, String.class));
+		}
+	}
+
+	@Test
+	void laTransaccionSeGuardaYSeLeeEnSuFragmento() {
+		String codigo = String.format("TRX%06d-2026-03-01-10-15-00-%012d",
+				ThreadLocalRandom.current().nextInt(1000000), 3);
+		Transaccion transaccion = new Transaccion();
+		transaccion.setTipo("PAG");
+		transaccion.setMarca("VISA");
+		transaccion.setModalidad("SIM");
+		transaccion.setDetalle("Transacción fragmentada");
+		transaccion.setMonto(new BigDecimal("8.00"));
+		transaccion.setCodigoUnicoTransaccion(codigo);
+		transaccion.setFecha(LocalDateTime.now());
+		transaccion.setEstado(TransicionesEstadoTransaccion.ESTADO_ENVIADO);
+		transaccion.setMoneda("USD");
+
+		transaccionRepository.save(transaccion);
+
+		String sql = "SELECT COUNT(*) FROM POS_TRANSACCION WHERE CODIGO_UNICO_TRANSACCION = ?";
+		assertEquals(1, fragmento(2).queryForObject(sql, Integer.class, codigo));
+		assertEquals(0, base("target/pos-fragmentos.db").queryForObject(sql, Integer.class, codigo));
+		assertFalse(transaccionRepository.findByCodigoUnicoTransaccion(codigo).isEmpty());
+	}
+
+	private static JdbcTemplate fragmento(int fragmento) {
+		return base("target/fragmentos-prueba/pos-fragmento-" + fragmento + ".db");
+	}
+
+	private static JdbcTemplate base(String archivo) {
+		return new JdbcTemplate(new DriverManagerDataSource("jdbc:sqlite:" + archivo + "?busy_timeout=10000"));
+	}
+}
@@ -0,0 +1,58 @@
+package ec.edu.espe.pos.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+class NormalizacionMacConfigTest {
+
+	private JdbcTemplate jdbcTemplate;
+
+	@BeforeEach
+	void crearTabla() {
+		jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource("jdbc:h2:mem:macs;DB_CLOSE_DELAY=-1"));
+		jdbcTemplate.execute("DROP TABLE IF EXISTS POS_CONFIGURACION");
+		jdbcTemplate.execute("CREATE TABLE POS_CONFIGURACION (CODIGO_POS VARCHAR(10), MODELO VARCHAR(10), "
+				+ "DIRECCION_MAC VARCHAR(32), CODIGO_COMERCIO INT, FECHA_ACTIVACION TIMESTAMP, "
+				+ "PRIMARY KEY (CODIGO_POS, MODELO))");
+	}
+
+	@Test
+	void normalizaLasDireccionesSinConflicto() {
+		jdbcTemplate.update("INSERT INTO POS_CONFIGURACION VALUES ('POS0000001', 'M1', 'aa-bb-cc-dd-ee-ff', 1, "
+				+ "TIMESTAMP '2024-01-01 00:00:00')");
+		jdbcTemplate.update("INSERT INTO POS_CONFIGURACION VALUES ('POS0000003', 'M1', '11:22:33:44:55:66', 1, "
+				+ "TIMESTAMP '2023-01-01 00:00:00')");
+
+		NormalizacionMacConfig.normalizar(jdbcTemplate);
+		NormalizacionMacConfig.normalizar(jdbcTemplate);
+
+		List<String> filas = jdbcTemplate.queryForList(
+				"SELECT CODIGO_POS || '=' || DIRECCION_MAC FROM POS_CONFIGURACION ORDER BY CODIGO_POS", String.class);
+		assertEquals(List.of("POS0000001=AA:BB:CC:DD:EE:FF", "POS0000003=11:22:33:44:55:66"), filas);
+	}
+
+	@Test
+	void macsRepetidasDetienenElArranqueSinBorrarFilas() {
+		jdbcTemplate.update("INSERT INTO POS_CONFIGURACION VALUES ('POS0000001', 'M1', 'aa-bb-cc-dd-ee-ff', 1, "
+				+ "TIMESTAMP '2024-01-01 00:00:00')");
+		jdbcTemplate.update("INSERT INTO POS_CONFIGURACION VALUES ('POS0000002', 'M2', 'AA:BB:CC:DD:EE:FF', 1, "
+				+ "TIMESTAMP '2023-01-01 00:00:00')");
+
+		IllegalStateException error = assertThrows(IllegalStateException.class,
+				() -> NormalizacionMacConfig.normalizar(jdbcTemplate));
+
+		assertTrue(error.getMessage().contains("POS0000001/M1"));
+		assertTrue(error.getMessage().contains("POS0000002/M2"));
+		List<String> filas = jdbcTemplate.queryForList(
+				"SELECT CODIGO_POS || '=' || DIRECCION_MAC FROM POS_CONFIGURACION ORDER BY CODIGO_POS", String.class);
+		assertEquals(List.of("POS0000001=aa-bb-cc-dd-ee-ff", "POS0000002=AA:BB:CC:DD:EE:FF"), filas);
+	}
+}
@@ -0,0 +1,142 @@
+package ec.edu.espe.pos.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+
+import ec.edu.espe.pos.model.Transaccion;
+
+class EnrutadorFragmentosTest {
+
+	private static final String CODIGO_F0 = "TRX000001-2026-03-01-10-15-00-000000000001";
+	private static final String CODIGO_F1 = "TRX000002-2026-03-01-10-15-00-000000000002";
+	private static final String CODIGO_F2 = "TRX000003-2026-03-01-10-15-00-000000000003";
+
+	private final FragmentosTransaccion fragmentos = new FragmentosTransaccion(3, 3, false);
+	private final Map<Integer, List<Transaccion>> guardadasPorFragmento = new ConcurrentHashMap<>();
+	private final List<String> llamadas = new CopyOnWriteArrayList<>();
+	private final TransaccionRepository repositorio = enrutado();
+
+	@AfterEach
+	void detener() {
+		fragmentos.detener();
+	}
+
+	@Test
+	void consultaPorCodigoVaAlFragmentoDelCodigo() {
+		repositorio.save(transaccion(CODIGO_F2));
+
+		Optional<Transaccion> encontrada = repositorio.findByCodigoUnicoTransaccion(CODIGO_F2);
+
+		assertTrue(encontrada.isPresent());
+		assertEquals(List.of("save@2", "findByCodigoUnicoTransaccion@2"), llamadas);
+		assertTrue(repositorio.findByCodigoUnicoTransaccion(CODIGO_F1).isEmpty());
+		assertEquals("findByCodigoUnicoTransaccion@1", llamadas.get(2));
+	}
+
+	@Test
+	void codigosSinFragmentoVanAlPrincipal() {
+		repositorio.save(transaccion("SRV-123"));
+		repositorio.existsByCodigoUnicoTransaccion("SRV-123");
+
+		assertEquals(List.of("save@0", "existsByCodigoUnicoTransaccion@0"), llamadas);
+	}
+
+	@Test
+	void saveAllSeRepartePorFragmento() {
+		List<Transaccion> guardadas = repositorio.saveAll(List.of(transaccion(CODIGO_F1), transaccion(CODIGO_F0),
+				transaccion(CODIGO_F1), transaccion(CODIGO_F2)));
+
+		assertEquals(4, guardadas.size());
+		assertEquals(3, llamadas.size());
+		assertTrue(llamadas.stream().allMatch(llamada -> llamada.startsWith("saveAll@")));
+		assertEquals(List.of(CODIGO_F0), codigos(0));
+		assertEquals(List.of(CODIGO_F1, CODIGO_F1), codigos(1));
+		assertEquals(List.of(CODIGO_F2), codigos(2));
+	}
+
+	@Test
+	void listasSeConsultanEnTodosLosFragmentosYSeUnen() {
+		repositorio.saveAll(List.of(transaccion(CODIGO_F2), transaccion(CODIGO_F0), transaccion(CODIGO_F1)));
+		llamadas.clear();
+
+		List<Transaccion> enviadas = repositorio.findByEstado(TransicionesEstadoTransaccion.ESTADO_ENVIADO);
+
+		assertEquals(List.of(CODIGO_F0, CODIGO_F1, CODIGO_F2),
+				enviadas.stream().map(Transaccion::getCodigoUnicoTransaccion).toList());
+		assertEquals(3, llamadas.size());
+		assertTrue(llamadas.containsAll(List.of("findByEstado@0", "findByEstado@1", "findByEstado@2")));
+	}
+
+	@Test
+	void dentroDeUnFragmentoNoSeVuelveAEnrutar() {
+		fragmentos.ejecutarEn(1, () -> repositorio.findByEstado(TransicionesEstadoTransaccion.ESTADO_ENVIADO));
+
+		assertEquals(List.of("findByEstado@1"), llamadas);
+	}
+
+	private List<String> codigos(int fragmento) {
+		return guardadasPorFragmento.getOrDefault(fragmento, List.of()).stream()
+				.map(Transaccion::getCodigoUnicoTransaccion)
+				.toList();
+	}
+
+	private static Transaccion transaccion(String codigo) {
+		Transaccion transaccion = new Transaccion();
+		transaccion.setCodigoUnicoTransaccion(codigo);
+		transaccion.setEstado(TransicionesEstadoTransaccion.ESTADO_ENVIADO);
+		return transaccion;
+	}
+
+	private TransaccionRepository enrutado() {
+		TransaccionRepository destino = repositorioEnMemoria();
+		ProxyFactory proxy = new ProxyFactory();
+		proxy.setTarget(destino);
+		proxy.addInterface(TransaccionRepository.class);
+		proxy.addAdvice(new EnrutadorFragmentos(destino, fragmentos));
+		return (TransaccionRepository) proxy.getProxy();
+	}
+
+	// Cada fragmento guarda sus filas por separado; el fragmento activo se lee del contexto.
+	@SuppressWarnings("unchecked")
+	private TransaccionRepository repositorioEnMemoria() {
+		return (TransaccionRepository) Proxy.newProxyInstance(getClass().getClassLoader(),
+				new Class<?>[] { TransaccionRepository.class }, (proxy, metodo, argumentos) -> {
+					Integer fragmento = ContextoFragmento.actual();
+					llamadas.add(metodo.getName() + "@" + fragmento);
+					List<Transaccion> filas = guardadasPorFragmento.computeIfAbsent(fragmento,
+							clave -> new CopyOnWriteArrayList<>());
+					switch (metodo.getName()) {
+						case "save":
+							filas.add((Transaccion) argumentos[0]);
+							return argumentos[0];
+						case "saveAll":
+							List<Transaccion> entidades = new ArrayList<>();
+							((Iterable<Transaccion>) argumentos[0]).forEach(entidades::add);
+							filas.addAll(entidades);
+							return entidades;
+						case "findByCodigoUnicoTransaccion":
+							return filas.stream()
+									.filter(t -> t.getCodigoUnicoTransaccion().equals(argumentos[0]))
+									.findFirst();
+						case "existsByCodigoUnicoTransaccion":
+							return filas.stream().anyMatch(t -> t.getCodigoUnicoTransaccion().equals(argumentos[0]));
+						case "findByEstado":
+							return filas.stream().filter(t -> t.getEstado().equals(argumentos[0])).toList();
+						default:
+							throw new UnsupportedOperationException(metodo.getName());
+					}
+				});
+	}
+}
@@ -0,0 +1,76 @@
+package ec.edu.espe.pos.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class FragmentosTransaccionTest {
+
+	private final FragmentosTransaccion fragmentos = new FragmentosTransaccion(3, 3, false);
+
+	@AfterEach
+	void detener() {
+		fragmentos.detener();
+	}
+
+	@Test
+	void codigosPreviosCorrespondenAlFragmentoPrincipal() {
+		assertEquals(0, fragmentos.fragmentoDeCodigo("TRX123456-2026-03-01-10-15-00-000000000001"));
+	}
+
+	@Test
+	void codigosNuevosLlevanSuFragmento() {
+		for (int fragmento = 0; fragmento < 3; fragmento++) {
+			String codigo = String.format("TRX123456-2026-03-01-10-15-00-%012d", fragmentos.campoCodigo(fragmento));
+			assertEquals(fragmento, fragmentos.fragmentoDeCodigo(codigo));
+		}
+		assertEquals(2, fragmentos.fragmentoPorPrefijo(123458));
+		assertEquals(2, fragmentos.fragmentoPorPrefijo(-1));
+	}
+
+	@Test
+	void codigosAjenosNoTienenFragmento() {
+		assertNull(fragmentos.fragmentoDeCodigo(null));
+		assertNull(fragmentos.fragmentoDeCodigo("SRV-123"));
+		assertNull(fragmentos.fragmentoDeCodigo("TRX123456-2026-03-01-10-15-00-000000000004"));
+		assertNull(fragmentos.fragmentoDeCodigo("TRX123456-2026-03-01-10-15-00-000000000000"));
+		assertNull(fragmentos.fragmentoDeCodigo("TRX123456"));
+	}
+
+	@Test
+	void agrupaPosicionesPorFragmento() {
+		Map<Integer, List<Integer>> grupos = fragmentos.agruparPorFragmento(List.of(
+				"TRX000001-2026-03-01-10-15-00-000000000002",
+				"SRV-123",
+				"TRX000002-2026-03-01-10-15-00-000000000001",
+				"TRX000003-2026-03-01-10-15-00-000000000003",
+				"TRX000004-2026-03-01-10-15-00-000000000002"));
+
+		assertEquals(Map.of(1, List.of(0, 4), 0, List.of(1, 2), 2, List.of(3)), grupos);
+	}
+
+	@Test
+	void consultarTodosUneLosResultadosEnOrdenDeFragmento() {
+		List<String> resultado = fragmentos.consultarTodos(fragmento -> List.of(
+				fragmento + ":" + ContextoFragmento.actual(), fragmento + ":fin"));
+
+		assertEquals(List.of("0:0", "0:fin", "1:1", "1:fin", "2:2", "2:fin"), resultado);
+		assertNull(ContextoFragmento.actual());
+	}
+
+	@Test
+	void ejecutarEnRestauraElFragmentoAnterior() {
+		fragmentos.ejecutarEn(1, () -> {
+			assertEquals(2, (int) fragmentos.ejecutarEn(2, ContextoFragmento::actual));
+			assertEquals(1, ContextoFragmento.actual());
+			return null;
+		});
+
+		assertNull(ContextoFragmento.actual());
+	}
+}
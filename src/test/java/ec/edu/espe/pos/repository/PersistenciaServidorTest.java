@@ -0,0 +1,62 @@
+package ec.edu.espe.pos.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import ec.edu.espe.pos.model.Transaccion;
+
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:pos-servidor;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+		"spring.datasource.username=sa",
+		"spring.datasource.password=",
+		"pos.barrido.habilitado=false"
+})
+@ActiveProfiles("servidor")
+class PersistenciaServidorTest {
+
+	private static final int TRANSACCIONES = 120;
+
+	@Autowired
+	private TransaccionRepository transaccionRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void asignaIdentificadoresDesdeSecuenciaAgrupada() {
+		List<Transaccion> transacciones = new ArrayList<>();
+		for (int i = 0; i < TRANSACCIONES; i++) {
+			Transaccion transaccion = new Transaccion();
+			transaccion.setTipo("PAG");
+			transaccion.setMarca("VISA");
+			transaccion.setModalidad("SIM");
+			transaccion.setDetalle("Prueba perfil servidor");
+			transaccion.setMonto(BigDecimal.ONE);
+			transaccion.setCodigoUnicoTransaccion("SRV-" + UUID.randomUUID());
+			transaccion.setFecha(LocalDateTime.now());
+			transaccion.setEstado(TransicionesEstadoTransaccion.ESTADO_ENVIADO);
+			transaccion.setMoneda("USD");
+			transacciones.add(transaccion);
+		}
+
+		Set<Integer> codigos = new HashSet<>();
+		transaccionRepository.saveAll(transacciones).forEach(t -> codigos.add(t.getCodigo()));
+
+		assertEquals(TRANSACCIONES, codigos.size());
+		assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM INFORMATION_SCHEMA.SEQUENCES "
+				+ "WHERE SEQUENCE_NAME = 'SEQ_POS_TRANSACCION'", Integer.class));
+	}
+}
@@ -0,0 +1,80 @@
+package ec.edu.espe.pos.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import ec.edu.espe.pos.model.Transaccion;
+
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:sqlite:target/pos-estados.db?journal_mode=WAL&busy_timeout=10000",
+		"spring.jpa.show-sql=false"
+})
+class TransicionEstadoConcurrenteTest {
+
+	private static final int TRANSACCIONES = 20;
+	private static final int CALLBACKS_POR_TRANSACCION = 16;
+
+	@Autowired
+	private TransaccionRepository transaccionRepository;
+
+	@Test
+	void soloUnCallbackConcurrenteFijaElEstadoFinal() throws Exception {
+		ExecutorService ejecutor = Executors.newFixedThreadPool(CALLBACKS_POR_TRANSACCION);
+		try {
+			for (int i = 0; i < TRANSACCIONES; i++) {
+				String codigo = crearTransaccionEnviada();
+				CountDownLatch salida = new CountDownLatch(1);
+				List<Future<String>> resultados = new ArrayList<>();
+				for (int c = 0; c < CALLBACKS_POR_TRANSACCION; c++) {
+					String estado = c % 2 == 0 ? TransicionesEstadoTransaccion.ESTADO_AUTORIZADO
+							: TransicionesEstadoTransaccion.ESTADO_RECHAZADO;
+					resultados.add(ejecutor.submit(() -> {
+						salida.await();
+						return transaccionRepository.transicionarEstado(codigo, estado, "callback " + estado)
+								? estado : null;
+					}));
+				}
+				salida.countDown();
+
+				List<String> ganadores = new ArrayList<>();
+				for (Future<String> resultado : resultados) {
+					if (resultado.get() != null) {
+						ganadores.add(resultado.get());
+					}
+				}
+				assertEquals(1, ganadores.size(), "Más de una transición aplicada para " + codigo);
+				assertEquals(ganadores.get(0),
+						transaccionRepository.findEstadoByCodigoUnicoTransaccion(codigo).orElseThrow());
+			}
+		} finally {
+			ejecutor.shutdownNow();
+		}
+	}
+
+	private String crearTransaccionEnviada() {
+		Transaccion transaccion = new Transaccion();
+		transaccion.setTipo("PAG");
+		transaccion.setMarca("VISA");
+		transaccion.setModalidad("SIM");
+		transaccion.setDetalle("Prueba de concurrencia");
+		transaccion.setMonto(BigDecimal.TEN);
+		transaccion.setCodigoUnicoTransaccion("TST-" + UUID.randomUUID());
+		transaccion.setFecha(LocalDateTime.now());
+		transaccion.setEstado(TransicionesEstadoTransaccion.ESTADO_ENVIADO);
+		transaccion.setMoneda("USD");
+		return transaccionRepository.save(transaccion).getCodigoUnicoTransaccion();
+	}
+}
@@ -0,0 +1,121 @@
+package ec.edu.espe.pos.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+
+import ec.edu.espe.pos.controller.dto.ActualizacionEstadoDTO;
+import ec.edu.espe.pos.controller.dto.ResultadoActualizacionDTO;
+import ec.edu.espe.pos.model.Transaccion;
+import ec.edu.espe.pos.repository.TransaccionRepository;
+import ec.edu.espe.pos.repository.TransicionesEstadoTransaccion;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+		"spring.datasource.url=jdbc:sqlite:target/pos-lote-estados.db?journal_mode=WAL&busy_timeout=10000",
+		"spring.jpa.show-sql=false",
+		"pos.barrido.habilitado=false"
+})
+class ActualizacionEstadoLoteTest {
+
+	private static final String LOTE = "/v1/transacciones/actualizar-estado/lote";
+
+	@Autowired
+	private TestRestTemplate restTemplate;
+
+	@Autowired
+	private TransaccionRepository transaccionRepository;
+
+	@Test
+	void loteInformaElResultadoDeCadaActualizacionEnOrden() {
+		String enviada = crearTransaccion(TransicionesEstadoTransaccion.ESTADO_ENVIADO);
+		String rechazada = crearTransaccion(TransicionesEstadoTransaccion.ESTADO_RECHAZADO);
+
+		List<String> resultados = enviar(List.of(
+				actualizacion(enviada, "AUT", "Aprobada"),
+				actualizacion(rechazada, "AUT", "Aprobada"),
+				actualizacion("TST-inexistente", "AUT", "Aprobada"),
+				actualizacion(enviada, "ENV", "Enviada")));
+
+		assertEquals(List.of(ResultadoActualizacionDTO.ACTUALIZADA, ResultadoActualizacionDTO.TRANSICION_INVALIDA,
+				ResultadoActualizacionDTO.NO_ENCONTRADA, ResultadoActualizacionDTO.DATOS_INVALIDOS), resultados);
+		assertEquals("AUT", transaccionRepository.findEstadoByCodigoUnicoTransaccion(enviada).orElseThrow());
+	}
+
+	@Test
+	void reenvioDelMismoCallbackDevuelveSinCambios() {
+		String codigo = crearTransaccion(TransicionesEstadoTransaccion.ESTADO_ENVIADO);
+		List<ActualizacionEstadoDTO> lote = List.of(actualizacion(codigo, "AUT", "Aprobada"));
+
+		assertEquals(ResultadoActualizacionDTO.ACTUALIZADA, enviar(lote).get(0));
+		assertEquals(ResultadoActualizacionDTO.SIN_CAMBIOS, enviar(lote).get(0));
+		assertEquals("AUT", transaccionRepository.findEstadoByCodigoUnicoTransaccion(codigo).orElseThrow());
+	}
+
+	@Test
+	void duplicadoDentroDelMismoLoteSeAplicaUnaSolaVez() {
+		String codigo = crearTransaccion(TransicionesEstadoTransaccion.ESTADO_ENVIADO);
+
+		List<String> resultados = enviar(List.of(
+				actualizacion(codigo, "REC", "Fondos insuficientes"),
+				actualizacion(codigo, "REC", "Fondos insuficientes")));
+
+		assertEquals(List.of(ResultadoActualizacionDTO.ACTUALIZADA, ResultadoActualizacionDTO.SIN_CAMBIOS),
+				resultados);
+		assertEquals("REC", transaccionRepository.findEstadoByCodigoUnicoTransaccion(codigo).orElseThrow());
+	}
+
+	@Test
+	void mensajeNuloSeAceptaComoEnElCallbackIndividual() {
+		String codigo = crearTransaccion(TransicionesEstadoTransaccion.ESTADO_ENVIADO);
+
+		List<String> resultados = enviar(List.of(actualizacion(codigo, "AUT", null)));
+
+		assertEquals(List.of(ResultadoActualizacionDTO.ACTUALIZADA), resultados);
+		Transaccion transaccion = transaccionRepository.findByCodigoUnicoTransaccion(codigo).orElseThrow();
+		assertEquals("AUT", transaccion.getEstado());
+		assertEquals("Prueba de lote", transaccion.getDetalle());
+	}
+
+	private List<String> enviar(List<ActualizacionEstadoDTO> lote) {
+		ResponseEntity<List<Map<String, String>>> respuesta = restTemplate.exchange(LOTE, HttpMethod.PUT,
+				new HttpEntity<>(lote), new ParameterizedTypeReference<List<Map<String, String>>>() {
+				});
+		assertEquals(200, respuesta.getStatusCode().value());
+		return respuesta.getBody().stream().map(resultado -> resultado.get("resultado")).toList();
+	}
+
+	private static ActualizacionEstadoDTO actualizacion(String codigo, String estado, String mensaje) {
+		ActualizacionEstadoDTO actualizacion = new ActualizacionEstadoDTO();
+		actualizacion.setCodigoUnicoTransaccion(codigo);
+		actualizacion.setEstado(estado);
+		actualizacion.setMensaje(mensaje);
+		return actualizacion;
+	}
+
+	private String crearTransaccion(String estado) {
+		Transaccion transaccion = new Transaccion();
+		transaccion.setTipo("PAG");
+		transaccion.setMarca("VISA");
+		transaccion.setModalidad("SIM");
+		transaccion.setDetalle("Prueba de lote");
+		transaccion.setMonto(BigDecimal.TEN);
+		transaccion.setCodigoUnicoTransaccion("TST-" + UUID.randomUUID());
+		transaccion.setFecha(LocalDateTime.now());
+		transaccion.setEstado(estado);
+		transaccion.setMoneda("USD");
+		return transaccionRepository.save(transaccion).getCodigoUnicoTransaccion();
+	}
+}
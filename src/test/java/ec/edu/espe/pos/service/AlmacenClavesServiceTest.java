@@ -0,0 +1,121 @@
+package ec.edu.espe.pos.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+import java.util.Optional;
+
+import javax.crypto.SecretKey;
+
+import org.junit.jupiter.api.Test;
+
+import ec.edu.espe.pos.model.SeguridadGateway;
+import ec.edu.espe.pos.model.SeguridadMarca;
+import ec.edu.espe.pos.repository.SeguridadGatewayRepository;
+import ec.edu.espe.pos.repository.SeguridadMarcaRepository;
+
+class AlmacenClavesServiceTest {
+
+	private static final byte[] LLAVE_AES = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+
+	private String claveGateway = "gateway-1";
+	private List<SeguridadMarca> marcas = List.of(marca("VISA", "clave-visa"));
+	private RuntimeException fallo;
+
+	private final AlmacenClavesService almacen = new AlmacenClavesService(repositorioGateway(), repositorioMarcas());
+
+	@Test
+	void recargaReemplazaLaInstantaneaCompleta() {
+		almacen.recargar();
+
+		claveGateway = "gateway-2";
+		marcas = List.of(marca("MAST", "clave-mast"));
+		almacen.recargar();
+
+		assertEquals(Optional.of("gateway-2"), almacen.obtenerClaveGateway());
+		assertTrue(almacen.obtenerClaveMarca("VISA").isEmpty());
+		assertEquals(Optional.of("clave-mast"), almacen.obtenerClaveMarca("MAST"));
+		assertTrue(almacen.obtenerLlaveMarca("VISA").isEmpty());
+		assertTrue(almacen.obtenerLlaveMarca("MAST").isPresent());
+	}
+
+	@Test
+	void recargaFallidaConservaLaUltimaInstantanea() {
+		almacen.recargar();
+		SecretKey llave = almacen.obtenerLlaveMarca("VISA").orElseThrow();
+		LocalDateTime fechaCarga = almacen.obtenerFechaCarga();
+
+		claveGateway = "gateway-2";
+		fallo = new IllegalStateException("Base no disponible");
+		almacen.recargar();
+
+		assertEquals(Optional.of("gateway-1"), almacen.obtenerClaveGateway());
+		assertEquals(Optional.of("clave-visa"), almacen.obtenerClaveMarca("VISA"));
+		assertSame(llave, almacen.obtenerLlaveMarca("VISA").orElseThrow());
+		assertEquals(fechaCarga, almacen.obtenerFechaCarga());
+	}
+
+	@Test
+	void claveEnBase64ConLongitudAesSeUsaDirecta() {
+		marcas = List.of(marca("VISA", Base64.getEncoder().encodeToString(LLAVE_AES)));
+
+		almacen.recargar();
+
+		SecretKey llave = almacen.obtenerLlaveMarca("VISA").orElseThrow();
+		assertEquals("AES", llave.getAlgorithm());
+		assertArrayEquals(LLAVE_AES, llave.getEncoded());
+	}
+
+	@Test
+	void claveQueNoEsLlaveAesSeDerivaConSha256() throws Exception {
+		// Base64 válido de 5 bytes y texto que no es Base64: ambos pasan por SHA-256.
+		String corta = Base64.getEncoder().encodeToString("corta".getBytes(StandardCharsets.US_ASCII));
+		marcas = List.of(marca("VISA", corta), marca("MAST", "clave de marca*"));
+
+		almacen.recargar();
+
+		MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+		assertArrayEquals(sha256.digest(corta.getBytes(StandardCharsets.UTF_8)),
+				almacen.obtenerLlaveMarca("VISA").orElseThrow().getEncoded());
+		assertArrayEquals(sha256.digest("clave de marca*".getBytes(StandardCharsets.UTF_8)),
+				almacen.obtenerLlaveMarca("MAST").orElseThrow().getEncoded());
+	}
+
+	private SeguridadGatewayRepository repositorioGateway() {
+		return (SeguridadGatewayRepository) Proxy.newProxyInstance(getClass().getClassLoader(),
+				new Class<?>[] { SeguridadGatewayRepository.class }, (proxy, metodo, argumentos) -> {
+					if (!metodo.getName().equals(
+							"findFirstByEstadoAndFechaActivacionLessThanEqualOrderByFechaActualizacionDesc")) {
+						throw new UnsupportedOperationException(metodo.getName());
+					}
+					return Optional.ofNullable(claveGateway).map(clave -> new SeguridadGateway(1, clave,
+							LocalDateTime.now(), LocalDate.now(), AlmacenClavesService.ESTADO_ACTIVO));
+				});
+	}
+
+	private SeguridadMarcaRepository repositorioMarcas() {
+		return (SeguridadMarcaRepository) Proxy.newProxyInstance(getClass().getClassLoader(),
+				new Class<?>[] { SeguridadMarcaRepository.class }, (proxy, metodo, argumentos) -> {
+					if (!metodo.getName().equals("findAll") || metodo.getParameterCount() != 0) {
+						throw new UnsupportedOperationException(metodo.getName());
+					}
+					if (fallo != null) {
+						throw fallo;
+					}
+					return marcas;
+				});
+	}
+
+	private static SeguridadMarca marca(String marca, String clave) {
+		return new SeguridadMarca(marca, clave, LocalDateTime.now());
+	}
+}
@@ -0,0 +1,66 @@
+package ec.edu.espe.pos.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import ec.edu.espe.pos.controller.dto.EstadoTransaccionDTO;
+import ec.edu.espe.pos.model.Transaccion;
+import ec.edu.espe.pos.repository.TransaccionRepository;
+import ec.edu.espe.pos.repository.TransicionesEstadoTransaccion;
+
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:sqlite:target/pos-archivo.db?journal_mode=WAL&busy_timeout=10000",
+		"spring.jpa.show-sql=false",
+		"pos.archivo.habilitado=true",
+		"pos.archivo.dias-retencion=30",
+		"pos.archivo.directorio=target/archivo",
+		"pos.barrido.habilitado=false"
+})
+class ArchivoTransaccionesServiceTest {
+
+	@Autowired
+	private ArchivoTransaccionesService archivoTransaccionesService;
+
+	@Autowired
+	private TransaccionService transaccionService;
+
+	@Autowired
+	private TransaccionRepository transaccionRepository;
+
+	@Test
+	void transaccionArchivadaSeLeePorAmbasConsultas() {
+		LocalDateTime fecha = LocalDateTime.now().minusDays(60);
+		String codigo = String.format("TRX%06d-%d-%02d-%02d-%02d-%02d-%02d-%012d",
+				ThreadLocalRandom.current().nextInt(1000000), fecha.getYear(), fecha.getMonthValue(),
+				fecha.getDayOfMonth(), fecha.getHour(), fecha.getMinute(), fecha.getSecond(), 0);
+		Transaccion transaccion = new Transaccion();
+		transaccion.setTipo("PAG");
+		transaccion.setMarca("VISA");
+		transaccion.setModalidad("SIM");
+		transaccion.setDetalle("Transacción para archivar");
+		transaccion.setMonto(new BigDecimal("12.50"));
+		transaccion.setCodigoUnicoTransaccion(codigo);
+		transaccion.setFecha(fecha);
+		transaccion.setEstado(TransicionesEstadoTransaccion.ESTADO_AUTORIZADO);
+		transaccion.setMoneda("USD");
+		transaccionRepository.save(transaccion);
+
+		archivoTransaccionesService.archivar();
+
+		assertTrue(transaccionRepository.findByCodigoUnicoTransaccion(codigo).isEmpty());
+		Transaccion archivada = transaccionService.obtenerPorCodigoUnico(codigo);
+		assertEquals(TransicionesEstadoTransaccion.ESTADO_AUTORIZADO, archivada.getEstado());
+		assertEquals(0, new BigDecimal("12.50").compareTo(archivada.getMonto()));
+		EstadoTransaccionDTO estado = transaccionService.consultarEstado(codigo);
+		assertEquals(TransicionesEstadoTransaccion.ESTADO_AUTORIZADO, estado.getEstado());
+		assertEquals("Transacción para archivar", estado.getDetalle());
+	}
+}
@@ -0,0 +1,225 @@
+package ec.edu.espe.pos.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.reflect.Proxy;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.ResponseEntity;
+
+import ec.edu.espe.pos.client.GatewayTransaccionClient;
+import ec.edu.espe.pos.controller.dto.ActualizacionEstadoDTO;
+import ec.edu.espe.pos.controller.dto.GatewayTransaccionDTO;
+import ec.edu.espe.pos.controller.dto.ResultadoActualizacionDTO;
+import ec.edu.espe.pos.controller.dto.ResultadoSincronizacionDTO;
+import ec.edu.espe.pos.model.ControlProceso;
+import ec.edu.espe.pos.model.Transaccion;
+import ec.edu.espe.pos.repository.ContextoFragmento;
+import ec.edu.espe.pos.repository.ControlProcesoRepository;
+import ec.edu.espe.pos.repository.FragmentosTransaccion;
+import ec.edu.espe.pos.repository.TransaccionRepository;
+import ec.edu.espe.pos.repository.TransicionesEstadoTransaccion;
+
+class BarridoTransaccionesServiceTest {
+
+	private static final int TAMANO_LOTE = 2;
+
+	private final Map<Integer, List<Transaccion>> enviadasPorFragmento = new HashMap<>();
+	private final Map<String, Integer> puntosControl = new HashMap<>();
+	private final List<String> guardados = new ArrayList<>();
+	private final GatewayStub gateway = new GatewayStub();
+	private final Map<String, String> confirmadas = new ConcurrentHashMap<>();
+	private final List<String> reversadas = new CopyOnWriteArrayList<>();
+	private BarridoTransaccionesService barrido;
+
+	@AfterEach
+	void detener() {
+		if (barrido != null) {
+			barrido.detener();
+		}
+	}
+
+	@Test
+	void confirmaAutorizadasYRechazadasYSoloReversaLasDesconocidas() {
+		barrido = barrido(1);
+		enviadas(0, "TRX-A", "TRX-R", "TRX-D", "TRX-P");
+		gateway.estados.put("TRX-A", TransicionesEstadoTransaccion.ESTADO_AUTORIZADO);
+		gateway.estados.put("TRX-R", TransicionesEstadoTransaccion.ESTADO_RECHAZADO);
+		gateway.estados.put("TRX-D", ResultadoActualizacionDTO.NO_ENCONTRADA);
+		gateway.estados.put("TRX-P", TransicionesEstadoTransaccion.ESTADO_ENVIADO);
+
+		barrido.barrer();
+
+		assertEquals(Map.of("TRX-A", "AUT", "TRX-R", "REC"), confirmadas);
+		assertEquals(List.of("TRX-D"), reversadas);
+	}
+
+	@Test
+	void sinRespuestaDelGatewayNoSeReversaNiAvanzaElPuntoDeControl() {
+		barrido = barrido(1);
+		enviadas(0, "TRX-1", "TRX-2", "TRX-3", "TRX-4");
+		gateway.estados.put("TRX-1", ResultadoActualizacionDTO.NO_ENCONTRADA);
+		gateway.estados.put("TRX-3", ResultadoActualizacionDTO.NO_ENCONTRADA);
+		gateway.fallan.add("TRX-3");
+
+		barrido.barrer();
+
+		// El primer lote (códigos 1 y 2) quedó revisado; el segundo se reintenta desde el código 2.
+		assertEquals(List.of("TRX-1"), reversadas);
+		assertEquals(2, puntosControl.get("BARRIDO_ENV"));
+		assertEquals(List.of("BARRIDO_ENV=2"), guardados);
+
+		gateway.fallan.clear();
+		barrido.barrer();
+
+		assertEquals(List.of(List.of("TRX-1", "TRX-2"), List.of("TRX-3", "TRX-4"), List.of("TRX-3", "TRX-4")),
+				gateway.consultas);
+		assertEquals(List.of("TRX-1", "TRX-3"), reversadas);
+	}
+
+	@Test
+	void pasadaCompletaReiniciaElPuntoDeControl() {
+		barrido = barrido(1);
+		enviadas(0, "TRX-1", "TRX-2", "TRX-3");
+
+		barrido.barrer();
+
+		assertEquals(List.of("BARRIDO_ENV=2", "BARRIDO_ENV=3", "BARRIDO_ENV=0"), guardados);
+		assertEquals(0, puntosControl.get("BARRIDO_ENV"));
+	}
+
+	@Test
+	void cadaFragmentoLlevaSuPropioPuntoDeControl() {
+		barrido = barrido(2);
+		// Los códigos internos se repiten entre fragmentos.
+		enviadas(0, "TRX-F0-1", "TRX-F0-2", "TRX-F0-3");
+		enviadas(1, "TRX-F1-1", "TRX-F1-2", "TRX-F1-3");
+		gateway.fallan.add("TRX-F1-3");
+
+		barrido.barrer();
+
+		assertEquals(0, puntosControl.get("BARRIDO_ENV"));
+		assertEquals(2, puntosControl.get("BARRIDO_ENV_F1"));
+
+		gateway.fallan.clear();
+		barrido.barrer();
+
+		assertEquals(List.of("TRX-F1-3"), gateway.consultas.get(gateway.consultas.size() - 1));
+		assertEquals(0, puntosControl.get("BARRIDO_ENV_F1"));
+		assertTrue(gateway.consultas.contains(List.of("TRX-F0-1", "TRX-F0-2")));
+	}
+
+	private BarridoTransaccionesService barrido(int fragmentos) {
+		return new BarridoTransaccionesService(repositorioTransacciones(), repositorioPuntosControl(), gateway,
+				transaccionService(), new FragmentosTransaccion(fragmentos, 1, false), true, 10, TAMANO_LOTE, 2,
+				false);
+	}
+
+	private void enviadas(int fragmento, String... codigos) {
+		List<Transaccion> transacciones = enviadasPorFragmento.computeIfAbsent(fragmento, clave -> new ArrayList<>());
+		for (String codigo : codigos) {
+			Transaccion transaccion = new Transaccion();
+			transaccion.setCodigo(transacciones.size() + 1);
+			transaccion.setCodigoUnicoTransaccion(codigo);
+			transaccion.setEstado(TransicionesEstadoTransaccion.ESTADO_ENVIADO);
+			transaccion.setFecha(LocalDateTime.now().minusHours(1));
+			transacciones.add(transaccion);
+		}
+	}
+
+	private TransaccionRepository repositorioTransacciones() {
+		return (TransaccionRepository) Proxy.newProxyInstance(getClass().getClassLoader(),
+				new Class<?>[] { TransaccionRepository.class }, (proxy, metodo, argumentos) -> {
+					if (!metodo.getName().equals("findByEstadoAndFechaBeforeAndCodigoGreaterThanOrderByCodigoAsc")) {
+						throw new UnsupportedOperationException(metodo.getName());
+					}
+					Integer fragmento = ContextoFragmento.actual();
+					int desde = (Integer) argumentos[2];
+					return enviadasPorFragmento.getOrDefault(fragmento == null ? 0 : fragmento, List.of()).stream()
+							.filter(transaccion -> transaccion.getCodigo() > desde)
+							.limit(((Pageable) argumentos[3]).getPageSize())
+							.toList();
+				});
+	}
+
+	private ControlProcesoRepository repositorioPuntosControl() {
+		return (ControlProcesoRepository) Proxy.newProxyInstance(getClass().getClassLoader(),
+				new Class<?>[] { ControlProcesoRepository.class }, (proxy, metodo, argumentos) -> {
+					switch (metodo.getName()) {
+						case "findById":
+							String nombre = (String) argumentos[0];
+							return Optional.ofNullable(puntosControl.get(nombre))
+									.map(ultimo -> new ControlProceso(nombre, ultimo, LocalDateTime.now()));
+						case "save":
+							ControlProceso control = (ControlProceso) argumentos[0];
+							puntosControl.put(control.getNombre(), control.getUltimoCodigo());
+							guardados.add(control.getNombre() + "=" + control.getUltimoCodigo());
+							return control;
+						default:
+							throw new UnsupportedOperationException(metodo.getName());
+					}
+				});
+	}
+
+	private TransaccionService transaccionService() {
+		return new TransaccionService(null, null, null, null, null, null, null, null, null, null, null, null, null,
+				null, null, null, null) {
+			@Override
+			public void actualizarEstadoTransaccion(ActualizacionEstadoDTO actualizacion) {
+				confirmadas.put(actualizacion.getCodigoUnicoTransaccion(), actualizacion.getEstado());
+			}
+
+			@Override
+			public boolean reversarTransaccion(Transaccion transaccion) {
+				reversadas.add(transaccion.getCodigoUnicoTransaccion());
+				return true;
+			}
+		};
+	}
+
+	private static final class GatewayStub implements GatewayTransaccionClient {
+
+		private final Map<String, String> estados = new HashMap<>();
+		private final Set<String> fallan = new HashSet<>();
+		private final List<List<String>> consultas = new ArrayList<>();
+
+		@Override
+		public List<ActualizacionEstadoDTO> consultarEstados(List<String> codigos) {
+			consultas.add(List.copyOf(codigos));
+			if (codigos.stream().anyMatch(fallan::contains)) {
+				throw new IllegalStateException("Gateway no disponible");
+			}
+			List<ActualizacionEstadoDTO> respuesta = new ArrayList<>();
+			for (String codigo : codigos) {
+				ActualizacionEstadoDTO estado = new ActualizacionEstadoDTO();
+				estado.setCodigoUnicoTransaccion(codigo);
+				estado.setEstado(estados.get(codigo));
+				respuesta.add(estado);
+			}
+			return respuesta;
+		}
+
+		@Override
+		public ResponseEntity<String> sincronizarTransaccion(GatewayTransaccionDTO transaccion) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public List<ResultadoSincronizacionDTO> sincronizarLote(List<GatewayTransaccionDTO> transacciones) {
+			throw new UnsupportedOperationException();
+		}
+	}
+}
@@ -0,0 +1,55 @@
+package ec.edu.espe.pos.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import org.junit.jupiter.api.Test;
+
+import ec.edu.espe.pos.controller.dto.EstadoTransaccionDTO;
+
+class CacheEstadosFinalesServiceTest {
+
+	private final CacheEstadosFinalesService cache = new CacheEstadosFinalesService(2);
+
+	@Test
+	void desalojaElMasAntiguoAlSuperarLaCapacidad() {
+		cache.registrar(estado("TRX1"));
+		cache.registrar(estado("TRX2"));
+		cache.registrar(estado("TRX3"));
+
+		assertEquals(2, cache.tamano());
+		assertNull(cache.obtener("TRX1"));
+		assertNotNull(cache.obtener("TRX2"));
+		assertNotNull(cache.obtener("TRX3"));
+	}
+
+	@Test
+	void registroRepetidoNoOcupaOtraPosicion() {
+		cache.registrar(estado("TRX1"));
+		cache.registrar(estado("TRX1"));
+		cache.registrar(estado("TRX2"));
+
+		assertEquals(2, cache.tamano());
+		assertNotNull(cache.obtener("TRX1"));
+	}
+
+	@Test
+	void codigoInvalidadoQueReingresaNoSeDesalojaPorSuEntradaAnterior() {
+		cache.registrar(estado("TRX1"));
+		cache.registrar(estado("TRX2"));
+		cache.invalidar("TRX1");
+		cache.registrar(estado("TRX1"));
+
+		cache.registrar(estado("TRX3"));
+
+		assertEquals(2, cache.tamano());
+		assertNull(cache.obtener("TRX2"));
+		assertNotNull(cache.obtener("TRX1"));
+		assertNotNull(cache.obtener("TRX3"));
+	}
+
+	private static EstadoTransaccionDTO estado(String codigo) {
+		return EstadoTransaccionDTO.builder().codigoUnicoTransaccion(codigo).estado("AUT").detalle("Aprobada").build();
+	}
+}
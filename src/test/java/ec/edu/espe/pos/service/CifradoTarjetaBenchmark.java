@@ -0,0 +1,90 @@
+package ec.edu.espe.pos.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class CifradoTarjetaBenchmark {
+
+	private static final SecretKey LLAVE = new SecretKeySpec(new byte[32], "AES");
+	private static final byte[] TARJETA = "{\"numero\":\"4111111111111111\",\"cvv\":\"123\"}"
+			.getBytes(StandardCharsets.UTF_8);
+	private static final byte[] CODIGO = "TRX000001-2026-03-01-10-15-00-000000000001".getBytes(StandardCharsets.UTF_8);
+	private static final ThreadLocal<Cipher> CIFRADORES = ThreadLocal.withInitial(CifradoTarjetaBenchmark::crear);
+
+	private final SecureRandom aleatorio = new SecureRandom();
+	private final CifradoTarjetaService servicio = new CifradoTarjetaService(new AlmacenClavesService(null, null) {
+		@Override
+		public Optional<SecretKey> obtenerLlaveMarca(String marca) {
+			return Optional.of(LLAVE);
+		}
+	}, true);
+
+	@Benchmark
+	public byte[] cifradorPorLlamada() throws Exception {
+		return cifrar(crear());
+	}
+
+	@Benchmark
+	public byte[] cifradorPorHilo() throws Exception {
+		return cifrar(CIFRADORES.get());
+	}
+
+	// Los hilos de JMH son de plataforma: proteger() usa el Cipher del hilo.
+	@Benchmark
+	public String proteger() {
+		return servicio.proteger("VISA", "TRX000001-2026-03-01-10-15-00-000000000001", "4111111111111111");
+	}
+
+	private byte[] cifrar(Cipher cifrador) throws Exception {
+		byte[] iv = new byte[12];
+		aleatorio.nextBytes(iv);
+		cifrador.init(Cipher.ENCRYPT_MODE, LLAVE, new GCMParameterSpec(128, iv));
+		cifrador.updateAAD(CODIGO);
+		return cifrador.doFinal(TARJETA);
+	}
+
+	private static Cipher crear() {
+		try {
+			return Cipher.getInstance("AES/GCM/NoPadding");
+		} catch (Exception e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	@Test
+	@EnabledIfSystemProperty(named = "pos.benchmark", matches = "true")
+	void ejecutar() throws Exception {
+		new Runner(new OptionsBuilder()
+				.include(CifradoTarjetaBenchmark.class.getSimpleName())
+				.build()).run();
+	}
+}
@@ -0,0 +1,100 @@
+package ec.edu.espe.pos.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.Optional;
+
+import javax.crypto.AEADBadTagException;
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+class CifradoTarjetaServiceTest {
+
+	private static final SecretKey LLAVE_VISA = new SecretKeySpec(new byte[32], "AES");
+	private static final String TARJETA = "{\"numero\":\"4111111111111111\",\"cvv\":\"123\"}";
+
+	private final List<byte[]> generados = new ArrayList<>();
+	private final CifradoTarjetaService cifrado = new CifradoTarjetaService(almacen(), true, new AleatorioRegistrado());
+
+	@Test
+	void sobreSeDescifraConLaLlaveDeMarca() throws Exception {
+		JsonNode sobre = new ObjectMapper().readTree(cifrado.proteger("VISA", "TRX1", TARJETA));
+
+		assertEquals(1, sobre.get("version").asInt());
+		assertEquals("VISA", sobre.get("marca").asText());
+		byte[] llaveDatos = descifrar(LLAVE_VISA, sobre.get("ivLlave"), "TRX1", sobre.get("llave"));
+		byte[] datos = descifrar(new SecretKeySpec(llaveDatos, "AES"), sobre.get("ivDatos"), "TRX1",
+				sobre.get("datos"));
+		assertEquals(TARJETA, new String(datos, StandardCharsets.UTF_8));
+	}
+
+	@Test
+	void sobreQuedaLigadoAlCodigoDeTransaccion() throws Exception {
+		JsonNode sobre = new ObjectMapper().readTree(cifrado.proteger("VISA", "TRX1", TARJETA));
+
+		assertThrows(AEADBadTagException.class, () -> descifrar(LLAVE_VISA, sobre.get("ivLlave"), "TRX2",
+				sobre.get("llave")));
+	}
+
+	@Test
+	void llaveDeDatosSeBorraAlTerminar() throws Exception {
+		JsonNode sobre = new ObjectMapper().readTree(cifrado.proteger("VISA", "TRX1", TARJETA));
+
+		// El primer arreglo que llena el aleatorio es la llave de datos; los demás son IVs.
+		byte[] llaveDatos = generados.get(0);
+		assertEquals(32, llaveDatos.length);
+		assertArrayEquals(new byte[32], llaveDatos);
+		assertFalse(Arrays.equals(new byte[32],
+				descifrar(LLAVE_VISA, sobre.get("ivLlave"), "TRX1", sobre.get("llave"))));
+	}
+
+	@Test
+	void deshabilitadoDevuelveLosDatosSinCambios() {
+		CifradoTarjetaService deshabilitado = new CifradoTarjetaService(almacen(), false, new SecureRandom());
+
+		assertEquals(TARJETA, deshabilitado.proteger("VISA", "TRX1", TARJETA));
+	}
+
+	private static byte[] descifrar(SecretKey llave, JsonNode iv, String codigo, JsonNode contenido)
+			throws Exception {
+		Cipher cifrador = Cipher.getInstance("AES/GCM/NoPadding");
+		cifrador.init(Cipher.DECRYPT_MODE, llave, new GCMParameterSpec(128, Base64.getDecoder().decode(iv.asText())));
+		cifrador.updateAAD(codigo.getBytes(StandardCharsets.UTF_8));
+		return cifrador.doFinal(Base64.getDecoder().decode(contenido.asText()));
+	}
+
+	private static AlmacenClavesService almacen() {
+		return new AlmacenClavesService(null, null) {
+			@Override
+			public Optional<SecretKey> obtenerLlaveMarca(String marca) {
+				return "VISA".equals(marca) ? Optional.of(LLAVE_VISA) : Optional.empty();
+			}
+		};
+	}
+
+	// Conserva los arreglos que llena para comprobar después que proteger() los borró.
+	private final class AleatorioRegistrado extends SecureRandom {
+
+		@Override
+		public void nextBytes(byte[] bytes) {
+			super.nextBytes(bytes);
+			generados.add(bytes);
+		}
+	}
+}
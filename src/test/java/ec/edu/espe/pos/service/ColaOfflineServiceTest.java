@@ -0,0 +1,190 @@
+package ec.edu.espe.pos.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.net.ConnectException;
+import java.net.SocketTimeoutException;
+import java.net.UnknownHostException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import ec.edu.espe.pos.client.GatewayTransaccionClient;
+import ec.edu.espe.pos.config.ModoOfflineProperties;
+import ec.edu.espe.pos.controller.dto.ActualizacionEstadoDTO;
+import ec.edu.espe.pos.controller.dto.FacturacionComercioDTO;
+import ec.edu.espe.pos.controller.dto.GatewayTransaccionDTO;
+import ec.edu.espe.pos.controller.dto.ResultadoSincronizacionDTO;
+import ec.edu.espe.pos.model.TransaccionPendiente;
+import ec.edu.espe.pos.repository.TransaccionPendienteRepository;
+import feign.Request;
+import feign.RequestTemplate;
+import feign.RetryableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class ColaOfflineServiceTest {
+
+	private final List<TransaccionPendiente> pendientes = new ArrayList<>();
+	private final List<TransaccionPendiente> eliminadas = new ArrayList<>();
+	private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+	@Test
+	void reintentosEsperanElDobleHastaElMaximo() throws Exception {
+		ColaOfflineService cola = cola(propiedades(10), true);
+		cola.encolar(transaccion("TRX1"));
+		TransaccionPendiente pendiente = pendientes.get(0);
+
+		List<Long> esperasMs = new ArrayList<>();
+		for (int i = 0; i < 5; i++) {
+			LocalDateTime antes = LocalDateTime.now();
+			cola.reenviarPendientes();
+			esperasMs.add(Duration.between(antes, pendiente.getProximoIntento()).toMillis());
+		}
+
+		assertEquals(5, pendiente.getIntentos());
+		assertEquals(ColaOfflineService.ESTADO_PENDIENTE, pendiente.getEstado());
+		List<Long> esperadas = List.of(1000L, 2000L, 4000L, 8000L, 8000L);
+		for (int i = 0; i < esperadas.size(); i++) {
+			long diferencia = esperasMs.get(i) - esperadas.get(i);
+			assertTrue(diferencia >= 0 && diferencia < 500, "Espera " + i + ": " + esperasMs);
+		}
+	}
+
+	@Test
+	void agotadosLosIntentosPasaAFallidasSinEliminarse() throws Exception {
+		ColaOfflineService cola = cola(propiedades(3), true);
+		cola.encolar(transaccion("TRX1"));
+
+		for (int i = 0; i < 5; i++) {
+			cola.reenviarPendientes();
+		}
+
+		TransaccionPendiente pendiente = pendientes.get(0);
+		assertEquals(ColaOfflineService.ESTADO_FALLIDA, pendiente.getEstado());
+		assertEquals(3, pendiente.getIntentos());
+		assertTrue(pendiente.getUltimoError().startsWith("Gateway no disponible"));
+		assertTrue(eliminadas.isEmpty());
+	}
+
+	@Test
+	void sinCifradoNoSeEncolaNiArranca() {
+		ColaOfflineService cola = cola(propiedades(3), false);
+
+		assertThrows(IllegalStateException.class, () -> cola.encolar(transaccion("TRX1")));
+		assertTrue(pendientes.isEmpty());
+
+		ModoOfflineProperties habilitado = propiedades(3);
+		habilitado.setHabilitado(true);
+		assertThrows(IllegalStateException.class, () -> cola(habilitado, false));
+	}
+
+	@Test
+	void soloLosFallosAlConectarSonDeConectividad() {
+		assertTrue(ColaOfflineService.esErrorDeConectividad(new ConnectException("Connection refused")));
+		assertTrue(ColaOfflineService.esErrorDeConectividad(reintentable(new UnknownHostException("gateway"))));
+		assertTrue(ColaOfflineService.esErrorDeConectividad(reintentable(new ConnectException("Connection refused"))));
+		assertFalse(ColaOfflineService.esErrorDeConectividad(new SocketTimeoutException("Read timed out")));
+		assertFalse(ColaOfflineService.esErrorDeConectividad(
+				reintentable(new SocketTimeoutException("Read timed out"))));
+		assertFalse(ColaOfflineService.esErrorDeConectividad(new IllegalStateException("Error inesperado")));
+	}
+
+	@Test
+	void elCvvNoLlegaALaCola() throws Exception {
+		String datos = TransaccionService.sinCvv(
+				"{\"numero\":\"4111111111111111\",\"expiracion\":\"12/30\",\"cvv\":\"123\"}");
+
+		assertEquals(Map.of("numero", "4111111111111111", "expiracion", "12/30"),
+				objectMapper.readValue(datos, Map.class));
+	}
+
+	private ColaOfflineService cola(ModoOfflineProperties propiedades, boolean cifrado) {
+		return new ColaOfflineService(repositorio(), new GatewayCaido(), null, null,
+				new CifradoTarjetaService(null, cifrado), new CacheEstadosFinalesService(10), propiedades,
+				objectMapper, new SimpleMeterRegistry());
+	}
+
+	private static ModoOfflineProperties propiedades(int maximoIntentos) {
+		ModoOfflineProperties propiedades = new ModoOfflineProperties();
+		propiedades.setMaximoIntentos(maximoIntentos);
+		propiedades.setReintentoBaseMs(1000);
+		propiedades.setReintentoMaximoMs(8000);
+		propiedades.setEnviosPorSegundo(0);
+		return propiedades;
+	}
+
+	private static GatewayTransaccionDTO transaccion(String codigo) {
+		GatewayTransaccionDTO transaccion = new GatewayTransaccionDTO();
+		transaccion.setCodigoUnicoTransaccion(codigo);
+		transaccion.setMarca("VISA");
+		transaccion.setMonto(new BigDecimal("10.00"));
+		transaccion.setFacturacionComercio(new FacturacionComercioDTO());
+		return transaccion;
+	}
+
+	private static RetryableException reintentable(Throwable causa) {
+		Request peticion = Request.create(Request.HttpMethod.POST, "http://gateway/v1/transacciones/sincronizar",
+				Map.of(), new byte[0], StandardCharsets.UTF_8, new RequestTemplate());
+		return new RetryableException(-1, causa.getMessage(), Request.HttpMethod.POST, causa, (Long) null, peticion);
+	}
+
+	// La cola en memoria ignora PROXIMO_INTENTO para poder reintentar sin esperar.
+	private TransaccionPendienteRepository repositorio() {
+		return (TransaccionPendienteRepository) Proxy.newProxyInstance(getClass().getClassLoader(),
+				new Class<?>[] { TransaccionPendienteRepository.class }, (proxy, metodo, argumentos) -> {
+					switch (metodo.getName()) {
+						case "save":
+							TransaccionPendiente pendiente = (TransaccionPendiente) argumentos[0];
+							if (pendientes.stream().noneMatch(existente -> existente == pendiente)) {
+								pendientes.add(pendiente);
+							}
+							return pendiente;
+						case "delete":
+							pendientes.removeIf(existente -> existente == argumentos[0]);
+							eliminadas.add((TransaccionPendiente) argumentos[0]);
+							return null;
+						case "buscarListasParaEnvio":
+							return pendientes.stream()
+									.filter(p -> ColaOfflineService.ESTADO_PENDIENTE.equals(p.getEstado()))
+									.toList();
+						case "contarPorEstado":
+							return (long) pendientes.size();
+						case "findFechaEncoladoMasAntigua":
+							return null;
+						default:
+							throw new UnsupportedOperationException(metodo.getName());
+					}
+				});
+	}
+
+	private static final class GatewayCaido implements GatewayTransaccionClient {
+
+		@Override
+		public ResponseEntity<String> sincronizarTransaccion(GatewayTransaccionDTO transaccion) {
+			throw reintentable(new ConnectException("Connection refused"));
+		}
+
+		@Override
+		public List<ResultadoSincronizacionDTO> sincronizarLote(List<GatewayTransaccionDTO> transacciones) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public List<ActualizacionEstadoDTO> consultarEstados(List<String> codigos) {
+			throw new UnsupportedOperationException();
+		}
+	}
+}
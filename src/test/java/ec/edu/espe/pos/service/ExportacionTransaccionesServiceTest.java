@@ -0,0 +1,154 @@
+package ec.edu.espe.pos.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.arrow.compression.CommonsCompressionFactory;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.DecimalVector;
+import org.apache.arrow.vector.TimeStampMilliVector;
+import org.apache.arrow.vector.ValueVector;
+import org.apache.arrow.vector.VarCharVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.dictionary.DictionaryEncoder;
+import org.apache.arrow.vector.ipc.ArrowFileReader;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import ec.edu.espe.pos.config.DataSourceFragmentado;
+import ec.edu.espe.pos.controller.dto.ResultadoExportacionDTO;
+import ec.edu.espe.pos.repository.FragmentosTransaccion;
+
+class ExportacionTransaccionesServiceTest {
+
+	@TempDir
+	Path directorio;
+
+	private DriverManagerDataSource dataSource;
+
+	@BeforeEach
+	void crearTabla() {
+		dataSource = new DriverManagerDataSource("jdbc:h2:mem:exportacion;DB_CLOSE_DELAY=-1");
+		JdbcTemplate jdbcTemplate = crearTabla(dataSource);
+		insertar(jdbcTemplate, 1, "VISA", "10.50", "2026-03-01 10:15:00", "AUT", null);
+		insertar(jdbcTemplate, 2, "MAST", "20.00", "2026-03-01 11:00:00", "REC", "PEN");
+		insertar(jdbcTemplate, 3, "VISA", "5.25", "2026-03-02 09:00:00", "AUT", "IMP");
+		insertar(jdbcTemplate, 4, "VISA", "1.00", "2026-03-05 09:00:00", "AUT", "IMP");
+	}
+
+	@Test
+	void exportaPorFechaYMarcaYSeLeeDeVuelta() throws Exception {
+		ExportacionTransaccionesService servicio = new ExportacionTransaccionesService(dataSource,
+				new FragmentosTransaccion(1, 1, false), directorio.toString(), 2, 100, 64L * 1024 * 1024);
+
+		ResultadoExportacionDTO resultado = servicio.exportar(LocalDate.of(2026, 3, 1), LocalDate.of(2026, 3, 2));
+
+		assertEquals(3, resultado.getTransacciones());
+		Path raiz = Path.of(resultado.getDirectorio());
+		List<String> particiones = resultado.getArchivos().stream()
+				.map(archivo -> raiz.relativize(Path.of(archivo)).toString().replace('\\', '/'))
+				.toList();
+		assertEquals(List.of("fecha=2026-03-01/marca=VISA/transacciones.arrow",
+				"fecha=2026-03-01/marca=MAST/transacciones.arrow",
+				"fecha=2026-03-02/marca=VISA/transacciones.arrow"), particiones);
+
+		try (BufferAllocator allocator = new RootAllocator();
+				FileChannel canal = FileChannel.open(Path.of(resultado.getArchivos().get(0)));
+				ArrowFileReader lector = new ArrowFileReader(canal, allocator, CommonsCompressionFactory.INSTANCE)) {
+			assertTrue(lector.loadNextBatch());
+			VectorSchemaRoot root = lector.getVectorSchemaRoot();
+			assertEquals(1, root.getRowCount());
+			assertEquals("VISA", decodificar(lector, root, "marca"));
+			assertEquals("AUT", decodificar(lector, root, "estado"));
+			assertTrue(root.getVector("estado_recibo").isNull(0));
+			assertEquals(new BigDecimal("10.50"), ((DecimalVector) root.getVector("monto")).getObject(0));
+			assertEquals(LocalDateTime.of(2026, 3, 1, 10, 15).toInstant(ZoneOffset.UTC).toEpochMilli(),
+					((TimeStampMilliVector) root.getVector("fecha")).get(0));
+		}
+	}
+
+	@Test
+	void conFragmentosCadaParticionReuneLasFilasDeTodos() throws Exception {
+		DriverManagerDataSource segundo = new DriverManagerDataSource("jdbc:h2:mem:exportacion-f1;DB_CLOSE_DELAY=-1");
+		JdbcTemplate fragmento = crearTabla(segundo);
+		// Los códigos internos se repiten entre fragmentos.
+		insertar(fragmento, 1, "VISA", "7.00", "2026-03-01 12:00:00", "AUT", null);
+		insertar(fragmento, 2, "AMEX", "3.00", "2026-03-02 08:00:00", "REV", null);
+		DataSourceFragmentado enrutado = new DataSourceFragmentado();
+		enrutado.setTargetDataSources(Map.<Object, Object>of(0, dataSource, 1, segundo));
+		enrutado.afterPropertiesSet();
+		FragmentosTransaccion fragmentos = new FragmentosTransaccion(2, 2, false);
+		try {
+			ExportacionTransaccionesService servicio = new ExportacionTransaccionesService(enrutado, fragmentos,
+					directorio.toString(), 10, 100, 64L * 1024 * 1024);
+
+			ResultadoExportacionDTO resultado = servicio.exportar(LocalDate.of(2026, 3, 1),
+					LocalDate.of(2026, 3, 2));
+
+			assertEquals(5, resultado.getTransacciones());
+			Path raiz = Path.of(resultado.getDirectorio());
+			assertEquals(List.of("fecha=2026-03-01/marca=VISA/transacciones.arrow",
+					"fecha=2026-03-01/marca=MAST/transacciones.arrow",
+					"fecha=2026-03-02/marca=VISA/transacciones.arrow",
+					"fecha=2026-03-02/marca=AMEX/transacciones.arrow"),
+					resultado.getArchivos().stream()
+							.map(archivo -> raiz.relativize(Path.of(archivo)).toString().replace('\\', '/'))
+							.toList());
+			try (BufferAllocator allocator = new RootAllocator();
+					FileChannel canal = FileChannel.open(Path.of(resultado.getArchivos().get(0)));
+					ArrowFileReader lector = new ArrowFileReader(canal, allocator,
+							CommonsCompressionFactory.INSTANCE)) {
+				assertTrue(lector.loadNextBatch());
+				assertEquals(2, lector.getVectorSchemaRoot().getRowCount());
+			}
+			try (BufferAllocator allocator = new RootAllocator();
+					FileChannel canal = FileChannel.open(Path.of(resultado.getArchivos().get(3)));
+					ArrowFileReader lector = new ArrowFileReader(canal, allocator,
+							CommonsCompressionFactory.INSTANCE)) {
+				assertTrue(lector.loadNextBatch());
+				assertEquals("REV", decodificar(lector, lector.getVectorSchemaRoot(), "estado"));
+			}
+		} finally {
+			fragmentos.detener();
+		}
+	}
+
+	private static JdbcTemplate crearTabla(DriverManagerDataSource dataSource) {
+		JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+		jdbcTemplate.execute("DROP TABLE IF EXISTS POS_TRANSACCION");
+		jdbcTemplate.execute("CREATE TABLE POS_TRANSACCION (COD_TRANSACCION INT PRIMARY KEY, TIPO VARCHAR(3), "
+				+ "MARCA VARCHAR(4), MODALIDAD VARCHAR(3), DETALLE VARCHAR(255), MONTO DECIMAL(20, 2), "
+				+ "CODIGO_UNICO_TRANSACCION VARCHAR(64), FECHA TIMESTAMP, ESTADO VARCHAR(3), "
+				+ "ESTADO_RECIBO VARCHAR(3), MONEDA VARCHAR(3))");
+		return jdbcTemplate;
+	}
+
+	private static String decodificar(ArrowFileReader lector, VectorSchemaRoot root, String columna)
+			throws Exception {
+		ValueVector indices = root.getVector(columna);
+		long id = indices.getField().getDictionary().getId();
+		try (ValueVector valores = DictionaryEncoder.decode(indices, lector.getDictionaryVectors().get(id))) {
+			return ((VarCharVector) valores).getObject(0).toString();
+		}
+	}
+
+	private static void insertar(JdbcTemplate jdbcTemplate, int codigo, String marca, String monto, String fecha,
+			String estado, String estadoRecibo) {
+		jdbcTemplate.update("INSERT INTO POS_TRANSACCION VALUES (?, 'PAG', ?, 'SIM', 'Exportación', ?, ?, "
+				+ "CAST(? AS TIMESTAMP), ?, ?, 'USD')", codigo, marca, new BigDecimal(monto), "TRX-" + codigo, fecha,
+				estado, estadoRecibo);
+	}
+}
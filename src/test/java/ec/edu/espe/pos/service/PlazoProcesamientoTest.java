@@ -0,0 +1,108 @@
+package ec.edu.espe.pos.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import ec.edu.espe.pos.carga.DistribucionLatencia;
+import ec.edu.espe.pos.carga.ServidorStub;
+import ec.edu.espe.pos.model.Configuracion;
+import ec.edu.espe.pos.model.ConfiguracionPK;
+import ec.edu.espe.pos.repository.ConfiguracionRepository;
+import ec.edu.espe.pos.repository.TransaccionRepository;
+import ec.edu.espe.pos.repository.TransicionesEstadoTransaccion;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+		"spring.datasource.url=jdbc:sqlite:target/pos-plazo.db?journal_mode=WAL&busy_timeout=10000",
+		"spring.jpa.show-sql=false",
+		"spring.cloud.openfeign.client.config.default.logger-level=none",
+		"pos.gateway.lote.habilitado=true",
+		"pos.velocidad.habilitado=false",
+		"pos.barrido.habilitado=false"
+})
+class PlazoProcesamientoTest {
+
+	private static final String CUERPO_PAGO = "{\"monto\":10.00,\"marca\":\"VISA\",\"interesDiferido\":false,"
+			+ "\"cuotas\":0,\"datosTarjeta\":\"{\\\"cardNumber\\\":\\\"4111111111111111\\\","
+			+ "\\\"expiryDate\\\":\\\"12/30\\\",\\\"cvv\\\":\\\"123\\\"}\"}";
+
+	private static ServidorStub gateway;
+	private static ServidorStub validacionTarjeta;
+
+	@Autowired
+	private TestRestTemplate restTemplate;
+
+	@Autowired
+	private ConfiguracionRepository configuracionRepository;
+
+	@Autowired
+	private TransaccionRepository transaccionRepository;
+
+	// El lote tarda más que el plazo del terminal; el comercio responde al instante para que el envío ocurra.
+	@DynamicPropertySource
+	static void propiedades(DynamicPropertyRegistry registro) throws IOException {
+		gateway = new ServidorStub()
+				.ruta("/v1/transacciones/sincronizar-lote", DistribucionLatencia.fija(3000), 0.0, 200, "[]")
+				.ruta("/v1/comercios/", DistribucionLatencia.ninguna(), 0.0, 200, "{\"codigo\":1}")
+				.iniciar();
+		validacionTarjeta = new ServidorStub()
+				.ruta("/v1/tarjetas/validar", DistribucionLatencia.fija(5), 0.0, 200, "")
+				.iniciar();
+		registro.add("pos.gateway.url", gateway::url);
+		registro.add("pos.validacion-tarjeta.url", validacionTarjeta::url);
+	}
+
+	@AfterAll
+	static void detenerStubs() {
+		gateway.close();
+		validacionTarjeta.close();
+	}
+
+	@Test
+	void plazoAgotadoTrasElEnvioDevuelveElCodigoParaConsultarElEstado() {
+		configuracionRepository.deleteAll();
+		configuracionRepository.save(new Configuracion(new ConfiguracionPK("POSPLAZO01", "MOD01"),
+				"00:1A:2B:3C:4D:5E", 1, LocalDateTime.now().minusDays(1), null));
+		HttpHeaders cabeceras = new HttpHeaders();
+		cabeceras.setContentType(MediaType.APPLICATION_JSON);
+		cabeceras.set("X-Request-Timeout-Ms", "1000");
+
+		ResponseEntity<Map<String, String>> respuesta = restTemplate.exchange(
+				"/v1/procesamiento-transaccion/procesar", HttpMethod.POST, new HttpEntity<>(CUERPO_PAGO, cabeceras),
+				new ParameterizedTypeReference<Map<String, String>>() {
+				});
+
+		assertEquals(504, respuesta.getStatusCode().value());
+		assertTrue(gateway.solicitudes() >= 1, "La transacción no llegó al gateway");
+		String codigo = respuesta.getBody().get("codigoUnicoTransaccion");
+		assertNotNull(codigo, respuesta.getBody().toString());
+		assertEquals(TransicionesEstadoTransaccion.ESTADO_ENVIADO, respuesta.getBody().get("estado"));
+		assertEquals(TransicionesEstadoTransaccion.ESTADO_ENVIADO,
+				transaccionRepository.findEstadoByCodigoUnicoTransaccion(codigo).orElseThrow());
+
+		ResponseEntity<Map<String, Object>> estado = restTemplate.exchange(
+				"/v1/transacciones/" + codigo + "/estado", HttpMethod.GET, null,
+				new ParameterizedTypeReference<Map<String, Object>>() {
+				});
+		assertEquals(200, estado.getStatusCode().value());
+		assertEquals(TransicionesEstadoTransaccion.ESTADO_ENVIADO, estado.getBody().get("estado"));
+	}
+}
@@ -0,0 +1,183 @@
+package ec.edu.espe.pos.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+
+import ec.edu.espe.pos.client.GatewayTransaccionClient;
+import ec.edu.espe.pos.client.Plazo;
+import ec.edu.espe.pos.controller.dto.ActualizacionEstadoDTO;
+import ec.edu.espe.pos.controller.dto.GatewayTransaccionDTO;
+import ec.edu.espe.pos.controller.dto.ResultadoSincronizacionDTO;
+import ec.edu.espe.pos.exception.PlazoExcedidoException;
+
+class SincronizacionLoteServiceTest {
+
+	@Test
+	void agrupaLlamadasConcurrentesYDevuelveCadaResultado() throws Exception {
+		GatewayStub gateway = new GatewayStub();
+		SincronizacionLoteService servicio = new SincronizacionLoteService(gateway, true, 10, 50, 100);
+		servicio.iniciar();
+		ExecutorService ejecutor = Executors.newFixedThreadPool(20);
+		try {
+			List<Future<ResponseEntity<String>>> respuestas = new ArrayList<>();
+			for (int i = 0; i < 20; i++) {
+				GatewayTransaccionDTO transaccion = new GatewayTransaccionDTO();
+				transaccion.setCodigoUnicoTransaccion("TRX-" + i);
+				respuestas.add(ejecutor.submit(() -> servicio.sincronizar(transaccion)));
+			}
+			for (int i = 0; i < respuestas.size(); i++) {
+				ResponseEntity<String> respuesta = respuestas.get(i).get();
+				assertEquals(200, respuesta.getStatusCode().value());
+				assertEquals("aceptada TRX-" + i, respuesta.getBody());
+			}
+			assertTrue(gateway.lotes.get() < 20, "Se esperaban menos lotes que transacciones");
+			assertEquals(0, gateway.individuales.get());
+		} finally {
+			ejecutor.shutdownNow();
+			servicio.detener();
+		}
+	}
+
+	@Test
+	void propagaElErrorDelLoteACadaLlamada() {
+		GatewayStub gateway = new GatewayStub();
+		gateway.fallar = true;
+		SincronizacionLoteService servicio = new SincronizacionLoteService(gateway, true, 10, 5, 100);
+		servicio.iniciar();
+		try {
+			GatewayTransaccionDTO transaccion = new GatewayTransaccionDTO();
+			transaccion.setCodigoUnicoTransaccion("TRX-ERROR");
+			assertThrows(IllegalStateException.class, () -> servicio.sincronizar(transaccion));
+		} finally {
+			servicio.detener();
+		}
+	}
+
+	@Test
+	void deshabilitadoEnviaIndividualmente() {
+		GatewayStub gateway = new GatewayStub();
+		SincronizacionLoteService servicio = new SincronizacionLoteService(gateway, false, 10, 5, 100);
+		servicio.iniciar();
+		GatewayTransaccionDTO transaccion = new GatewayTransaccionDTO();
+		transaccion.setCodigoUnicoTransaccion("TRX-1");
+		assertEquals("Transacción aceptada", servicio.sincronizar(transaccion).getBody());
+		assertEquals(1, gateway.individuales.get());
+		assertEquals(0, gateway.lotes.get());
+	}
+
+	@Test
+	void laTransaccionAbandonadaPorPlazoNoSeEnvia() throws Exception {
+		GatewayStub gateway = new GatewayStub();
+		gateway.liberar = new CountDownLatch(1);
+		SincronizacionLoteService servicio = new SincronizacionLoteService(gateway, true, 10, 5, 100);
+		servicio.iniciar();
+		ExecutorService ejecutor = Executors.newSingleThreadExecutor();
+		try {
+			// El primer lote queda retenido en el gateway mientras la segunda transacción agota su plazo en cola.
+			Future<ResponseEntity<String>> primera = ejecutor.submit(
+					() -> servicio.sincronizar(transaccion("TRX-A")));
+			gateway.enCurso.await();
+			Plazo.establecer(50);
+			try {
+				assertThrows(PlazoExcedidoException.class, () -> servicio.sincronizar(transaccion("TRX-B")));
+			} finally {
+				Plazo.limpiar();
+			}
+			gateway.liberar.countDown();
+
+			assertEquals("aceptada TRX-A", primera.get().getBody());
+			assertEquals("aceptada TRX-C", servicio.sincronizar(transaccion("TRX-C")).getBody());
+			assertEquals(List.of("TRX-A", "TRX-C"), gateway.enviadas);
+		} finally {
+			ejecutor.shutdownNow();
+			servicio.detener();
+		}
+	}
+
+	@Test
+	void plazoAgotadoConElLoteEnviadoNoEsperaLaRespuesta() throws Exception {
+		GatewayStub gateway = new GatewayStub();
+		gateway.liberar = new CountDownLatch(1);
+		SincronizacionLoteService servicio = new SincronizacionLoteService(gateway, true, 10, 5, 100);
+		servicio.iniciar();
+		try {
+			// El lote ya salió hacia el gateway: quien espera se va con el plazo y la transacción queda ENV.
+			Plazo.establecer(200);
+			try {
+				assertThrows(PlazoExcedidoException.class, () -> servicio.sincronizar(transaccion("TRX-A")));
+			} finally {
+				Plazo.limpiar();
+			}
+			assertEquals(0, gateway.enCurso.getCount());
+			assertEquals(List.of("TRX-A"), gateway.enviadas);
+
+			gateway.liberar.countDown();
+			assertEquals("aceptada TRX-B", servicio.sincronizar(transaccion("TRX-B")).getBody());
+		} finally {
+			servicio.detener();
+		}
+	}
+
+	private static GatewayTransaccionDTO transaccion(String codigo) {
+		GatewayTransaccionDTO transaccion = new GatewayTransaccionDTO();
+		transaccion.setCodigoUnicoTransaccion(codigo);
+		return transaccion;
+	}
+
+	private static class GatewayStub implements GatewayTransaccionClient {
+
+		private final AtomicInteger lotes = new AtomicInteger();
+		private final AtomicInteger individuales = new AtomicInteger();
+		private final List<String> enviadas = new CopyOnWriteArrayList<>();
+		private final CountDownLatch enCurso = new CountDownLatch(1);
+		private volatile CountDownLatch liberar;
+		private volatile boolean fallar;
+
+		@Override
+		public ResponseEntity<String> sincronizarTransaccion(GatewayTransaccionDTO transaccion) {
+			individuales.incrementAndGet();
+			return ResponseEntity.ok("Transacción aceptada");
+		}
+
+		@Override
+		public List<ResultadoSincronizacionDTO> sincronizarLote(List<GatewayTransaccionDTO> transacciones) {
+			lotes.incrementAndGet();
+			transacciones.forEach(transaccion -> enviadas.add(transaccion.getCodigoUnicoTransaccion()));
+			enCurso.countDown();
+			if (liberar != null) {
+				try {
+					liberar.await();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}
+			if (fallar) {
+				throw new IllegalStateException("gateway no disponible");
+			}
+			List<ResultadoSincronizacionDTO> resultados = new ArrayList<>();
+			for (GatewayTransaccionDTO transaccion : transacciones) {
+				resultados.add(new ResultadoSincronizacionDTO(transaccion.getCodigoUnicoTransaccion(), 200,
+						"aceptada " + transaccion.getCodigoUnicoTransaccion()));
+			}
+			return resultados;
+		}
+
+		@Override
+		public List<ActualizacionEstadoDTO> consultarEstados(List<String> codigosUnicosTransaccion) {
+			return List.of();
+		}
+	}
+}
@@ -0,0 +1,123 @@
+package ec.edu.espe.pos.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+
+import ec.edu.espe.pos.client.ValidacionTarjetaClient;
+import ec.edu.espe.pos.controller.dto.ValidacionTarjetaDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class ValidacionTarjetaServiceTest {
+
+	private static final long RETRASO_LENTO_MS = 400;
+
+	private final SimpleMeterRegistry registro = new SimpleMeterRegistry();
+	private final ValidadorStub validador = new ValidadorStub();
+	private final ValidacionTarjetaService servicio = new ValidacionTarjetaService(validador, registro, true, 0.95,
+			50, 0.05, false);
+
+	@AfterEach
+	void detener() {
+		servicio.detener();
+	}
+
+	@Test
+	void sinMuestrasSuficientesEsperaUnSegundo() {
+		for (int i = 0; i < 19; i++) {
+			servicio.validar(new ValidacionTarjetaDTO());
+		}
+
+		assertEquals(1000, servicio.retrasoCobertura());
+	}
+
+	@Test
+	void conMuestrasUsaElPercentilSinBajarDelMinimo() {
+		calentar();
+
+		assertEquals(50, servicio.retrasoCobertura());
+	}
+
+	@Test
+	void laCoberturaRespondeCuandoElPrimerIntentoSeDemora() {
+		calentar();
+		validador.lentas.set(1);
+
+		long inicio = System.nanoTime();
+		assertEquals(200, servicio.validar(new ValidacionTarjetaDTO()).getStatusCode().value());
+		long transcurridoMs = (System.nanoTime() - inicio) / 1_000_000;
+
+		assertTrue(transcurridoMs < RETRASO_LENTO_MS, "tardó " + transcurridoMs + " ms");
+		assertEquals(1, contador("pos.validacion-tarjeta.coberturas.enviadas"));
+		assertEquals(1, contador("pos.validacion-tarjeta.coberturas.ganadoras"));
+	}
+
+	@Test
+	void elPresupuestoLimitaLasCoberturas() {
+		calentar();
+		validador.lentas.set(1);
+		servicio.validar(new ValidacionTarjetaDTO());
+		validador.lentas.set(1);
+		servicio.validar(new ValidacionTarjetaDTO());
+
+		assertEquals(1, contador("pos.validacion-tarjeta.coberturas.enviadas"));
+		assertEquals(22, contador("pos.validacion-tarjeta.solicitudes"));
+	}
+
+	@Test
+	void laLatenciaDelIntentoPerdedorSeRegistra() throws Exception {
+		// Con el percentil 100 el retraso es la mayor muestra: solo sube a 400 ms si el perdedor se registra.
+		ValidacionTarjetaService maximo = new ValidacionTarjetaService(validador, new SimpleMeterRegistry(), true, 1.0,
+				50, 0.05, false);
+		try {
+			for (int i = 0; i < 20; i++) {
+				maximo.validar(new ValidacionTarjetaDTO());
+			}
+			assertEquals(50, maximo.retrasoCobertura());
+			validador.lentas.set(1);
+
+			maximo.validar(new ValidacionTarjetaDTO());
+
+			long limite = System.nanoTime() + 2_000_000_000L;
+			while (maximo.retrasoCobertura() < RETRASO_LENTO_MS && System.nanoTime() < limite) {
+				Thread.sleep(20);
+			}
+			assertTrue(maximo.retrasoCobertura() >= RETRASO_LENTO_MS, "retraso " + maximo.retrasoCobertura());
+		} finally {
+			maximo.detener();
+		}
+	}
+
+	// 20 validaciones rápidas: alcanzan las muestras mínimas y acumulan presupuesto para una cobertura.
+	private void calentar() {
+		for (int i = 0; i < 20; i++) {
+			servicio.validar(new ValidacionTarjetaDTO());
+		}
+	}
+
+	private double contador(String nombre) {
+		return registro.counter(nombre).count();
+	}
+
+	private static class ValidadorStub implements ValidacionTarjetaClient {
+
+		private final AtomicInteger lentas = new AtomicInteger();
+
+		@Override
+		public ResponseEntity<Void> validarTarjeta(ValidacionTarjetaDTO validacionTarjetaDTO) {
+			if (lentas.getAndDecrement() > 0) {
+				try {
+					Thread.sleep(RETRASO_LENTO_MS);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}
+			return ResponseEntity.ok().build();
+		}
+	}
+}
@@ -0,0 +1,106 @@
+package ec.edu.espe.pos.service;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import ec.edu.espe.pos.exception.DuplicateException;
+import ec.edu.espe.pos.exception.InvalidDataException;
+
+class VelocidadTransaccionesServiceTest {
+
+	private static final String TARJETA = "4111111111111111";
+
+	@Test
+	void rechazaMismoMontoConLaMismaTarjetaDentroDeLaVentana() {
+		VelocidadTransaccionesService servicio = new VelocidadTransaccionesService(true, 10000, 60000, 6, 5, 100,
+				1024);
+		servicio.verificar(TARJETA, "POS0000001", new BigDecimal("10.00"));
+		assertThrows(DuplicateException.class,
+				() -> servicio.verificar(TARJETA, "POS0000001", new BigDecimal("10.0")));
+		assertDoesNotThrow(() -> servicio.verificar(TARJETA, "POS0000001", new BigDecimal("10.01")));
+		assertDoesNotThrow(() -> servicio.verificar("5555555555554444", "POS0000001", new BigDecimal("10.00")));
+	}
+
+	@Test
+	void rechazaRafagasPorTarjetaYPorTerminal() {
+		VelocidadTransaccionesService servicio = new VelocidadTransaccionesService(true, 0, 60000, 6, 3, 4, 1024);
+		for (int i = 1; i <= 3; i++) {
+			servicio.verificar(TARJETA, "POS0000001", BigDecimal.valueOf(i));
+		}
+		assertThrows(InvalidDataException.class,
+				() -> servicio.verificar(TARJETA, "POS0000001", BigDecimal.valueOf(4)));
+
+		servicio.verificar("5555555555554444", "POS0000001", BigDecimal.ONE);
+		assertThrows(InvalidDataException.class,
+				() -> servicio.verificar("378282246310005", "POS0000001", BigDecimal.ONE));
+	}
+
+	@Test
+	void tarjetasEnLaMismaRanuraNoSeSumanNiSeTomanPorDuplicado() {
+		// Cuatro ranuras y ocho tarjetas: al menos dos comparten ranura de conteo y de huella.
+		VelocidadTransaccionesService servicio = new VelocidadTransaccionesService(true, 10000, 60000, 6, 3, 100, 4);
+		for (int monto = 1; monto <= 3; monto++) {
+			for (int tarjeta = 0; tarjeta < 8; tarjeta++) {
+				String numero = "411111111111111" + tarjeta;
+				BigDecimal valor = BigDecimal.valueOf(monto);
+				assertDoesNotThrow(() -> servicio.verificar(numero, "POS0000001", valor));
+			}
+		}
+	}
+
+	@Test
+	void soloUnaDeVariasPeticionesSimultaneasReservaLaHuella() throws Exception {
+		VelocidadTransaccionesService servicio = new VelocidadTransaccionesService(true, 10000, 60000, 6, 100, 100,
+				1024);
+		ExecutorService ejecutor = Executors.newFixedThreadPool(16);
+		CountDownLatch salida = new CountDownLatch(1);
+		AtomicInteger aceptadas = new AtomicInteger();
+		try {
+			List<Future<?>> tareas = new ArrayList<>();
+			for (int i = 0; i < 16; i++) {
+				tareas.add(ejecutor.submit(() -> {
+					salida.await();
+					try {
+						servicio.verificar(TARJETA, "POS0000001", new BigDecimal("25.00"));
+						aceptadas.incrementAndGet();
+					} catch (DuplicateException e) {
+						// esperado para todas menos una
+					}
+					return null;
+				}));
+			}
+			salida.countDown();
+			for (Future<?> tarea : tareas) {
+				tarea.get();
+			}
+		} finally {
+			ejecutor.shutdownNow();
+		}
+		assertEquals(1, aceptadas.get());
+	}
+
+	@Test
+	void liberarPermiteReintentarElMismoCobro() {
+		VelocidadTransaccionesService servicio = new VelocidadTransaccionesService(true, 10000, 60000, 6, 5, 100,
+				1024);
+		VelocidadTransaccionesService.Reserva reserva = servicio.verificar(TARJETA, "POS0000001",
+				new BigDecimal("10.00"));
+		servicio.liberar(reserva);
+
+		assertDoesNotThrow(() -> servicio.verificar(TARJETA, "POS0000001", new BigDecimal("10.00")));
+		assertThrows(DuplicateException.class,
+				() -> servicio.verificar(TARJETA, "POS0000001", new BigDecimal("10.00")));
+	}
+}
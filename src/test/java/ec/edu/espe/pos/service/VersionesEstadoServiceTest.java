@@ -0,0 +1,27 @@
+package ec.edu.espe.pos.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+class VersionesEstadoServiceTest {
+
+	private final VersionesEstadoService versiones = new VersionesEstadoService(100, true);
+
+	@Test
+	void lecturaAtrasadaNoReemplazaEstadoFinal() {
+		versiones.registrar("TRX1", "ENV");
+		versiones.registrar("TRX1", "AUT");
+		versiones.registrar("TRX1", "ENV");
+
+		assertEquals(VersionesEstadoService.etiquetar("AUT"), versiones.obtenerEtag("TRX1"));
+	}
+
+	@Test
+	void estadoIntermedioAvanzaAFinal() {
+		versiones.registrar("TRX2", "ENV");
+		versiones.registrar("TRX2", "REV");
+
+		assertEquals(VersionesEstadoService.etiquetar("REV"), versiones.obtenerEtag("TRX2"));
+	}
+}
@@ -0,0 +1,67 @@
+package ec.edu.espe.pos.validation;
+
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ValidadorConfiguracionBenchmark {
+
+	// Implementación previa: String.matches con un patrón formateado en cada llamada y Matcher por MAC.
+	private static final String PATRON_ALFANUMERICO = "^[A-Za-z0-9]{%d}$";
+	private static final Pattern MAC_ADDRESS_PATTERN = Pattern.compile("^([0-9A-Fa-f]{2}[:-]){5}([0-9A-Fa-f]{2})$");
+
+	@Param({ "POS0000001", "POS-000001" })
+	public String codigoPos;
+
+	@Param({ "00:1A:2B:3C:4D:5E", "00:1A:2B:3C:4D:5G" })
+	public String direccionMac;
+
+	@Benchmark
+	public boolean codigoPosExpresionRegular() {
+		return codigoPos.matches(String.format(PATRON_ALFANUMERICO, ValidadorConfiguracion.CODIGO_POS_LENGTH));
+	}
+
+	@Benchmark
+	public boolean codigoPosRecorrido() {
+		return ValidadorConfiguracion.esAlfanumerico(codigoPos, ValidadorConfiguracion.CODIGO_POS_LENGTH,
+				ValidadorConfiguracion.CODIGO_POS_LENGTH);
+	}
+
+	@Benchmark
+	public boolean direccionMacExpresionRegular() {
+		return MAC_ADDRESS_PATTERN.matcher(direccionMac).matches();
+	}
+
+	@Benchmark
+	public boolean direccionMacRecorrido() {
+		return ValidadorConfiguracion.esDireccionMac(direccionMac);
+	}
+
+	@Test
+	@EnabledIfSystemProperty(named = "pos.benchmark", matches = "true")
+	void ejecutar() throws Exception {
+		new Runner(new OptionsBuilder()
+				.include(ValidadorConfiguracionBenchmark.class.getSimpleName())
+				.build()).run();
+	}
+}
@@ -0,0 +1,65 @@
+package ec.edu.espe.pos.validation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+import ec.edu.espe.pos.model.ConfiguracionPK;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+
+class ValidadorConfiguracionTest {
+
+	private static final Pattern MAC_ADDRESS_PATTERN = Pattern.compile("^([0-9A-Fa-f]{2}[:-]){5}([0-9A-Fa-f]{2})$");
+
+	@Test
+	void direccionMacCoincideConExpresionRegular() {
+		List<String> casos = List.of("00:1A:2b:3C:4d:5E", "00-1A-2B-3C-4D-5E", "00:1A-2B:3C-4D:5E",
+				"00:1A:2B:3C:4D", "00:1A:2B:3C:4D:5G", "001A2B3C4D5E", "00:1A:2B:3C:4D:5E\n",
+				"00.1A.2B.3C.4D.5E", "");
+		for (String caso : casos) {
+			assertEquals(MAC_ADDRESS_PATTERN.matcher(caso).matches(), ValidadorConfiguracion.esDireccionMac(caso),
+					caso);
+		}
+	}
+
+	@Test
+	void alfanumericoCoincideConExpresionRegular() {
+		List<String> casos = List.of("POS0000001", "pos000000a", "POS-000001", "POS00001", "POSÑ000001",
+				"POS 000001", "");
+		for (String caso : casos) {
+			assertEquals(caso.matches("^[A-Za-z0-9]{10}$"), ValidadorConfiguracion.esAlfanumerico(caso, 10, 10),
+					caso);
+			assertEquals(caso.length() <= 10 && caso.matches(String.format("^[A-Za-z0-9]{%d}$", caso.length())),
+					ValidadorConfiguracion.esAlfanumerico(caso, 0, 10), caso);
+		}
+	}
+
+	@Test
+	void codigoPosDistingueLongitudDeFormato() {
+		try (ValidatorFactory fabrica = Validation.buildDefaultValidatorFactory()) {
+			Validator validador = fabrica.getValidator();
+
+			assertEquals(Set.of("Código POS con longitud incorrecta: POS01"),
+					mensajes(validador, new ConfiguracionPK("POS01", "M1")));
+			assertEquals(Set.of("Código POS con formato incorrecto: POS-000001"),
+					mensajes(validador, new ConfiguracionPK("POS-000001", "M1")));
+			assertEquals(Set.of("Modelo con longitud incorrecta: MODELO00001"),
+					mensajes(validador, new ConfiguracionPK("POS0000001", "MODELO00001")));
+			assertEquals(Set.of("Modelo con formato incorrecto: M-1"),
+					mensajes(validador, new ConfiguracionPK("POS0000001", "M-1")));
+			assertEquals(Set.of(), mensajes(validador, new ConfiguracionPK("POS0000001", "M1")));
+		}
+	}
+
+	private static Set<String> mensajes(Validator validador, ConfiguracionPK pk) {
+		return validador.validate(pk).stream().map(ConstraintViolation::getMessage).collect(Collectors.toSet());
+	}
+}
@@ -0,0 +1,48 @@
+package ec.edu.espe.pos.validation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.YearMonth;
+
+import org.junit.jupiter.api.Test;
+
+class ValidadorTarjetaTest {
+
+	@Test
+	void numeroCumpleLuhn() {
+		assertTrue(ValidadorTarjeta.esNumeroValido("4111111111111111"));
+		assertTrue(ValidadorTarjeta.esNumeroValido("378282246310005"));
+		assertTrue(ValidadorTarjeta.esNumeroValido("5555555555554444"));
+		assertFalse(ValidadorTarjeta.esNumeroValido("4111111111111112"));
+		assertFalse(ValidadorTarjeta.esNumeroValido("4111-1111-1111-1111"));
+		assertFalse(ValidadorTarjeta.esNumeroValido("41111111111"));
+		assertFalse(ValidadorTarjeta.esNumeroValido(null));
+	}
+
+	@Test
+	void binTomaLosSeisPrimerosDigitos() {
+		assertEquals(411111, ValidadorTarjeta.bin("4111111111111111"));
+		assertEquals(378282, ValidadorTarjeta.bin("378282246310005"));
+	}
+
+	@Test
+	void fechaCaducidadVigenteHastaFinDeMes() {
+		YearMonth actual = YearMonth.of(2026, 10);
+		assertTrue(ValidadorTarjeta.estaVigente("10/26", actual));
+		assertTrue(ValidadorTarjeta.estaVigente("01/2030", actual));
+		assertFalse(ValidadorTarjeta.estaVigente("09/26", actual));
+		assertFalse(ValidadorTarjeta.estaVigente("13/30", actual));
+		assertFalse(ValidadorTarjeta.estaVigente("1/30", actual));
+		assertFalse(ValidadorTarjeta.estaVigente("ab/cd", actual));
+	}
+
+	@Test
+	void cvvSegunLongitud() {
+		assertTrue(ValidadorTarjeta.esCvvValido("123", 3));
+		assertTrue(ValidadorTarjeta.esCvvValido("1234", 4));
+		assertFalse(ValidadorTarjeta.esCvvValido("1234", 3));
+		assertFalse(ValidadorTarjeta.esCvvValido("12a", 3));
+	}
+}